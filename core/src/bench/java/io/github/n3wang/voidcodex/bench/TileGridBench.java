@@ -0,0 +1,94 @@
+package io.github.n3wang.voidcodex.bench;
+
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.TileStateStore;
+import io.github.n3wang.voidcodex.sim.FireSpread;
+import io.github.n3wang.voidcodex.sim.OxygenDiffusion;
+
+import java.util.Arrays;
+
+/**
+ * Times one tick of fire spread and oxygen diffusion on a 256x256-tile grid (128x128 rooms
+ * of 2x2 tiles), the worst case the per-tile stencils are sized for.
+ * Fires are lit across the grid and oxygen is topped up every few seconds of game time, so
+ * the measured ticks keep burning instead of settling into an all-clear grid.
+ * Run by the core benchTileGrid task: {@code TileGridBench [ticks per round] [rounds]}.
+ */
+public class TileGridBench {
+    private static final int ROOMS = 128;
+    private static final float DELTA = 1 / 60f;
+    private static final int REFILL_TICKS = 600;
+    private static final int WARMUP_TICKS = 20000;
+
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Ship ship = new Ship("Bench", 10, 10, ROOMS, ROOMS);
+        for (int x = 0; x < ROOMS; x++) {
+            for (int y = 0; y < ROOMS; y++) {
+                ship.addRoom(new Room(x, y, RoomType.BRIDGE));
+            }
+        }
+        // A column of breaches keeps the vent path in the measured loop
+        for (int y = 0; y < ROOMS; y += 4) {
+            ship.getRoom(ROOMS / 2, y).setBreach(true);
+        }
+
+        TileStateStore tiles = ship.getTileStore();
+        FireSpread fire = new FireSpread();
+        OxygenDiffusion oxygen = new OxygenDiffusion();
+        System.out.println("tiles " + tiles.getTilesWide() + "x" + (tiles.getTileCount() / tiles.getTilesWide()));
+
+        refill(ship, tiles);
+        for (int tick = 0; tick < WARMUP_TICKS; tick++) {
+            step(ship, tiles, fire, oxygen, tick);
+        }
+
+        double[] fireTimes = new double[rounds];
+        double[] oxygenTimes = new double[rounds];
+        for (int round = 0; round < rounds; round++) {
+            refill(ship, tiles);
+            long fireNanos = 0;
+            long oxygenNanos = 0;
+            for (int tick = 0; tick < ticks; tick++) {
+                long start = System.nanoTime();
+                fire.step(tiles, DELTA);
+                long mid = System.nanoTime();
+                oxygen.step(tiles, DELTA, 0.8f * DELTA);
+                fireNanos += mid - start;
+                oxygenNanos += System.nanoTime() - mid;
+            }
+            fireTimes[round] = fireNanos / 1e3 / ticks;
+            oxygenTimes[round] = oxygenNanos / 1e3 / ticks;
+            System.out.printf("round %d: fire %.1f us/tick, oxygen %.1f us/tick%n",
+                    round + 1, fireTimes[round], oxygenTimes[round]);
+        }
+        System.out.printf("median: fire %.1f us/tick, oxygen %.1f us/tick%n", median(fireTimes), median(oxygenTimes));
+    }
+
+    private static void step(Ship ship, TileStateStore tiles, FireSpread fire, OxygenDiffusion oxygen, int tick) {
+        if (tick % REFILL_TICKS == 0) {
+            refill(ship, tiles);
+        }
+        fire.step(tiles, DELTA);
+        oxygen.step(tiles, DELTA, 0.8f * DELTA);
+    }
+
+    private static void refill(Ship ship, TileStateStore tiles) {
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            tiles.setOxygen(tile, 1.0f);
+        }
+        for (int x = 0; x < ROOMS; x += 9) {
+            ship.getRoom(x, (x * 7) % ROOMS).setFire(true);
+        }
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
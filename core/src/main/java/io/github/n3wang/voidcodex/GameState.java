@@ -5,6 +5,8 @@ import io.github.n3wang.voidcodex.model.CombatState;
 import io.github.n3wang.voidcodex.model.GameTimeState;
 import io.github.n3wang.voidcodex.model.Ship;
 import io.github.n3wang.voidcodex.model.Sector;
+import io.github.n3wang.voidcodex.sim.ShipSimulation;
+import io.github.n3wang.voidcodex.sim.SimulationThread;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,12 +21,24 @@ public class GameState {
     private List<Biome> discoveredBiomes;
     private CombatState combatState;
     private GameTimeState timeState;
+    private ShipSimulation simulation;
+    private SimulationThread simulationThread; // Null while the simulation runs on the render thread
+    private boolean flowFieldGroupOrders; // Crew selections follow one shared flow field instead of cooperative routes
 
     public GameState() {
+        this(ShipSimulation.DEFAULT_TICK_RATE);
+    }
+
+    /**
+     * @param tickRate simulation ticks per simulated second; rendering interpolates between
+     *                 ticks, so a lower rate saves CPU without making motion choppy
+     */
+    public GameState(int tickRate) {
         currentSectorIndex = 0;
         discoveredBiomes = new ArrayList<>();
         combatState = new CombatState();
         timeState = new GameTimeState();
+        simulation = new ShipSimulation(this, tickRate);
     }
 
     public Ship getCurrentShip() {
@@ -62,13 +76,75 @@ public class GameState {
     public GameTimeState getTimeState() {
         return timeState;
     }
+
+    public ShipSimulation getSimulation() {
+        return simulation;
+    }
     
+    /**
+     * Advance the simulation by a frame's time, unless it runs on its own thread.
+     * Call once per frame from the render thread.
+     */
+    public void updateSimulation(float delta) {
+        if (simulationThread != null) {
+            simulationThread.checkFailure();
+            return;
+        }
+        simulation.update(delta);
+        simulation.publishSnapshots();
+    }
+
+    /**
+     * Run something that changes game state (orders, power, weapons, combat) where the
+     * simulation runs: on the simulation thread before its next tick, or right away, in which
+     * case snapshots are published again so the screens show the change this frame.
+     */
+    public void runOnSimulation(Runnable command) {
+        if (simulationThread != null) {
+            simulationThread.execute(command);
+        } else {
+            command.run();
+            simulation.publishSnapshots();
+        }
+    }
+
+    /**
+     * Move the simulation onto its own thread, or back onto the render thread. The screens
+     * read game state only from render snapshots and change it only through
+     * {@link #runOnSimulation}, so either works.
+     */
+    public void setSimulationThreaded(boolean threaded) {
+        if (threaded == (simulationThread != null)) {
+            return;
+        }
+        if (threaded) {
+            simulationThread = new SimulationThread(simulation);
+            simulationThread.start();
+        } else {
+            simulationThread.stop();
+            simulationThread = null;
+        }
+    }
+
+    public boolean isSimulationThreaded() {
+        return simulationThread != null;
+    }
+
+    public boolean isFlowFieldGroupOrders() {
+        return flowFieldGroupOrders;
+    }
+
+    public void setFlowFieldGroupOrders(boolean flowFieldGroupOrders) {
+        this.flowFieldGroupOrders = flowFieldGroupOrders;
+    }
+
     public boolean isInCombat() {
         return combatState.isInCombat();
     }
 
     public void dispose() {
-        // Clean up resources if needed
+        setSimulationThreaded(false);
+        simulation.dispose();
     }
 }
 
@@ -11,6 +11,8 @@ import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import io.github.n3wang.voidcodex.screens.ScenarioSelectionScreen;
+import io.github.n3wang.voidcodex.sim.ShipSimulation;
+import io.github.n3wang.voidcodex.util.PixelArtGenerator;
 
 /**
  * Main game class that manages screens and global resources.
@@ -22,11 +24,26 @@ public class VoidCodexGame extends Game {
     @Override
     public void create() {
         skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
-        gameState = new GameState();
+        // e.g. -Dvoidcodex.tickRate=20 for big scenes; crew motion is interpolated either way
+        gameState = new GameState(Integer.getInteger("voidcodex.tickRate", ShipSimulation.DEFAULT_TICK_RATE));
+        // -Dvoidcodex.flowFieldGroupOrders=true sends crew selections to the clicked room along
+        // one shared flow field (cheapest for very large groups) instead of cooperative routes
+        gameState.setFlowFieldGroupOrders(Boolean.getBoolean("voidcodex.flowFieldGroupOrders"));
+        // -Dvoidcodex.simulationThread=true ticks the simulation on its own thread, so frames
+        // are not held up by simulation spikes
+        gameState.setSimulationThreaded(Boolean.getBoolean("voidcodex.simulationThread"));
 
         // Create a simple default-round drawable
         createDefaultRoundDrawable();
 
+        // Pack every generated sprite into the shared atlas before the first screen draws
+        // (budget e.g. -Dvoidcodex.spriteBudgetMB=8; sprites past it are evicted when unused)
+        Integer spriteBudgetMB = Integer.getInteger("voidcodex.spriteBudgetMB");
+        if (spriteBudgetMB != null) {
+            PixelArtGenerator.setBudgetBytes(spriteBudgetMB * 1024L * 1024L);
+        }
+        PixelArtGenerator.packAll();
+
         // Initialize automation handler for MCP server integration
         io.github.n3wang.voidcodex.util.AutomationHandler.init(this);
 
@@ -70,6 +87,13 @@ public class VoidCodexGame extends Game {
         return gameState;
     }
 
+    @Override
+    public void render() {
+        // Between frames, so no batch is still drawing from an atlas that gets rebuilt
+        PixelArtGenerator.trimToBudget();
+        super.render();
+    }
+
     @Override
     public void dispose() {
         if (skin != null) {
@@ -78,6 +102,7 @@ public class VoidCodexGame extends Game {
         if (gameState != null) {
             gameState.dispose();
         }
+        PixelArtGenerator.dispose();
     }
 }
 
@@ -12,6 +12,7 @@ public class CombatState {
     private int enemyShields;
     private int maxEnemyShields;
     private boolean playerTurn;
+    private int version; // Bumped whenever anything the combat panels show changes
     
     public CombatState() {
         this.inCombat = false;
@@ -33,28 +34,66 @@ public class CombatState {
         this.playerShields = playerShip.getShields();
         this.maxEnemyShields = enemyShip.getMaxShields();
         this.enemyShields = enemyShip.getShields();
+        version++;
     }
     
     public void endCombat() {
         this.inCombat = false;
         this.enemyShip = null;
+        version++;
     }
     
     // Getters and setters
     public Ship getEnemyShip() { return enemyShip; }
     public boolean isInCombat() { return inCombat; }
     public CombatMode getMode() { return mode; }
-    public void setMode(CombatMode mode) { this.mode = mode; }
+    public void setMode(CombatMode mode) {
+        if (this.mode != mode) {
+            this.mode = mode;
+            version++;
+        }
+    }
     public int getPlayerShields() { return playerShields; }
-    public void setPlayerShields(int shields) { this.playerShields = Math.max(0, Math.min(shields, maxPlayerShields)); }
+    public void setPlayerShields(int shields) {
+        int clamped = Math.max(0, Math.min(shields, maxPlayerShields));
+        if (playerShields != clamped) {
+            playerShields = clamped;
+            version++;
+        }
+    }
     public int getMaxPlayerShields() { return maxPlayerShields; }
-    public void setMaxPlayerShields(int max) { this.maxPlayerShields = max; }
+    public void setMaxPlayerShields(int max) {
+        if (maxPlayerShields != max) {
+            maxPlayerShields = max;
+            version++;
+        }
+    }
     public int getEnemyShields() { return enemyShields; }
-    public void setEnemyShields(int shields) { this.enemyShields = Math.max(0, Math.min(shields, maxEnemyShields)); }
+    public void setEnemyShields(int shields) {
+        int clamped = Math.max(0, Math.min(shields, maxEnemyShields));
+        if (enemyShields != clamped) {
+            enemyShields = clamped;
+            version++;
+        }
+    }
     public int getMaxEnemyShields() { return maxEnemyShields; }
-    public void setMaxEnemyShields(int max) { this.maxEnemyShields = max; }
+    public void setMaxEnemyShields(int max) {
+        if (maxEnemyShields != max) {
+            maxEnemyShields = max;
+            version++;
+        }
+    }
     public boolean isPlayerTurn() { return playerTurn; }
-    public void setPlayerTurn(boolean turn) { this.playerTurn = turn; }
-    public void nextTurn() { this.playerTurn = !this.playerTurn; }
+    public void setPlayerTurn(boolean turn) {
+        if (playerTurn != turn) {
+            playerTurn = turn;
+            version++;
+        }
+    }
+    public void nextTurn() {
+        playerTurn = !playerTurn;
+        version++;
+    }
+    public int getVersion() { return version; }
 }
 
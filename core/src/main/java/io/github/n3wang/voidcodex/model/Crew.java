@@ -1,5 +1,6 @@
 package io.github.n3wang.voidcodex.model;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +16,7 @@ public class Crew {
     private int currentTileY; // Tile position within room (0-1)
     private int health;
     private int maxHealth;
+    private float fractionalDamage; // Damage over time not yet taken off health
     private Map<Skill, Integer> skills; // Skill -> XP
     private boolean isMoving;
     private int targetRoomX; // Target room position
@@ -27,6 +29,17 @@ public class Crew {
     private int nextRoomY; // Next room in path
     private int nextTileX; // Next tile in path (0-1)
     private int nextTileY; // Next tile in path (0-1)
+    private int[] path; // Planned route as packed tiles (see packTile), excluding the current tile
+    private int pathLength;
+    private int pathCursor; // Index of the next step to take
+    private int pathVersion; // Ship navigation version the route was planned against
+    private boolean followingFlowField; // Group order: follow the shared flow field to the target room
+    private boolean cooperativeRoute; // Route was planned with the rest of a selection and may contain waits
+    private int blockedSteps; // Steps spent held up since the cooperative route was planned
+    private int groupAnchor; // Packed tile the cooperative group order was given for
+    private boolean waitingForPath; // Route is being solved in the background
+    private int pathRequestId; // Latest background route request, to drop superseded results
+    private int version; // Bumped whenever health, movement or current room change, for the UI
 
     public Crew(String name, CrewRole role) {
         this.name = name;
@@ -41,6 +54,9 @@ public class Crew {
         this.isMoving = false;
         this.movementSpeed = 2.0f; // 2 tiles per second = 0.5 seconds per tile
         this.movementProgress = 0.0f;
+        this.path = new int[16];
+        this.pathLength = 0;
+        this.pathCursor = 0;
         
         // Initialize skills with base XP
         for (Skill skill : Skill.values()) {
@@ -72,18 +88,52 @@ public class Crew {
     public String getName() { return name; }
     public CrewRole getRole() { return role; }
     public int getCurrentRoomX() { return currentRoomX; }
-    public void setCurrentRoomX(int x) { this.currentRoomX = x; }
+    public void setCurrentRoomX(int x) {
+        if (currentRoomX != x) {
+            currentRoomX = x;
+            version++;
+        }
+    }
     public int getCurrentRoomY() { return currentRoomY; }
-    public void setCurrentRoomY(int y) { this.currentRoomY = y; }
+    public void setCurrentRoomY(int y) {
+        if (currentRoomY != y) {
+            currentRoomY = y;
+            version++;
+        }
+    }
     public int getCurrentTileX() { return currentTileX; }
     public void setCurrentTileX(int x) { this.currentTileX = Math.max(0, Math.min(1, x)); }
     public int getCurrentTileY() { return currentTileY; }
     public void setCurrentTileY(int y) { this.currentTileY = Math.max(0, Math.min(1, y)); }
     public int getHealth() { return health; }
-    public void setHealth(int health) { this.health = Math.max(0, Math.min(health, maxHealth)); }
+    public void setHealth(int health) {
+        int clamped = Math.max(0, Math.min(health, maxHealth));
+        if (this.health != clamped) {
+            this.health = clamped;
+            version++;
+        }
+    }
     public int getMaxHealth() { return maxHealth; }
+    public int getVersion() { return version; }
+
+    /**
+     * Accumulate damage over time (e.g. fire); whole points are taken off health.
+     */
+    public void addFractionalDamage(float amount) {
+        fractionalDamage += amount;
+        if (fractionalDamage >= 1.0f) {
+            int damage = (int)fractionalDamage;
+            fractionalDamage -= damage;
+            setHealth(health - damage);
+        }
+    }
     public boolean isMoving() { return isMoving; }
-    public void setMoving(boolean moving) { this.isMoving = moving; }
+    public void setMoving(boolean moving) {
+        if (isMoving != moving) {
+            isMoving = moving;
+            version++;
+        }
+    }
     public int getTargetRoomX() { return targetRoomX; }
     public void setTargetRoomX(int x) { this.targetRoomX = x; }
     public int getTargetRoomY() { return targetRoomY; }
@@ -109,6 +159,81 @@ public class Crew {
     public int getNextTileY() { return nextTileY; }
     public void setNextTileY(int y) { this.nextTileY = Math.max(0, Math.min(1, y)); }
     public Map<Skill, Integer> getSkills() { return skills; }
+
+    /**
+     * Pack a tile position into one int: global tile x (roomX * 2 + tileX) in the high
+     * 16 bits and global tile y in the low 16 bits.
+     */
+    public static int packTile(int roomX, int roomY, int tileX, int tileY) {
+        return ((roomX * 2 + tileX) << 16) | (roomY * 2 + tileY);
+    }
+
+    public static int unpackRoomX(int packed) { return (packed >>> 16) / 2; }
+    public static int unpackRoomY(int packed) { return (packed & 0xFFFF) / 2; }
+    public static int unpackTileX(int packed) { return (packed >>> 16) % 2; }
+    public static int unpackTileY(int packed) { return (packed & 0xFFFF) % 2; }
+
+    /**
+     * Discard the planned route and start a new one planned against the given ship navigation version.
+     */
+    public void clearPath(int navVersion) {
+        pathLength = 0;
+        pathCursor = 0;
+        pathVersion = navVersion;
+    }
+
+    /**
+     * Append a packed tile to the planned route.
+     */
+    public void addPathStep(int packedTile) {
+        if (pathLength == path.length) {
+            path = Arrays.copyOf(path, path.length * 2);
+        }
+        path[pathLength++] = packedTile;
+    }
+
+    public boolean hasPathStep() { return pathCursor < pathLength; }
+
+    /**
+     * Peek at the next step of the planned route without consuming it.
+     */
+    public int peekPathStep() { return path[pathCursor]; }
+
+    /**
+     * Peek at a later step of the planned route; 0 is the next step.
+     */
+    public int peekPathStep(int ahead) { return path[pathCursor + ahead]; }
+
+    /**
+     * Consume the next step of the planned route and make it the tile being walked to.
+     */
+    public void advancePath() {
+        int packed = path[pathCursor++];
+        nextRoomX = unpackRoomX(packed);
+        nextRoomY = unpackRoomY(packed);
+        nextTileX = unpackTileX(packed);
+        nextTileY = unpackTileY(packed);
+    }
+
+    public int getRemainingPathSteps() { return pathLength - pathCursor; }
+    public boolean isFollowingFlowField() { return followingFlowField; }
+    public void setFollowingFlowField(boolean following) { this.followingFlowField = following; }
+    public boolean isCooperativeRoute() { return cooperativeRoute; }
+    public void setCooperativeRoute(boolean cooperative) { this.cooperativeRoute = cooperative; }
+    public int getBlockedSteps() { return blockedSteps; }
+    public void setBlockedSteps(int steps) { this.blockedSteps = steps; }
+    public int getGroupAnchor() { return groupAnchor; }
+    public void setGroupAnchor(int packed) { this.groupAnchor = packed; }
+    public boolean isWaitingForPath() { return waitingForPath; }
+    public void setWaitingForPath(boolean waiting) { this.waitingForPath = waiting; }
+    public int getPathRequestId() { return pathRequestId; }
+    public void setPathRequestId(int requestId) { this.pathRequestId = requestId; }
+    public int getPathVersion() { return pathVersion; }
+
+    /**
+     * Mark the planned route as stale, so it is repaired before the next step is taken.
+     */
+    public void invalidatePath() { pathVersion = -1; }
     
     /**
      * Update movement progress. Returns true if crew reached destination.
@@ -119,13 +244,13 @@ public class Crew {
         movementProgress += movementSpeed * deltaTime;
         if (movementProgress >= 1.0f) {
             // Reached next room
-            currentRoomX = nextRoomX;
-            currentRoomY = nextRoomY;
+            setCurrentRoomX(nextRoomX);
+            setCurrentRoomY(nextRoomY);
             movementProgress = 0.0f;
             
             // Check if reached final destination
             if (currentRoomX == targetRoomX && currentRoomY == targetRoomY) {
-                isMoving = false;
+                setMoving(false);
                 return true; // Reached destination
             }
         }
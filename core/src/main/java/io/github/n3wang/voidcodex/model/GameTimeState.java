@@ -4,8 +4,9 @@ package io.github.n3wang.voidcodex.model;
  * Manages game time state (pause, speed).
  */
 public class GameTimeState {
-    private boolean paused;
-    private float timeScale; // 0.5f = slow, 1.0f = normal, 2.0f = fast, 4.0f = very fast
+    // Volatile: set by the UI, read by the simulation thread when it has one
+    private volatile boolean paused;
+    private volatile float timeScale; // 0.5f = slow, 1.0f = normal, 2.0f = fast, 4.0f = very fast
     private boolean commandMode;
 
     public GameTimeState() {
@@ -3,8 +3,13 @@ package io.github.n3wang.voidcodex.model;
 /**
  * Represents a room on the ship grid.
  * Each room is a 2x2 grid of tiles, with one crew member per tile.
+ * Per-tile state (crew, oxygen, hazards) lives in a {@link TileStateStore}: the room's own
+ * until it is added to a ship, then the ship's, so the room is a view onto four of its tiles.
  */
 public class Room {
+    public static final int TILES = 2; // Tiles per side
+    public static final float IGNITION_FIRE = 0.5f; // Fire intensity a new fire starts at
+
     private int x, y; // Room position on ship grid
     private RoomType type;
     private int powerLevel;
@@ -12,16 +17,12 @@ public class Room {
     private int health;
     private int maxHealth;
     private float fractionalHealth; // Accumulate fractional repair amounts
-    private boolean hasFire;
-    private boolean hasBreach;
+    private int version; // Bumped whenever power level or health change, for the UI
     private Crew assignedCrew;
-    
-    // 2x2 grid of tiles - each tile can hold one crew member
-    // tiles[tileX][tileY] = Crew at that tile position, or null if empty
-    private Crew[][] tiles;
-    
-    // Oxygen level per tile (0.0 to 1.0, where 1.0 is full oxygen)
-    private float[][] tileOxygen;
+
+    private TileStateStore tileState;
+    private int firstTile; // Store id of tile (0, 0)
+    private int rowStride; // Store ids between tile rows
 
     public Room(int x, int y, RoomType type) {
         this.x = x;
@@ -32,36 +33,66 @@ public class Room {
         this.maxHealth = type.getDefaultHealth();
         this.health = maxHealth;
         this.fractionalHealth = 0.0f;
-        this.hasFire = false;
-        this.hasBreach = false;
-        this.tiles = new Crew[2][2]; // 2x2 grid of tiles
-        this.tileOxygen = new float[2][2]; // Initialize oxygen levels
+        this.tileState = new TileStateStore(TILES, TILES);
+        this.firstTile = 0;
+        this.rowStride = TILES;
         // Start with random oxygen levels - some tiles without oxygen for testing
         java.util.Random random = new java.util.Random();
-        for (int tileX = 0; tileX < 2; tileX++) {
-            for (int tileY = 0; tileY < 2; tileY++) {
+        for (int tileX = 0; tileX < TILES; tileX++) {
+            for (int tileY = 0; tileY < TILES; tileY++) {
+                int tile = getTileId(tileX, tileY);
+                tileState.setFlag(tile, TileStateStore.FLAG_INTERIOR, type != RoomType.EMPTY);
                 // Randomly set some tiles to 0 oxygen, others to partial
                 if (random.nextFloat() < 0.3f) {
                     // 30% chance of no oxygen
-                    tileOxygen[tileX][tileY] = 0.0f;
+                    tileState.setOxygen(tile, 0.0f);
                 } else {
                     // 70% chance of partial oxygen (0.3 to 0.8)
-                    tileOxygen[tileX][tileY] = 0.3f + random.nextFloat() * 0.5f;
+                    tileState.setOxygen(tile, 0.3f + random.nextFloat() * 0.5f);
                 }
             }
         }
     }
-    
+
+    /**
+     * Move this room's tile state into a ship's store, at the room's grid position.
+     */
+    void attachTo(TileStateStore store) {
+        for (int tileX = 0; tileX < TILES; tileX++) {
+            for (int tileY = 0; tileY < TILES; tileY++) {
+                int from = getTileId(tileX, tileY);
+                int to = store.tileId(x * TILES + tileX, y * TILES + tileY);
+                store.copyTile(tileState, from, to);
+            }
+        }
+        this.tileState = store;
+        this.firstTile = store.tileId(x * TILES, y * TILES);
+        this.rowStride = store.getTilesWide();
+    }
+
+    /**
+     * Id of one of this room's tiles in its {@link TileStateStore}.
+     */
+    public int getTileId(int tileX, int tileY) {
+        return firstTile + tileY * rowStride + tileX;
+    }
+
+    public TileStateStore getTileState() { return tileState; }
+
+    private static boolean isInRoom(int tileX, int tileY) {
+        return tileX >= 0 && tileX < TILES && tileY >= 0 && tileY < TILES;
+    }
+
     public float getTileOxygen(int tileX, int tileY) {
-        if (tileX < 0 || tileX >= 2 || tileY < 0 || tileY >= 2) {
+        if (!isInRoom(tileX, tileY)) {
             return 0.0f;
         }
-        return tileOxygen[tileX][tileY];
+        return tileState.getOxygen(getTileId(tileX, tileY));
     }
     
     public void setTileOxygen(int tileX, int tileY, float oxygen) {
-        if (tileX >= 0 && tileX < 2 && tileY >= 0 && tileY < 2) {
-            tileOxygen[tileX][tileY] = Math.max(0.0f, Math.min(1.0f, oxygen));
+        if (isInRoom(tileX, tileY)) {
+            tileState.setOxygen(getTileId(tileX, tileY), oxygen);
         }
     }
     
@@ -69,23 +100,24 @@ public class Room {
      * Get crew at specific tile position (0-1 for both x and y).
      */
     public Crew getCrewAtTile(int tileX, int tileY) {
-        if (tileX < 0 || tileX >= 2 || tileY < 0 || tileY >= 2) {
+        if (!isInRoom(tileX, tileY)) {
             return null;
         }
-        return tiles[tileX][tileY];
+        return tileState.getCrew(getTileId(tileX, tileY));
     }
     
     /**
      * Set crew at specific tile position. Returns true if successful.
      */
     public boolean setCrewAtTile(int tileX, int tileY, Crew crew) {
-        if (tileX < 0 || tileX >= 2 || tileY < 0 || tileY >= 2) {
+        if (!isInRoom(tileX, tileY)) {
             return false;
         }
-        if (crew != null && tiles[tileX][tileY] != null) {
+        int tile = getTileId(tileX, tileY);
+        if (crew != null && !tileState.isEmpty(tile)) {
             return false; // Tile already occupied
         }
-        tiles[tileX][tileY] = crew;
+        tileState.setCrew(tile, crew);
         return true;
     }
     
@@ -93,8 +125,8 @@ public class Room {
      * Remove crew from a tile.
      */
     public void removeCrewFromTile(int tileX, int tileY) {
-        if (tileX >= 0 && tileX < 2 && tileY >= 0 && tileY < 2) {
-            tiles[tileX][tileY] = null;
+        if (isInRoom(tileX, tileY)) {
+            tileState.setCrew(getTileId(tileX, tileY), null);
         }
     }
     
@@ -102,7 +134,7 @@ public class Room {
      * Check if a tile is empty.
      */
     public boolean isTileEmpty(int tileX, int tileY) {
-        return getCrewAtTile(tileX, tileY) == null;
+        return !isInRoom(tileX, tileY) || tileState.isEmpty(getTileId(tileX, tileY));
     }
     
     /**
@@ -110,9 +142,9 @@ public class Room {
      */
     public int getCrewCount() {
         int count = 0;
-        for (int x = 0; x < 2; x++) {
-            for (int y = 0; y < 2; y++) {
-                if (tiles[x][y] != null) {
+        for (int tileX = 0; tileX < TILES; tileX++) {
+            for (int tileY = 0; tileY < TILES; tileY++) {
+                if (!tileState.isEmpty(getTileId(tileX, tileY))) {
                     count++;
                 }
             }
@@ -124,11 +156,21 @@ public class Room {
     public int getY() { return y; }
     public RoomType getType() { return type; }
     public int getPowerLevel() { return powerLevel; }
-    public void setPowerLevel(int level) { this.powerLevel = Math.max(0, Math.min(level, maxPower)); }
+    public void setPowerLevel(int level) {
+        int clamped = Math.max(0, Math.min(level, maxPower));
+        if (powerLevel != clamped) {
+            powerLevel = clamped;
+            version++;
+        }
+    }
     public int getMaxPower() { return maxPower; }
     public int getHealth() { return health; }
     public void setHealth(int health) { 
-        this.health = Math.max(0, Math.min(health, maxHealth));
+        int clamped = Math.max(0, Math.min(health, maxHealth));
+        if (this.health != clamped) {
+            this.health = clamped;
+            version++;
+        }
         // Reset fractional health when manually setting health
         if (health >= maxHealth) {
             this.fractionalHealth = 0.0f;
@@ -146,17 +188,96 @@ public class Room {
             fractionalHealth -= healthIncrease;
             int oldHealth = health;
             health = Math.min(maxHealth, health + healthIncrease);
-            return health > oldHealth;
+            if (health == oldHealth) {
+                return false;
+            }
+            version++;
+            return true;
         }
         return false;
     }
     
+    /**
+     * Subtract fractional health (for damage over time, e.g. fire).
+     * Shares the repair accumulator, so repairs and damage offset each other.
+     * Returns true if health actually decreased.
+     */
+    public boolean addFractionalDamage(float amount) {
+        fractionalHealth -= amount;
+        if (fractionalHealth <= -1.0f) {
+            int healthDecrease = (int)-fractionalHealth;
+            fractionalHealth += healthDecrease;
+            int oldHealth = health;
+            health = Math.max(0, health - healthDecrease);
+            if (health == oldHealth) {
+                return false;
+            }
+            version++;
+            return true;
+        }
+        return false;
+    }
+
     public float getFractionalHealth() { return fractionalHealth; }
     public int getMaxHealth() { return maxHealth; }
-    public boolean hasFire() { return hasFire; }
-    public void setFire(boolean fire) { this.hasFire = fire; }
-    public boolean hasBreach() { return hasBreach; }
-    public void setBreach(boolean breach) { this.hasBreach = breach; }
+    public int getVersion() { return version; }
+    public boolean hasFire() {
+        for (int tileX = 0; tileX < TILES; tileX++) {
+            for (int tileY = 0; tileY < TILES; tileY++) {
+                if (tileState.getFire(getTileId(tileX, tileY)) > 0.0f) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Start a fire on every tile of the room, or put it out.
+     */
+    public void setFire(boolean fire) {
+        for (int tileX = 0; tileX < TILES; tileX++) {
+            for (int tileY = 0; tileY < TILES; tileY++) {
+                int tile = getTileId(tileX, tileY);
+                tileState.setFire(tile, fire ? Math.max(IGNITION_FIRE, tileState.getFire(tile)) : 0.0f);
+            }
+        }
+    }
+
+    public float getTileFire(int tileX, int tileY) {
+        if (!isInRoom(tileX, tileY)) {
+            return 0.0f;
+        }
+        return tileState.getFire(getTileId(tileX, tileY));
+    }
+
+    public void setTileFire(int tileX, int tileY, float intensity) {
+        if (isInRoom(tileX, tileY)) {
+            tileState.setFire(getTileId(tileX, tileY), intensity);
+        }
+    }
+
+    public boolean hasBreach() { return hasTileFlag(TileStateStore.FLAG_BREACH); }
+    public void setBreach(boolean breach) { setTileFlag(TileStateStore.FLAG_BREACH, breach); }
+
+    private boolean hasTileFlag(byte flag) {
+        for (int tileX = 0; tileX < TILES; tileX++) {
+            for (int tileY = 0; tileY < TILES; tileY++) {
+                if (tileState.hasFlag(getTileId(tileX, tileY), flag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void setTileFlag(byte flag, boolean on) {
+        for (int tileX = 0; tileX < TILES; tileX++) {
+            for (int tileY = 0; tileY < TILES; tileY++) {
+                tileState.setFlag(getTileId(tileX, tileY), flag, on);
+            }
+        }
+    }
     public Crew getAssignedCrew() { return assignedCrew; }
     public void setAssignedCrew(Crew crew) { this.assignedCrew = crew; }
 }
@@ -1,6 +1,8 @@
 package io.github.n3wang.voidcodex.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 
 /**
@@ -13,6 +15,13 @@ public class Ship {
     private int maxPower;
     private int availablePower;
     private List<Room> rooms;
+    private Room[] roomGrid; // Dense index: roomGrid[y * gridWidth + x]
+    private EnumMap<RoomType, Room[]> roomsByType;
+    private TileStateStore tileStore; // Per-tile state of every room, indexed by global tile
+    private int layoutVersion; // Bumped whenever rooms are added or replaced
+    private int navVersion; // Bumped whenever planned crew routes may have become invalid
+    private int systemsVersion; // Bumped whenever power, weapons or shields change outside the simulation's timers
+    private int statusVersion; // Bumped whenever hull, shields, power, resources or the crew and weapon lists change, for the UI
     private List<Crew> crew;
     private List<Weapon> weapons;
     private int gridWidth;
@@ -31,6 +40,12 @@ public class Ship {
         this.gridWidth = gridWidth;
         this.gridHeight = gridHeight;
         this.rooms = new ArrayList<>();
+        this.roomGrid = new Room[gridWidth * gridHeight];
+        this.tileStore = new TileStateStore(gridWidth * Room.TILES, gridHeight * Room.TILES);
+        this.roomsByType = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            roomsByType.put(type, new Room[0]);
+        }
         this.crew = new ArrayList<>();
         this.weapons = new ArrayList<>();
         this.shields = 0;
@@ -88,33 +103,119 @@ public class Ship {
         return ship;
     }
 
+    /**
+     * Add a room and keep the grid and type indices in sync.
+     * A room placed on an occupied grid cell replaces the previous one.
+     */
     public void addRoom(Room room) {
+        int index = gridIndex(room.getX(), room.getY());
+        if (index < 0) {
+            throw new IllegalArgumentException("Room (" + room.getX() + ", " + room.getY()
+                    + ") is outside the " + gridWidth + "x" + gridHeight + " ship grid");
+        }
+
+        room.attachTo(tileStore);
+        Room previous = roomGrid[index];
+        if (previous != null) {
+            rooms.remove(previous);
+            removeFromTypeIndex(previous);
+        }
+
         rooms.add(room);
+        roomGrid[index] = room;
+        Room[] sameType = roomsByType.get(room.getType());
+        Room[] grown = Arrays.copyOf(sameType, sameType.length + 1);
+        grown[sameType.length] = room;
+        roomsByType.put(room.getType(), grown);
+        layoutVersion++;
+        navVersion++;
+        systemsVersion++;
+    }
+
+    private void removeFromTypeIndex(Room room) {
+        Room[] sameType = roomsByType.get(room.getType());
+        for (int i = 0; i < sameType.length; i++) {
+            if (sameType[i] == room) {
+                Room[] shrunk = new Room[sameType.length - 1];
+                System.arraycopy(sameType, 0, shrunk, 0, i);
+                System.arraycopy(sameType, i + 1, shrunk, i, sameType.length - i - 1);
+                roomsByType.put(room.getType(), shrunk);
+                return;
+            }
+        }
+    }
+
+    private int gridIndex(int x, int y) {
+        if (x < 0 || x >= gridWidth || y < 0 || y >= gridHeight) {
+            return -1;
+        }
+        return y * gridWidth + x;
     }
 
     public void addCrew(Crew crewMember) {
         crew.add(crewMember);
+        statusVersion++;
+    }
+
+    /**
+     * Take a crew member off the ship (died or transferred), freeing the tiles they held.
+     */
+    public void removeCrew(Crew crewMember) {
+        if (crew.remove(crewMember)) {
+            tileStore.removeCrew(crewMember);
+            statusVersion++;
+        }
     }
 
     public void addWeapon(Weapon weapon) {
         weapons.add(weapon);
+        systemsVersion++;
+        statusVersion++;
     }
 
+    /**
+     * Get the room at a grid position, or null if there is none. Constant time.
+     */
     public Room getRoom(int x, int y) {
-        return rooms.stream()
-                .filter(r -> r.getX() == x && r.getY() == y)
-                .findFirst()
-                .orElse(null);
+        int index = gridIndex(x, y);
+        return index < 0 ? null : roomGrid[index];
+    }
+
+    /**
+     * Get all rooms of a type. Constant time; the returned array is shared and must not be modified.
+     */
+    public Room[] getRoomsOfType(RoomType type) {
+        return roomsByType.get(type);
+    }
+
+    /**
+     * Get the first room of a type, or null if the ship has none.
+     */
+    public Room getFirstRoomOfType(RoomType type) {
+        Room[] sameType = roomsByType.get(type);
+        return sameType.length > 0 ? sameType[0] : null;
     }
 
     // Getters and setters
     public String getName() { return name; }
     public int getMaxHull() { return maxHull; }
     public int getCurrentHull() { return currentHull; }
-    public void setCurrentHull(int hull) { this.currentHull = Math.max(0, Math.min(hull, maxHull)); }
+    public void setCurrentHull(int hull) {
+        int clamped = Math.max(0, Math.min(hull, maxHull));
+        if (currentHull != clamped) {
+            currentHull = clamped;
+            statusVersion++;
+        }
+    }
     public int getMaxPower() { return maxPower; }
     public int getAvailablePower() { return availablePower; }
-    public void setAvailablePower(int power) { this.availablePower = Math.max(0, Math.min(power, maxPower)); }
+    public void setAvailablePower(int power) {
+        int clamped = Math.max(0, Math.min(power, maxPower));
+        if (availablePower != clamped) {
+            availablePower = clamped;
+            statusVersion++;
+        }
+    }
     
     /**
      * Try to add power to a room. Returns true if successful.
@@ -124,6 +225,8 @@ public class Ship {
         if (availablePower > 0) {
             room.setPowerLevel(room.getPowerLevel() + 1);
             availablePower--;
+            systemsVersion++;
+            statusVersion++;
             return true;
         }
         return false;
@@ -136,6 +239,8 @@ public class Ship {
         if (room.getPowerLevel() > 0) {
             room.setPowerLevel(room.getPowerLevel() - 1);
             availablePower++;
+            systemsVersion++;
+            statusVersion++;
             return true;
         }
         return false;
@@ -145,23 +250,69 @@ public class Ship {
      * Get total used power across all rooms.
      */
     public int getUsedPower() {
-        return rooms.stream()
-                .mapToInt(Room::getPowerLevel)
-                .sum();
+        int used = 0;
+        for (int i = 0; i < rooms.size(); i++) {
+            used += rooms.get(i).getPowerLevel();
+        }
+        return used;
     }
     
     public List<Room> getRooms() { return rooms; }
+
+    /**
+     * Per-tile state of the whole ship; rooms read and write their tiles here.
+     */
+    public TileStateStore getTileStore() { return tileStore; }
     public List<Crew> getCrew() { return crew; }
     public List<Weapon> getWeapons() { return weapons; }
+    public int getLayoutVersion() { return layoutVersion; }
+    public int getNavVersion() { return navVersion; }
+
+    /**
+     * Mark all planned crew routes as stale, e.g. when a door changes. Crew settling on a tile
+     * only affect the routes through it (TilePathfinding.tileOccupied).
+     * Crew replan lazily at their next tile step.
+     */
+    public void invalidateNavigation() { navVersion++; }
+    public int getSystemsVersion() { return systemsVersion; }
+
+    /**
+     * Mark weapon charge and shield timings as stale, e.g. after a room's power is set directly.
+     */
+    public void invalidateSystems() { systemsVersion++; }
+    public int getStatusVersion() { return statusVersion; }
     public int getGridWidth() { return gridWidth; }
     public int getGridHeight() { return gridHeight; }
     public int getShields() { return shields; }
-    public void setShields(int shields) { this.shields = Math.max(0, Math.min(shields, maxShields)); }
+    public void setShields(int shields) {
+        int clamped = Math.max(0, Math.min(shields, maxShields));
+        if (this.shields != clamped) {
+            this.shields = clamped;
+            systemsVersion++;
+            statusVersion++;
+        }
+    }
     public int getMaxShields() { return maxShields; }
-    public void setMaxShields(int max) { this.maxShields = max; }
+    public void setMaxShields(int max) {
+        if (maxShields != max) {
+            maxShields = max;
+            systemsVersion++;
+            statusVersion++;
+        }
+    }
     public int getScrap() { return scrap; }
-    public void setScrap(int scrap) { this.scrap = scrap; }
+    public void setScrap(int scrap) {
+        if (this.scrap != scrap) {
+            this.scrap = scrap;
+            statusVersion++;
+        }
+    }
     public int getFuel() { return fuel; }
-    public void setFuel(int fuel) { this.fuel = fuel; }
+    public void setFuel(int fuel) {
+        if (this.fuel != fuel) {
+            this.fuel = fuel;
+            statusVersion++;
+        }
+    }
 }
 
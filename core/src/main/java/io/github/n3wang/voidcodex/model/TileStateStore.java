@@ -0,0 +1,227 @@
+package io.github.n3wang.voidcodex.model;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-tile state of a whole ship kept in flat primitive arrays, one entry per tile.
+ * Tiles are numbered globally: tile (gx, gy) = (roomX * 2 + tileX, roomY * 2 + tileY)
+ * has id gy * tilesWide + gx, the same numbering as the navigation graph.
+ * Rooms are views onto their tiles here; per-tick environment passes loop over the
+ * arrays directly instead of visiting rooms one by one.
+ */
+public class TileStateStore {
+    // Tile flag bits
+    public static final byte FLAG_INTERIOR = 1; // Part of a non-empty room
+    public static final byte FLAG_BREACH = 2;
+
+    public static final short NO_CREW = 0;
+
+    private final int tilesWide;
+    private final int tilesHigh;
+    private float[] oxygen; // 0.0 to 1.0
+    private float[] nextOxygen; // Back buffer for passes that read every tile before writing any
+    private float[] fire; // Fire intensity, 0.0 (none) to 1.0
+    private float[] nextFire;
+    private final byte[] flags;
+    private final short[] occupant; // Crew id + 1, or NO_CREW
+    private int flagVersion; // Bumped whenever a flag changes, so derived masks know to rebuild
+
+    // Crew ids are handed out on placement and freed once the crew member holds no tile,
+    // so crew who died or left are not kept alive and ids are reused
+    private Crew[] crewById = new Crew[8];
+    private int[] tilesHeld = new int[8]; // Per crew id, the tiles whose occupant it is
+    private int crewCount; // Ids handed out so far, free or not
+    private int[] freeIds = new int[8];
+    private int freeCount;
+    private final Map<Crew, Integer> crewIds = new IdentityHashMap<>();
+
+    public TileStateStore(int tilesWide, int tilesHigh) {
+        this.tilesWide = tilesWide;
+        this.tilesHigh = tilesHigh;
+        this.oxygen = new float[tilesWide * tilesHigh];
+        this.nextOxygen = new float[tilesWide * tilesHigh];
+        this.fire = new float[tilesWide * tilesHigh];
+        this.nextFire = new float[tilesWide * tilesHigh];
+        this.flags = new byte[tilesWide * tilesHigh];
+        this.occupant = new short[tilesWide * tilesHigh];
+    }
+
+    public int getTilesWide() { return tilesWide; }
+    public int getTilesHigh() { return tilesHigh; }
+    public int getTileCount() { return oxygen.length; }
+
+    /**
+     * Id of a tile by global tile coordinates.
+     */
+    public int tileId(int gx, int gy) {
+        return gy * tilesWide + gx;
+    }
+
+    /**
+     * Oxygen per tile, for passes over the whole ship. Writes must stay within 0.0 to 1.0.
+     */
+    public float[] getOxygenArray() { return oxygen; }
+
+    /**
+     * Back buffer the same size as the oxygen array. A pass fills it from the current
+     * values, then calls {@link #swapOxygen} to make it current.
+     */
+    public float[] getNextOxygenArray() { return nextOxygen; }
+
+    public void swapOxygen() {
+        float[] current = oxygen;
+        oxygen = nextOxygen;
+        nextOxygen = current;
+    }
+
+    /**
+     * Fire intensity per tile, double-buffered like oxygen.
+     */
+    public float[] getFireArray() { return fire; }
+    public float[] getNextFireArray() { return nextFire; }
+
+    public void swapFire() {
+        float[] current = fire;
+        fire = nextFire;
+        nextFire = current;
+    }
+
+    /**
+     * Flag bits (FLAG_*) per tile, for passes over the whole ship. Read-only; change flags
+     * through {@link #setFlag} so the flag version stays current.
+     */
+    public byte[] getFlagsArray() { return flags; }
+
+    public float getOxygen(int tile) {
+        return oxygen[tile];
+    }
+
+    public void setOxygen(int tile, float value) {
+        oxygen[tile] = Math.max(0.0f, Math.min(1.0f, value));
+    }
+
+    /**
+     * Occupant per tile (crew id + 1, or NO_CREW), for passes over the whole ship. Read-only.
+     */
+    public short[] getOccupantArray() { return occupant; }
+
+    public float getFire(int tile) {
+        return fire[tile];
+    }
+
+    public void setFire(int tile, float intensity) {
+        fire[tile] = Math.max(0.0f, Math.min(1.0f, intensity));
+    }
+
+    public boolean hasFlag(int tile, byte flag) {
+        return (flags[tile] & flag) != 0;
+    }
+
+    public void setFlag(int tile, byte flag, boolean on) {
+        byte updated = (byte) (on ? flags[tile] | flag : flags[tile] & ~flag);
+        if (updated != flags[tile]) {
+            flags[tile] = updated;
+            flagVersion++;
+        }
+    }
+
+    public int getFlagVersion() { return flagVersion; }
+
+    public Crew getCrew(int tile) {
+        int id = occupant[tile];
+        return id == NO_CREW ? null : crewById[id - 1];
+    }
+
+    public void setCrew(int tile, Crew crew) {
+        int previous = occupant[tile];
+        int updated = crew == null ? NO_CREW : idOf(crew) + 1;
+        if (updated == previous) {
+            return;
+        }
+        occupant[tile] = (short) updated;
+        if (updated != NO_CREW) {
+            tilesHeld[updated - 1]++;
+        }
+        if (previous != NO_CREW) {
+            releaseTile(previous - 1);
+        }
+    }
+
+    /**
+     * Clear every tile a crew member holds, e.g. when they die or leave the ship.
+     */
+    public void removeCrew(Crew crew) {
+        Integer id = crewIds.get(crew);
+        if (id == null) {
+            return;
+        }
+        short held = (short) (id + 1);
+        for (int tile = 0; tile < occupant.length && crewIds.containsKey(crew); tile++) {
+            if (occupant[tile] == held) {
+                occupant[tile] = NO_CREW;
+                releaseTile(id);
+            }
+        }
+    }
+
+    /**
+     * Number of crew holding a tile, i.e. crew ids in use.
+     */
+    public int getCrewIdsInUse() {
+        return crewIds.size();
+    }
+
+    public boolean isEmpty(int tile) {
+        return occupant[tile] == NO_CREW;
+    }
+
+    /**
+     * Copy everything about one tile of another store onto a tile of this one.
+     */
+    public void copyTile(TileStateStore source, int sourceTile, int tile) {
+        oxygen[tile] = source.oxygen[sourceTile];
+        fire[tile] = source.fire[sourceTile];
+        if (flags[tile] != source.flags[sourceTile]) {
+            flags[tile] = source.flags[sourceTile];
+            flagVersion++;
+        }
+        setCrew(tile, source.getCrew(sourceTile));
+    }
+
+    private int idOf(Crew crew) {
+        Integer existing = crewIds.get(crew);
+        if (existing != null) {
+            return existing;
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (crewCount == Short.MAX_VALUE - 1) {
+                throw new IllegalStateException("Too many crew on tiles of one ship's tile store");
+            }
+            if (crewCount == crewById.length) {
+                crewById = Arrays.copyOf(crewById, crewCount * 2);
+                tilesHeld = Arrays.copyOf(tilesHeld, crewCount * 2);
+            }
+            id = crewCount++;
+        }
+        crewById[id] = crew;
+        crewIds.put(crew, id);
+        return id;
+    }
+
+    private void releaseTile(int id) {
+        if (--tilesHeld[id] > 0) {
+            return;
+        }
+        crewIds.remove(crewById[id]);
+        crewById[id] = null;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+}
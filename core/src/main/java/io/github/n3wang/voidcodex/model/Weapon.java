@@ -6,12 +6,16 @@ package io.github.n3wang.voidcodex.model;
 public class Weapon {
     private String name;
     private int maxCharge;
-    private int currentCharge;
+    private float currentCharge; // Charge as of chargeTick
+    private long chargeTick; // Simulation tick currentCharge was last brought up to date
+    private float chargePerTick; // 0 while the weapon is unpowered
+    private long chargedTick = -1; // Tick the charge reaches maxCharge at the current rate, -1 if never
     private int powerRequired;
     private int damage;
     private boolean autoFire;
     private boolean selected;
     private WeaponType type;
+    private int version; // Bumped whenever selection, autofire or charging change (not on charge progress)
 
     public Weapon(String name, WeaponType type, int maxCharge, int powerRequired, int damage) {
         this.name = name;
@@ -24,30 +28,95 @@ public class Weapon {
         this.selected = false;
     }
 
+    /**
+     * Whether the weapon was fully charged when its charge was last brought up to date
+     * (the simulation does so the tick it fills up).
+     */
     public boolean isCharged() {
         return currentCharge >= maxCharge;
     }
 
-    public void charge(int amount) {
-        currentCharge = Math.min(currentCharge + amount, maxCharge);
+    /**
+     * Charge at a simulation tick, from the last update and the charge rate since.
+     */
+    public int getCurrentCharge(long tick) {
+        return (int) chargeAt(tick);
     }
 
-    public void fire() {
-        if (isCharged()) {
-            currentCharge = 0;
+    /**
+     * Bring the charge up to date at a tick and charge at a new rate (units per tick) from then on.
+     */
+    public void setChargeRate(long tick, float perTick) {
+        currentCharge = chargeAt(tick);
+        chargeTick = tick;
+        if (chargePerTick != perTick) {
+            chargePerTick = perTick;
+            version++;
+        }
+        updateChargedTick();
+    }
+
+    /**
+     * Tick at which the weapon will be fully charged at its current rate, or -1 if it is not charging.
+     */
+    public long getChargedTick() {
+        return chargedTick;
+    }
+
+    /**
+     * Fire if charged at the given tick; charging starts over from empty.
+     * Returns true if the weapon fired.
+     */
+    public boolean fire(long tick) {
+        if (getCurrentCharge(tick) < maxCharge) {
+            return false;
+        }
+        currentCharge = 0;
+        chargeTick = tick;
+        updateChargedTick();
+        version++;
+        return true;
+    }
+
+    // Full from chargedTick on, so the charge and the scheduled "charged" event always agree
+    private float chargeAt(long tick) {
+        if (chargedTick >= 0 && tick >= chargedTick) {
+            return maxCharge;
+        }
+        return Math.min(currentCharge + Math.max(0L, tick - chargeTick) * chargePerTick, maxCharge);
+    }
+
+    private void updateChargedTick() {
+        if (currentCharge >= maxCharge) {
+            chargedTick = chargeTick;
+        } else if (chargePerTick <= 0) {
+            chargedTick = -1;
+        } else {
+            chargedTick = chargeTick + (long) Math.ceil((maxCharge - currentCharge) / chargePerTick);
         }
     }
 
     // Getters and setters
     public String getName() { return name; }
     public int getMaxCharge() { return maxCharge; }
-    public int getCurrentCharge() { return currentCharge; }
+    public float getChargePerTick() { return chargePerTick; }
     public int getPowerRequired() { return powerRequired; }
     public int getDamage() { return damage; }
     public boolean isAutoFire() { return autoFire; }
-    public void setAutoFire(boolean autoFire) { this.autoFire = autoFire; }
+    public void setAutoFire(boolean autoFire) {
+        if (this.autoFire != autoFire) {
+            this.autoFire = autoFire;
+            version++;
+        }
+    }
     public boolean isSelected() { return selected; }
-    public void setSelected(boolean selected) { this.selected = selected; }
+    public void setSelected(boolean selected) {
+        if (this.selected != selected) {
+            this.selected = selected;
+            version++;
+        }
+    }
     public WeaponType getType() { return type; }
+    public int getVersion() { return version; }
 }
 
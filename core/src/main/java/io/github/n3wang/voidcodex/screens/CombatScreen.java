@@ -1,15 +1,23 @@
 package io.github.n3wang.voidcodex.screens;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
+import io.github.n3wang.voidcodex.GameState;
 import io.github.n3wang.voidcodex.VoidCodexGame;
 import io.github.n3wang.voidcodex.screens.ShipScreenNew;
 import io.github.n3wang.voidcodex.model.*;
+import io.github.n3wang.voidcodex.sim.RenderSnapshot;
+import io.github.n3wang.voidcodex.sim.SnapshotExchange;
+
+import java.util.function.Supplier;
 
 /**
  * Combat screen with boarding and weapons options, plus shield management.
+ * Hull and shields belong to the simulation, so every action runs where it runs
+ * ({@link #runCombatAction}) and the ship panels show the player ship's render snapshots.
  */
 public class CombatScreen extends GameScreen {
     private Table mainTable;
@@ -19,13 +27,28 @@ public class CombatScreen extends GameScreen {
     private Label playerShieldLabel;
     private Label enemyShieldLabel;
     private Label statusLabel;
+    private final SnapshotExchange playerSnapshots;
+    private CombatMode mode; // As last chosen here; the combat state gets it through the simulation
+
+    // Snapshot values the ship panels were last built from
+    private int shownStatusVersion = -1;
+    private int shownCombatVersion = -1;
+    private int shownEnemyHull = -1;
+    private int shownEnemyCrew = -1;
 
     public CombatScreen(VoidCodexGame game) {
         super(game);
+        playerSnapshots = game.getGameState().getSimulation().getSnapshots(game.getGameState().getCurrentShip());
         createUI();
         initializeCombat();
     }
 
+    @Override
+    public void render(float delta) {
+        refreshPanels();
+        super.render(delta);
+    }
+
     private void createUI() {
         mainTable = new Table();
         mainTable.setFillParent(true);
@@ -42,14 +65,12 @@ public class CombatScreen extends GameScreen {
         playerShipTable = new Table();
         playerShipTable.setBackground(game.getDrawable("default-round"));
         playerShipTable.pad(10f);
-        updatePlayerShipInfo();
         shipsTable.add(playerShipTable).size(400f, 300f).padRight(10f);
 
         // Enemy ship panel
         enemyShipTable = new Table();
         enemyShipTable.setBackground(game.getDrawable("default-round"));
         enemyShipTable.pad(10f);
-        updateEnemyShipInfo();
         shipsTable.add(enemyShipTable).size(400f, 300f);
 
         mainTable.add(shipsTable).colspan(2).padBottom(10f).row();
@@ -62,26 +83,24 @@ public class CombatScreen extends GameScreen {
         Label modeLabel = new Label("Combat Mode:", game.getSkin(), "subtitle");
         modeTable.add(modeLabel).padRight(10f);
 
-        CombatState combatState = game.getGameState().getCombatState();
+        mode = game.getGameState().getCombatState().getMode();
         
         TextButton weaponsButton = new TextButton("Weapons", game.getSkin());
-        weaponsButton.setChecked(combatState.getMode() == CombatMode.WEAPONS);
+        weaponsButton.setChecked(mode == CombatMode.WEAPONS);
         weaponsButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                combatState.setMode(CombatMode.WEAPONS);
-                updateCombatActions();
+                setMode(CombatMode.WEAPONS);
             }
         });
         modeTable.add(weaponsButton).padRight(10f);
 
         TextButton boardingButton = new TextButton("Boarding", game.getSkin());
-        boardingButton.setChecked(combatState.getMode() == CombatMode.BOARDING);
+        boardingButton.setChecked(mode == CombatMode.BOARDING);
         boardingButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                combatState.setMode(CombatMode.BOARDING);
-                updateCombatActions();
+                setMode(CombatMode.BOARDING);
             }
         });
         modeTable.add(boardingButton);
@@ -105,7 +124,7 @@ public class CombatScreen extends GameScreen {
         backButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                game.getGameState().getCombatState().endCombat();
+                game.getGameState().runOnSimulation(() -> game.getGameState().getCombatState().endCombat());
                 game.setScreen(new ShipScreenNew(game));
             }
         });
@@ -115,14 +134,16 @@ public class CombatScreen extends GameScreen {
     }
 
     private void initializeCombat() {
+        runCombatAction(this::resetShields);
+        updateCombatActions(); // With power levels from the snapshot the reset published
+    }
+
+    private String resetShields() {
         CombatState combatState = game.getGameState().getCombatState();
         Ship playerShip = game.getGameState().getCurrentShip();
         
         // Calculate max shields based on shield room power
-        Room shieldRoom = playerShip.getRooms().stream()
-                .filter(r -> r.getType() == RoomType.SHIELDS)
-                .findFirst()
-                .orElse(null);
+        Room shieldRoom = playerShip.getFirstRoomOfType(RoomType.SHIELDS);
         
         if (shieldRoom != null) {
             int maxShields = shieldRoom.getPowerLevel() * 2; // 2 shield per power
@@ -133,78 +154,120 @@ public class CombatScreen extends GameScreen {
         // Enemy shields
         combatState.setMaxEnemyShields(4);
         combatState.setEnemyShields(4);
+        return "";
+    }
+
+    /**
+     * Run a combat action where the simulation runs and show the status it returns. On the
+     * render thread it runs right away and the panels refresh from the snapshot it publishes,
+     * so the result shows this frame; on the simulation thread the status is posted back and
+     * the panels follow the next snapshot.
+     */
+    private void runCombatAction(Supplier<String> action) {
+        GameState gameState = game.getGameState();
+        if (gameState.isSimulationThreaded()) {
+            gameState.runOnSimulation(() -> {
+                String status = action.get();
+                Gdx.app.postRunnable(() -> statusLabel.setText(status));
+            });
+            return;
+        }
+        gameState.runOnSimulation(() -> statusLabel.setText(action.get()));
+        refreshPanels();
+    }
+
+    /**
+     * Rebuild the ship panels if the latest snapshot shows something they do not.
+     */
+    private void refreshPanels() {
+        RenderSnapshot snapshot = playerSnapshots.acquire();
+        if (snapshot == null) {
+            return; // Filled in once the simulation has published
+        }
+        if (snapshot.getStatusVersion() == shownStatusVersion && snapshot.getCombatVersion() == shownCombatVersion
+                && snapshot.getEnemyHull() == shownEnemyHull && snapshot.getEnemyCrewCount() == shownEnemyCrew) {
+            return;
+        }
+        shownStatusVersion = snapshot.getStatusVersion();
+        shownCombatVersion = snapshot.getCombatVersion();
+        shownEnemyHull = snapshot.getEnemyHull();
+        shownEnemyCrew = snapshot.getEnemyCrewCount();
+        updatePlayerShipInfo(snapshot);
+        updateEnemyShipInfo(snapshot);
     }
 
-    private void updatePlayerShipInfo() {
+    private void updatePlayerShipInfo(RenderSnapshot snapshot) {
         playerShipTable.clear();
         Ship ship = game.getGameState().getCurrentShip();
-        CombatState combatState = game.getGameState().getCombatState();
 
         Label title = new Label("Your Ship: " + ship.getName(), game.getSkin(), "subtitle");
         playerShipTable.add(title).padBottom(10f).row();
 
-        Label hullLabel = new Label("Hull: " + ship.getCurrentHull() + "/" + ship.getMaxHull(), game.getSkin());
+        Label hullLabel = new Label("Hull: " + snapshot.getHull() + "/" + snapshot.getMaxHull(), game.getSkin());
         playerShipTable.add(hullLabel).left().row();
 
-        playerShieldLabel = new Label("Shields: " + combatState.getPlayerShields() + "/" + combatState.getMaxPlayerShields(), game.getSkin());
+        playerShieldLabel = new Label("Shields: " + snapshot.getPlayerCombatShields() + "/" + snapshot.getMaxPlayerCombatShields(), game.getSkin());
         playerShieldLabel.setColor(Color.CYAN);
         playerShipTable.add(playerShieldLabel).left().padTop(5f).row();
 
         // Show weapon power
-        Room weaponRoom = ship.getRooms().stream()
-                .filter(r -> r.getType() == RoomType.WEAPONS)
-                .findFirst()
-                .orElse(null);
+        Room weaponRoom = ship.getFirstRoomOfType(RoomType.WEAPONS);
         if (weaponRoom != null) {
-            Label weaponLabel = new Label("Weapon Power: " + weaponRoom.getPowerLevel() + "/" + weaponRoom.getMaxPower(), game.getSkin());
+            Label weaponLabel = new Label("Weapon Power: " + snapshot.getRoomPower(weaponRoom) + "/" + weaponRoom.getMaxPower(), game.getSkin());
             playerShipTable.add(weaponLabel).left().padTop(5f).row();
         }
 
         // Crew count
-        Label crewLabel = new Label("Crew: " + ship.getCrew().size(), game.getSkin());
+        Label crewLabel = new Label("Crew: " + snapshot.getCrewCount(), game.getSkin());
         playerShipTable.add(crewLabel).left().padTop(5f).row();
     }
 
-    private void updateEnemyShipInfo() {
+    private void updateEnemyShipInfo(RenderSnapshot snapshot) {
         enemyShipTable.clear();
-        CombatState combatState = game.getGameState().getCombatState();
-        Ship enemyShip = combatState.getEnemyShip();
 
         Label title = new Label("Enemy Ship", game.getSkin(), "subtitle");
         enemyShipTable.add(title).padBottom(10f).row();
 
-        Label hullLabel = new Label("Hull: " + enemyShip.getCurrentHull() + "/" + enemyShip.getMaxHull(), game.getSkin());
-        enemyShipTable.add(hullLabel).left().row();
+        // Once combat ends there is no enemy; the panel keeps the last hull it showed
+        if (snapshot.getEnemyShip() != null) {
+            Label hullLabel = new Label("Hull: " + snapshot.getEnemyHull() + "/" + snapshot.getEnemyMaxHull(), game.getSkin());
+            enemyShipTable.add(hullLabel).left().row();
+        }
 
-        enemyShieldLabel = new Label("Shields: " + combatState.getEnemyShields() + "/" + combatState.getMaxEnemyShields(), game.getSkin());
+        enemyShieldLabel = new Label("Shields: " + snapshot.getEnemyCombatShields() + "/" + snapshot.getMaxEnemyCombatShields(), game.getSkin());
         enemyShieldLabel.setColor(Color.CYAN);
         enemyShipTable.add(enemyShieldLabel).left().padTop(5f).row();
 
-        Label crewLabel = new Label("Crew: " + enemyShip.getCrew().size(), game.getSkin());
+        Label crewLabel = new Label("Crew: " + snapshot.getEnemyCrewCount(), game.getSkin());
         enemyShipTable.add(crewLabel).left().padTop(5f).row();
     }
 
+    private void setMode(CombatMode mode) {
+        this.mode = mode;
+        CombatState combatState = game.getGameState().getCombatState();
+        game.getGameState().runOnSimulation(() -> combatState.setMode(mode));
+        updateCombatActions();
+    }
+
     private void updateCombatActions() {
         combatActionsTable.clear();
-        CombatState combatState = game.getGameState().getCombatState();
         Ship playerShip = game.getGameState().getCurrentShip();
+        RenderSnapshot snapshot = playerSnapshots.acquire();
 
-        if (combatState.getMode() == CombatMode.WEAPONS) {
+        if (mode == CombatMode.WEAPONS) {
             Label title = new Label("Weapons Mode", game.getSkin(), "subtitle");
             combatActionsTable.add(title).padBottom(10f).row();
 
             // Fire weapons button
-            Room weaponRoom = playerShip.getRooms().stream()
-                    .filter(r -> r.getType() == RoomType.WEAPONS)
-                    .findFirst()
-                    .orElse(null);
+            Room weaponRoom = playerShip.getFirstRoomOfType(RoomType.WEAPONS);
+            int weaponPower = weaponRoom != null && snapshot != null ? snapshot.getRoomPower(weaponRoom) : 0;
 
-            if (weaponRoom != null && weaponRoom.getPowerLevel() > 0) {
-                TextButton fireButton = new TextButton("Fire Weapons (" + weaponRoom.getPowerLevel() + " damage)", game.getSkin());
+            if (weaponPower > 0) {
+                TextButton fireButton = new TextButton("Fire Weapons (" + weaponPower + " damage)", game.getSkin());
                 fireButton.addListener(new ChangeListener() {
                     @Override
                     public void changed(ChangeEvent event, Actor actor) {
-                        fireWeapons();
+                        runCombatAction(CombatScreen.this::fireWeapons);
                     }
                 });
                 combatActionsTable.add(fireButton).padRight(10f);
@@ -219,17 +282,15 @@ public class CombatScreen extends GameScreen {
             Label shieldTitle = new Label("Shield Management:", game.getSkin());
             combatActionsTable.add(shieldTitle).left().row();
 
-            Room shieldRoom = playerShip.getRooms().stream()
-                    .filter(r -> r.getType() == RoomType.SHIELDS)
-                    .findFirst()
-                    .orElse(null);
+            Room shieldRoom = playerShip.getFirstRoomOfType(RoomType.SHIELDS);
 
             if (shieldRoom != null) {
-                TextButton rechargeButton = new TextButton("Recharge Shields (+" + shieldRoom.getPowerLevel() + ")", game.getSkin());
+                int shieldPower = snapshot != null ? snapshot.getRoomPower(shieldRoom) : 0;
+                TextButton rechargeButton = new TextButton("Recharge Shields (+" + shieldPower + ")", game.getSkin());
                 rechargeButton.addListener(new ChangeListener() {
                     @Override
                     public void changed(ChangeEvent event, Actor actor) {
-                        rechargeShields();
+                        runCombatAction(CombatScreen.this::rechargeShields);
                     }
                 });
                 combatActionsTable.add(rechargeButton).padRight(10f);
@@ -246,7 +307,7 @@ public class CombatScreen extends GameScreen {
             boardButton.addListener(new ChangeListener() {
                 @Override
                 public void changed(ChangeEvent event, Actor actor) {
-                    boardEnemyShip();
+                    runCombatAction(CombatScreen.this::boardEnemyShip);
                 }
             });
             combatActionsTable.add(boardButton).padTop(10f);
@@ -258,109 +319,102 @@ public class CombatScreen extends GameScreen {
         endTurnButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                endTurn();
+                runCombatAction(CombatScreen.this::endTurn);
             }
         });
         combatActionsTable.add(endTurnButton);
     }
 
-    private void fireWeapons() {
+    private String fireWeapons() {
         Ship playerShip = game.getGameState().getCurrentShip();
         CombatState combatState = game.getGameState().getCombatState();
         Ship enemyShip = combatState.getEnemyShip();
 
-        Room weaponRoom = playerShip.getRooms().stream()
-                .filter(r -> r.getType() == RoomType.WEAPONS)
-                .findFirst()
-                .orElse(null);
+        Room weaponRoom = playerShip.getFirstRoomOfType(RoomType.WEAPONS);
 
         if (weaponRoom == null || weaponRoom.getPowerLevel() == 0) {
-            statusLabel.setText("Weapons have no power!");
-            return;
+            return "Weapons have no power!";
         }
 
         int damage = weaponRoom.getPowerLevel();
+        String status = "";
 
         // Check enemy shields first
         if (combatState.getEnemyShields() > 0) {
             int shieldDamage = Math.min(damage, combatState.getEnemyShields());
             combatState.setEnemyShields(combatState.getEnemyShields() - shieldDamage);
             damage -= shieldDamage;
-            statusLabel.setText("Enemy shields absorbed " + shieldDamage + " damage!");
+            status = "Enemy shields absorbed " + shieldDamage + " damage!";
         }
 
         // Apply remaining damage to hull
         if (damage > 0) {
             enemyShip.setCurrentHull(enemyShip.getCurrentHull() - damage);
-            statusLabel.setText("Dealt " + damage + " damage to enemy hull!");
+            status = "Dealt " + damage + " damage to enemy hull!";
         }
 
         if (enemyShip.getCurrentHull() <= 0) {
-            statusLabel.setText("Enemy ship destroyed! Victory!");
+            status = "Enemy ship destroyed! Victory!";
             combatState.endCombat();
         }
 
-        updateEnemyShipInfo();
+        return status;
     }
 
-    private void rechargeShields() {
+    private String rechargeShields() {
         Ship playerShip = game.getGameState().getCurrentShip();
         CombatState combatState = game.getGameState().getCombatState();
 
-        Room shieldRoom = playerShip.getRooms().stream()
-                .filter(r -> r.getType() == RoomType.SHIELDS)
-                .findFirst()
-                .orElse(null);
+        Room shieldRoom = playerShip.getFirstRoomOfType(RoomType.SHIELDS);
 
         if (shieldRoom == null || shieldRoom.getPowerLevel() == 0) {
-            statusLabel.setText("Shields have no power!");
-            return;
+            return "Shields have no power!";
         }
 
         int recharge = shieldRoom.getPowerLevel();
         int newShields = Math.min(combatState.getPlayerShields() + recharge, combatState.getMaxPlayerShields());
         combatState.setPlayerShields(newShields);
-        statusLabel.setText("Shields recharged to " + newShields + "!");
-        updatePlayerShipInfo();
+        return "Shields recharged to " + newShields + "!";
     }
 
-    private void boardEnemyShip() {
+    private String boardEnemyShip() {
         Ship playerShip = game.getGameState().getCurrentShip();
         CombatState combatState = game.getGameState().getCombatState();
         Ship enemyShip = combatState.getEnemyShip();
 
         if (playerShip.getCrew().isEmpty()) {
-            statusLabel.setText("No crew to board!");
-            return;
+            return "No crew to board!";
         }
 
         // Simple boarding: crew damage enemy
         int crewDamage = playerShip.getCrew().size() * 2;
         enemyShip.setCurrentHull(enemyShip.getCurrentHull() - crewDamage);
-        statusLabel.setText("Boarding party dealt " + crewDamage + " damage!");
 
         if (enemyShip.getCurrentHull() <= 0) {
-            statusLabel.setText("Enemy ship destroyed! Victory!");
             combatState.endCombat();
+            return "Enemy ship destroyed! Victory!";
         }
-
-        updateEnemyShipInfo();
+        return "Boarding party dealt " + crewDamage + " damage!";
     }
 
-    private void endTurn() {
+    private String endTurn() {
         CombatState combatState = game.getGameState().getCombatState();
         combatState.nextTurn();
 
+        String enemyTurn = "";
         if (!combatState.isPlayerTurn()) {
             // Enemy turn - simple AI
-            performEnemyTurn();
+            enemyTurn = performEnemyTurn() + " ";
             combatState.nextTurn();
         }
 
-        statusLabel.setText("Turn ended. " + (combatState.isPlayerTurn() ? "Your turn!" : "Enemy turn!"));
+        return enemyTurn + "Turn ended. " + (combatState.isPlayerTurn() ? "Your turn!" : "Enemy turn!");
     }
 
-    private void performEnemyTurn() {
+    /**
+     * Runs inside endTurn; returns what the enemy's attack did, which is also logged.
+     */
+    private String performEnemyTurn() {
         CombatState combatState = game.getGameState().getCombatState();
         Ship playerShip = game.getGameState().getCurrentShip();
         Ship enemyShip = combatState.getEnemyShip();
@@ -376,18 +430,20 @@ public class CombatScreen extends GameScreen {
         }
 
         // Apply remaining damage to hull
+        String status;
         if (enemyDamage > 0) {
             playerShip.setCurrentHull(playerShip.getCurrentHull() - enemyDamage);
-            statusLabel.setText("Enemy dealt " + enemyDamage + " damage to your hull!");
+            status = "Enemy dealt " + enemyDamage + " damage to your hull!";
         } else {
-            statusLabel.setText("Your shields absorbed the enemy attack!");
+            status = "Your shields absorbed the enemy attack!";
         }
 
         if (playerShip.getCurrentHull() <= 0) {
-            statusLabel.setText("Your ship is destroyed! Defeat!");
+            status = "Your ship is destroyed! Defeat!";
             combatState.endCombat();
         }
 
-        updatePlayerShipInfo();
+        Gdx.app.log("Combat", status);
+        return status;
     }
 }
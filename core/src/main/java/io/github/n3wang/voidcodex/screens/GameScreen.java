@@ -2,6 +2,7 @@ package io.github.n3wang.voidcodex.screens;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import io.github.n3wang.voidcodex.VoidCodexGame;
@@ -14,6 +15,7 @@ public abstract class GameScreen implements Screen {
     protected Stage stage;
     protected static final int VIEWPORT_WIDTH = 1280;
     protected static final int VIEWPORT_HEIGHT = 720;
+    private int renderCalls; // Batch flushes (draw calls) of the last stage draw
 
     public GameScreen(VoidCodexGame game) {
         this.game = game;
@@ -40,11 +42,21 @@ public abstract class GameScreen implements Screen {
 
         stage.act(delta);
         stage.draw();
+        if (stage.getBatch() instanceof SpriteBatch) {
+            renderCalls = ((SpriteBatch) stage.getBatch()).renderCalls;
+        }
 
         // Debug screenshot manager - capture AFTER rendering is complete
         io.github.n3wang.voidcodex.util.DebugScreenshotManager.update(getScreenName());
     }
 
+    /**
+     * Draw calls the last frame's stage took; each texture switch costs one.
+     */
+    public int getRenderCalls() {
+        return renderCalls;
+    }
+
     @Override
     public void resize(int width, int height) {
         if (width <= 0 || height <= 0) return;
@@ -3,7 +3,6 @@ package io.github.n3wang.voidcodex.screens;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
@@ -13,17 +12,24 @@ import com.badlogic.gdx.scenes.scene2d.ui.*;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.Align;
+import io.github.n3wang.voidcodex.GameState;
 import io.github.n3wang.voidcodex.VoidCodexGame;
 import io.github.n3wang.voidcodex.model.*;
+import io.github.n3wang.voidcodex.sim.EventBus;
+import io.github.n3wang.voidcodex.sim.GameEvent;
+import io.github.n3wang.voidcodex.sim.RenderSnapshot;
+import io.github.n3wang.voidcodex.sim.SnapshotExchange;
 import io.github.n3wang.voidcodex.util.PixelArtGenerator;
-import io.github.n3wang.voidcodex.util.Pathfinding;
-import io.github.n3wang.voidcodex.util.TilePathfinding;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Void Wars-style ship management and combat screen.
+ * Everything the panels show that the simulation changes is read from the current ship's
+ * render snapshots, and every change goes through {@link GameState#runOnSimulation}, so the
+ * simulation may run on its own thread. Layout (rooms, crew and weapon names, capacities) is
+ * fixed once a ship is in play and is read from the model.
  */
 public class ShipScreenNew extends GameScreen {
     // UI Components
@@ -48,13 +54,100 @@ public class ShipScreenNew extends GameScreen {
     private TextButton slowButton;
     private TextButton fastButton;
 
-    // Game time tracking
-    private float gameTime = 0f;
-
     // State
     private List<Crew> selectedCrew;
+    private int selectionVersion; // Bumped whenever selectedCrew changes
     private Weapon selectedWeapon;
 
+    // Widgets kept between frames; render() only touches those whose model version changed
+    private final List<CrewPortrait> crewPortraits = new ArrayList<>();
+    private final List<SystemPanel> systemPanels = new ArrayList<>();
+    private final List<WeaponRow> weaponRows = new ArrayList<>();
+    private Label totalEnergyLabel;
+    private Label enemyHullLabel;
+    private Label enemyShieldLabel;
+
+    // Generated sprites the panels' images hold, retained so the atlas budget cannot evict them
+    private final List<TextureRegion> portraitSprites = new ArrayList<>();
+    private final List<TextureRegion> bottomPanelSprites = new ArrayList<>();
+    private boolean spritesReleased; // By hide; the panels are rebuilt when shown again
+
+    // Snapshot values the widgets were last brought up to date with
+    private Ship snapshotShip;
+    private SnapshotExchange shipSnapshots; // Shared with the tile map
+    private Ship topBarShip;
+    private int topBarVersion;
+    private long timerTick = -1;
+    private Ship bottomPanelShip;
+    private int bottomPanelLayoutVersion;
+    private int totalEnergyVersion;
+    private boolean enemyPanelShown; // In combat when the screen was built
+    private Ship enemyPanelShip;
+    private int enemyLayoutVersion;
+    private int enemyHull;
+    private int enemyCombatVersion;
+
+    private final Vector2 mapPosition = new Vector2();
+    private final com.badlogic.gdx.utils.StringBuilder timerText = new com.badlogic.gdx.utils.StringBuilder();
+
+    private static final class CrewPortrait {
+        final Crew crew;
+        final int index; // In the snapshot's crew
+        final Table table;
+        final Image image;
+        final ProgressBar healthBar;
+        int health;
+        int selectionVersion;
+
+        CrewPortrait(Crew crew, int index, Table table, Image image, ProgressBar healthBar) {
+            this.crew = crew;
+            this.index = index;
+            this.table = table;
+            this.image = image;
+            this.healthBar = healthBar;
+        }
+    }
+
+    private static final class SystemPanel {
+        final Room room;
+        final Table indicatorLight;
+        final Table[] blocks; // Bottom block first
+        int power;
+
+        SystemPanel(Room room, Table indicatorLight, Table[] blocks) {
+            this.room = room;
+            this.indicatorLight = indicatorLight;
+            this.blocks = blocks;
+        }
+    }
+
+    private static final class WeaponRow {
+        final Weapon weapon;
+        final Table row;
+        final ProgressBar chargeBar;
+        final Label chargeLabel;
+        final TextButton selectButton;
+        final TextButton autoButton;
+        int charge;
+        int buttons; // Selected and autofire flags last shown
+
+        WeaponRow(Weapon weapon, Table row, ProgressBar chargeBar, Label chargeLabel,
+                  TextButton selectButton, TextButton autoButton) {
+            this.weapon = weapon;
+            this.row = row;
+            this.chargeBar = chargeBar;
+            this.chargeLabel = chargeLabel;
+            this.selectButton = selectButton;
+            this.autoButton = autoButton;
+        }
+    }
+
+    // Combat log, fed by the simulation's events
+    private final EventBus.Listener<GameEvent.HullDamaged> hullDamagedLog = event ->
+            Gdx.app.log("Combat", event.getShip().getName() + " hull hit for " + event.getDamage());
+    private final EventBus.Listener<GameEvent.RoomFireStarted> fireStartedLog = event ->
+            Gdx.app.log("Combat", "Fire in " + event.getShip().getName() + " " + event.getRoom().getType().getDisplayName());
+
     public ShipScreenNew(VoidCodexGame game) {
         super(game);
         selectedCrew = new ArrayList<>();
@@ -62,44 +155,112 @@ public class ShipScreenNew extends GameScreen {
     }
 
     @Override
-    public void render(float delta) {
-        GameTimeState timeState = game.getGameState().getTimeState();
-
-        // Update game time (only if not paused)
-        if (!timeState.isPaused()) {
-            float timeScale = timeState.getTimeScale();
-            float scaledDelta = delta * timeScale;
-            gameTime += scaledDelta;
+    public void show() {
+        super.show();
+        // The bus belongs to the simulation's thread, which also runs the listeners
+        EventBus events = game.getGameState().getSimulation().getEvents();
+        game.getGameState().runOnSimulation(() -> {
+            events.subscribe(GameEvent.HULL_DAMAGED, hullDamagedLog);
+            events.subscribe(GameEvent.ROOM_FIRE_STARTED, fireStartedLog);
+        });
+    }
 
-            // Update crew movement (time-based, 0.5 seconds per tile)
-            updateCrewMovement(scaledDelta);
+    @Override
+    public void hide() {
+        // Screens are replaced without being disposed, so stop listening here
+        EventBus events = game.getGameState().getSimulation().getEvents();
+        game.getGameState().runOnSimulation(() -> {
+            events.unsubscribe(GameEvent.HULL_DAMAGED, hullDamagedLog);
+            events.unsubscribe(GameEvent.ROOM_FIRE_STARTED, fireStartedLog);
+        });
+        if (shipTileMap != null) {
+            shipTileMap.disposeLayers();
+        }
+        // Their panels are emptied with them, and rebuilt by the next refreshPanels
+        releaseSprites(portraitSprites);
+        releaseSprites(bottomPanelSprites);
+        leftPanel.clearChildren();
+        crewPortraits.clear();
+        bottomPanel.clearChildren();
+        systemPanels.clear();
+        weaponRows.clear();
+        spritesReleased = true;
+    }
 
-            // Update weapon charges
-            updateWeaponCharges(scaledDelta);
+    /**
+     * An image of a generated sprite, retained until the sprites of its panel are released.
+     */
+    private static Image retainedImage(TextureRegion sprite, List<TextureRegion> panelSprites) {
+        PixelArtGenerator.retain(sprite);
+        panelSprites.add(sprite);
+        return new Image(sprite);
+    }
 
-            // Update oxygen system
-            updateOxygenSystem(scaledDelta);
-            
-            // Update repair systems
-            updateRepairSystems(scaledDelta);
+    private static void releaseSprites(List<TextureRegion> panelSprites) {
+        for (int i = 0; i < panelSprites.size(); i++) {
+            PixelArtGenerator.release(panelSprites.get(i));
         }
+        panelSprites.clear();
+    }
+
+    @Override
+    public void render(float delta) {
+        // Advance gameplay at a fixed tick rate (pause and time scale applied by the simulation);
+        // a no-op when the simulation runs on its own thread
+        game.getGameState().updateSimulation(delta);
+
+        // Bring widgets up to date with whatever changed; they and the tile map read render snapshots
+        refreshPanels();
+        positionShipTileMap();
 
         // Always render (even when paused)
         super.render(delta);
+    }
 
-        // Update UI
-        updateTopBar();
-
-        // Update tile map position (in case UI moved) - only update position, not z-order
-        if (shipTileMap != null && centerPanel != null) {
-            centerPanel.layout();
-            // Convert centerPanel coordinates to stage coordinates
-            Vector2 stagePos = centerPanel.localToStageCoordinates(new Vector2(0, 0));
-            float mapX = stagePos.x + 10; // Padding from left edge of centerPanel
-            float mapY = stagePos.y + 40; // Below title
-            shipTileMap.setPosition(mapX, mapY);
-            // Don't call toFront() every frame - it causes z-ordering conflicts
+    /**
+     * The current ship's latest render snapshot, or null before the first is published.
+     * Acquire it again at each use: the tile map acquires from the same exchange.
+     */
+    private RenderSnapshot snapshot() {
+        Ship ship = game.getGameState().getCurrentShip();
+        if (ship != snapshotShip) {
+            snapshotShip = ship;
+            shipSnapshots = game.getGameState().getSimulation().getSnapshots(ship);
         }
+        return shipSnapshots.acquire();
+    }
+
+    /**
+     * Bring the panels up to date with the latest snapshot. Nothing changed means no layout
+     * and no allocation.
+     */
+    private void refreshPanels() {
+        RenderSnapshot snapshot = snapshot();
+        if (snapshot == null) {
+            return; // Filled in once the simulation has published
+        }
+        updateTopBar(snapshot);
+        updateCrewPortraits(snapshot);
+        updateBottomPanel(snapshot);
+        if (enemyPanelShown && snapshot.isInCombat()) {
+            updateEnemyShipGrid(snapshot);
+        }
+        spritesReleased = false;
+    }
+
+    /**
+     * Keep the tile map over the center panel's placeholder (in case UI moved) - only the
+     * position, not z-order. Lays out only if the panel was invalidated.
+     */
+    private void positionShipTileMap() {
+        if (shipTileMap == null || centerPanel == null) return;
+        centerPanel.validate();
+        // Convert centerPanel coordinates to stage coordinates
+        centerPanel.localToStageCoordinates(mapPosition.set(0, 0));
+        float mapX = mapPosition.x + 10; // Padding from left edge of centerPanel
+        float mapY = mapPosition.y + 40; // Below title (30px title + 10px padding)
+        shipTileMap.setPosition(mapX, mapY);
+        // Don't call toFront() every frame - it causes z-ordering conflicts
     }
 
     /**
@@ -125,7 +286,8 @@ public class ShipScreenNew extends GameScreen {
                 selectedCrew.add(crew);
             }
         }
-        updateCrewPortraits();
+        selectionVersion++;
+        refreshPanels();
         updateShipGrid(); // Update ship grid to show selected crew
     }
 
@@ -133,8 +295,10 @@ public class ShipScreenNew extends GameScreen {
      * Handle tile click - LEFT CLICK = SELECT, RIGHT CLICK = MOVE
      */
     private void handleTileClick(Room room, int tileX, int tileY, int button) {
-        Ship ship = game.getGameState().getCurrentShip();
-        Crew crewAtTile = room.getCrewAtTile(tileX, tileY);
+        RenderSnapshot snapshot = snapshot();
+        if (snapshot == null) return;
+        int crewIndex = snapshot.getCrewAt(snapshot.tileId(room.getX() * Room.TILES + tileX, room.getY() * Room.TILES + tileY));
+        Crew crewAtTile = crewIndex != RenderSnapshot.NO_CREW ? snapshot.getCrew(crewIndex) : null;
 
         if (button == Input.Buttons.LEFT) {
             // LEFT CLICK: Select crew at tile
@@ -143,140 +307,25 @@ public class ShipScreenNew extends GameScreen {
             }
         } else if (button == Input.Buttons.RIGHT) {
             // RIGHT CLICK: Move selected crew to this tile
-            if (!selectedCrew.isEmpty() && room.getType() != RoomType.EMPTY) {
-                // Check if tile is empty
-                if (crewAtTile == null) {
-                    // Check if any selected crew is moving
-                    boolean anyMoving = selectedCrew.stream().anyMatch(Crew::isMoving);
-
-                    if (!anyMoving) {
-                        // Move first selected crew to this tile
-                        Crew crew = selectedCrew.get(0);
-
-                        // Remove crew from current tile (but don't remove from room yet - let movement handle it)
-                        Room currentRoom = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
-
-                        // Use tile-based pathfinding
-                        List<int[]> path = TilePathfinding.findPath(ship,
-                                crew.getCurrentRoomX(), crew.getCurrentRoomY(),
-                                crew.getCurrentTileX(), crew.getCurrentTileY(),
-                                room.getX(), room.getY(), tileX, tileY);
-
-                        if (!path.isEmpty()) {
-                            // Remove from current tile before starting movement
-                            if (currentRoom != null) {
-                                currentRoom.removeCrewFromTile(crew.getCurrentTileX(), crew.getCurrentTileY());
-                            }
-
-                            // Set target and start movement
-                            crew.setTargetRoomX(room.getX());
-                            crew.setTargetRoomY(room.getY());
-                            crew.setTargetTileX(tileX);
-                            crew.setTargetTileY(tileY);
-                            crew.setMoving(true);
-                            crew.setMovementProgress(0.0f);
-
-                            // Set first step in path
-                            int[] firstStep = path.get(0);
-                            crew.setNextRoomX(firstStep[0]);
-                            crew.setNextRoomY(firstStep[1]);
-                            crew.setNextTileX(firstStep[2]);
-                            crew.setNextTileY(firstStep[3]);
-
-                            updateCrewPortraits();
-                            updateShipGrid();
-                        } else {
-                            // Path blocked, place crew directly if same room and adjacent tile
-                            if (crew.getCurrentRoomX() == room.getX() &&
-                                crew.getCurrentRoomY() == room.getY()) {
-                                // Check if it's an adjacent tile (horizontal or vertical only)
-                                int dx = Math.abs(crew.getCurrentTileX() - tileX);
-                                int dy = Math.abs(crew.getCurrentTileY() - tileY);
-                                if ((dx == 1 && dy == 0) || (dx == 0 && dy == 1)) {
-                                    // Adjacent tile, move directly
-                                    if (currentRoom != null) {
-                                        currentRoom.removeCrewFromTile(crew.getCurrentTileX(), crew.getCurrentTileY());
-                                    }
-                                    room.setCrewAtTile(tileX, tileY, crew);
-                                    crew.setCurrentTileX(tileX);
-                                    crew.setCurrentTileY(tileY);
-                                    updateShipGrid();
-                                }
-                            }
-                        }
-                    }
+            if (selectedCrew.size() > 1 && room.getType() != RoomType.EMPTY) {
+                // Several crew: dispatch the whole selection around the clicked tile in one batch
+                List<Crew> group = new ArrayList<>(selectedCrew);
+                GameState gameState = game.getGameState();
+                if (gameState.isFlowFieldGroupOrders()) {
+                    gameState.runOnSimulation(() -> gameState.getSimulation().orderGroupMove(group, room));
+                } else {
+                    gameState.runOnSimulation(() ->
+                            gameState.getSimulation().orderCrewMoves(group, room, tileX, tileY));
                 }
+            } else if (!selectedCrew.isEmpty() && room.getType() != RoomType.EMPTY && crewAtTile == null) {
+                // Move the selected crew member to this tile (if not already moving)
+                Crew crew = selectedCrew.get(0);
+                game.getGameState().runOnSimulation(() ->
+                        game.getGameState().getSimulation().orderCrewMove(crew, room, tileX, tileY));
             }
         }
     }
 
-    private void updateCrewMovement(float delta) {
-        Ship ship = game.getGameState().getCurrentShip();
-        boolean needsUpdate = false;
-
-        for (Crew crew : ship.getCrew()) {
-            if (crew.isMoving()) {
-                // Movement speed: 2 tiles per second = 0.5 seconds per tile
-                crew.setMovementProgress(crew.getMovementProgress() + crew.getMovementSpeed() * delta);
-
-                if (crew.getMovementProgress() >= 1.0f) {
-                    // Reached next tile in path
-                    Room currentRoom = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
-                    if (currentRoom != null) {
-                        // Remove from current tile
-                        currentRoom.removeCrewFromTile(crew.getCurrentTileX(), crew.getCurrentTileY());
-                    }
-
-                    // Move to next tile
-                    crew.setCurrentRoomX(crew.getNextRoomX());
-                    crew.setCurrentRoomY(crew.getNextRoomY());
-                    crew.setCurrentTileX(crew.getNextTileX());
-                    crew.setCurrentTileY(crew.getNextTileY());
-                    crew.setMovementProgress(0.0f);
-
-                    // Place crew in new tile
-                    Room nextRoom = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
-                    if (nextRoom != null) {
-                        nextRoom.setCrewAtTile(crew.getCurrentTileX(), crew.getCurrentTileY(), crew);
-                    }
-
-                    // Check if reached final destination
-                    if (crew.getCurrentRoomX() == crew.getTargetRoomX() &&
-                        crew.getCurrentRoomY() == crew.getTargetRoomY() &&
-                        crew.getCurrentTileX() == crew.getTargetTileX() &&
-                        crew.getCurrentTileY() == crew.getTargetTileY()) {
-                        // Reached destination
-                        crew.setMoving(false);
-                        needsUpdate = true;
-                    } else {
-                        // Continue to next tile in path
-                        List<int[]> path = TilePathfinding.findPath(ship,
-                                crew.getCurrentRoomX(), crew.getCurrentRoomY(),
-                                crew.getCurrentTileX(), crew.getCurrentTileY(),
-                                crew.getTargetRoomX(), crew.getTargetRoomY(),
-                                crew.getTargetTileX(), crew.getTargetTileY());
-
-                        if (!path.isEmpty()) {
-                            int[] nextStep = path.get(0);
-                            crew.setNextRoomX(nextStep[0]);
-                            crew.setNextRoomY(nextStep[1]);
-                            crew.setNextTileX(nextStep[2]);
-                            crew.setNextTileY(nextStep[3]);
-                        } else {
-                            // Path blocked, stop movement
-                            crew.setMoving(false);
-                        }
-                        needsUpdate = true;
-                    }
-                }
-            }
-        }
-
-        if (needsUpdate) {
-            updateShipGrid();
-        }
-    }
-
     private void createUI() {
         mainTable = new Table();
         mainTable.setFillParent(true);
@@ -329,41 +378,38 @@ public class ShipScreenNew extends GameScreen {
         topBar.setHeight(60f);
         topBar.setVisible(true);
 
-        Ship ship = game.getGameState().getCurrentShip();
-
+        // Bars and labels are filled in by updateTopBar
         // Hull
         Label hullText = new Label("Hull:", game.getSkin());
         topBar.add(hullText).padRight(5f);
 
-        hullBar = new ProgressBar(0, ship.getMaxHull(), 1, false, game.getSkin());
-        hullBar.setValue(ship.getCurrentHull());
+        hullBar = new ProgressBar(0, 1, 1, false, game.getSkin());
         hullBar.setWidth(100f);
         topBar.add(hullBar).padRight(10f);
 
-        hullLabel = new Label(ship.getCurrentHull() + "/" + ship.getMaxHull(), game.getSkin());
+        hullLabel = new Label("", game.getSkin());
         topBar.add(hullLabel).padRight(15f);
 
         // Shields
         Label shieldText = new Label("Shields:", game.getSkin());
         topBar.add(shieldText).padRight(5f);
 
-        shieldBar = new ProgressBar(0, ship.getMaxShields(), 1, false, game.getSkin());
-        shieldBar.setValue(ship.getShields());
+        shieldBar = new ProgressBar(0, 1, 1, false, game.getSkin());
         shieldBar.setWidth(80f);
         topBar.add(shieldBar).padRight(10f);
 
-        shieldLabel = new Label(ship.getShields() + "/" + ship.getMaxShields(), game.getSkin());
+        shieldLabel = new Label("", game.getSkin());
         shieldLabel.setColor(Color.CYAN);
         topBar.add(shieldLabel).padRight(15f);
 
         // Resources
-        scrapLabel = new Label("Scrap: " + ship.getScrap(), game.getSkin());
+        scrapLabel = new Label("", game.getSkin());
         topBar.add(scrapLabel).padRight(10f);
 
-        fuelLabel = new Label("Fuel: " + ship.getFuel(), game.getSkin());
+        fuelLabel = new Label("", game.getSkin());
         topBar.add(fuelLabel).padRight(10f);
 
-        powerLabel = new Label("Energy: " + ship.getAvailablePower() + "/" + ship.getMaxPower() + " (Used: " + ship.getUsedPower() + ")", game.getSkin());
+        powerLabel = new Label("", game.getSkin());
         powerLabel.setColor(Color.YELLOW);
         topBar.add(powerLabel).padRight(15f);
 
@@ -450,7 +496,7 @@ public class ShipScreenNew extends GameScreen {
 
         // Update UI
         updateShipGrid();
-        updateTopBar();
+        refreshPanels();
     }
 
     private void showInfoDialog() {
@@ -464,12 +510,14 @@ public class ShipScreenNew extends GameScreen {
 
         Ship ship = game.getGameState().getCurrentShip();
         Sector sector = game.getGameState().getCurrentSector();
+        RenderSnapshot snapshot = snapshot();
+        if (snapshot == null) return;
 
         String info = "Ship: " + ship.getName() + "\n";
-        info += "Hull: " + ship.getCurrentHull() + "/" + ship.getMaxHull() + "\n";
-        info += "Shields: " + ship.getShields() + "/" + ship.getMaxShields() + "\n";
-        info += "Power: " + ship.getAvailablePower() + "/" + ship.getMaxPower() + "\n";
-        info += "Crew: " + ship.getCrew().size() + "\n";
+        info += "Hull: " + snapshot.getHull() + "/" + snapshot.getMaxHull() + "\n";
+        info += "Shields: " + snapshot.getShields() + "/" + snapshot.getMaxShields() + "\n";
+        info += "Power: " + snapshot.getAvailablePower() + "/" + snapshot.getMaxPower() + "\n";
+        info += "Crew: " + snapshot.getCrewCount() + "\n";
         if (sector != null) {
             info += "Sector: " + sector.getBiome().getName() + "\n";
             info += "Biome: " + sector.getBiome().getDescription();
@@ -501,42 +549,82 @@ public class ShipScreenNew extends GameScreen {
 
         Label title = new Label("CREW", game.getSkin(), "subtitle");
         leftPanel.add(title).padBottom(5f).row();
+        // Portraits are filled in by refreshPanels
+    }
 
-        updateCrewPortraits();
+    /**
+     * Bring the crew portraits up to date. The list is rebuilt only when the crew shown
+     * change; otherwise only portraits whose crew member or the selection changed are touched.
+     */
+    private void updateCrewPortraits(RenderSnapshot snapshot) {
+        if (spritesReleased || !crewPortraitsMatch(snapshot)) {
+            rebuildCrewPortraits(snapshot);
+        }
+        for (int i = 0; i < crewPortraits.size(); i++) {
+            CrewPortrait portrait = crewPortraits.get(i);
+            int health = snapshot.getCrewHealth(portrait.index);
+            if (portrait.health == health && portrait.selectionVersion == selectionVersion) {
+                continue;
+            }
+            portrait.health = health;
+            portrait.selectionVersion = selectionVersion;
+            boolean isSelected = selectedCrew.contains(portrait.crew);
+            portrait.table.setColor(isSelected ? Color.YELLOW : Color.WHITE);
+            portrait.image.setColor(isSelected ? Color.YELLOW : Color.WHITE);
+            portrait.healthBar.setValue(health);
+        }
+    }
+
+    /**
+     * Only show crew that are in a room (not moving between rooms).
+     */
+    private static boolean isPortraitShown(RenderSnapshot snapshot, int index) {
+        int tile = snapshot.getCrewTile(index);
+        return !snapshot.isCrewMoving(index)
+                || snapshot.getRoom(Crew.unpackRoomX(tile), Crew.unpackRoomY(tile)) != null;
+    }
+
+    private boolean crewPortraitsMatch(RenderSnapshot snapshot) {
+        int shown = 0;
+        for (int i = 0; i < snapshot.getCrewCount(); i++) {
+            if (isPortraitShown(snapshot, i)) {
+                if (shown >= crewPortraits.size() || crewPortraits.get(shown).crew != snapshot.getCrew(i)
+                        || crewPortraits.get(shown).index != i) {
+                    return false;
+                }
+                shown++;
+            }
+        }
+        return shown == crewPortraits.size();
     }
 
-    private void updateCrewPortraits() {
+    private void rebuildCrewPortraits(RenderSnapshot snapshot) {
         leftPanel.clearChildren();
+        crewPortraits.clear();
+        releaseSprites(portraitSprites);
         Label title = new Label("CREW", game.getSkin(), "subtitle");
         leftPanel.add(title).padBottom(5f).row();
 
-        Ship ship = game.getGameState().getCurrentShip();
-        for (Crew crew : ship.getCrew()) {
-            // Only show crew that are in a room (not moving between rooms)
-            if (!crew.isMoving() || ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY()) != null) {
-                Table portrait = createCrewPortrait(crew);
-                leftPanel.add(portrait).fillX().padBottom(3f).row();
+        for (int i = 0; i < snapshot.getCrewCount(); i++) {
+            if (isPortraitShown(snapshot, i)) {
+                CrewPortrait portrait = createCrewPortrait(snapshot.getCrew(i), i);
+                crewPortraits.add(portrait);
+                leftPanel.add(portrait.table).fillX().padBottom(3f).row();
             }
         }
     }
 
-    private Table createCrewPortrait(Crew crew) {
+    /**
+     * Build a portrait; selection colour and health are filled in by updateCrewPortraits.
+     */
+    private CrewPortrait createCrewPortrait(Crew crew, int index) {
         Table portrait = new Table();
-        boolean isSelected = selectedCrew.contains(crew);
-
         portrait.setBackground(game.getDrawable("default-round"));
-        if (isSelected) {
-            portrait.setColor(Color.YELLOW);
-        }
         portrait.pad(5f);
 
         // Crew profile picture (headshot)
-        Texture crewProfile = PixelArtGenerator.generateCrewProfile(crew.getRole());
-        Image crewImage = new Image(new TextureRegion(crewProfile));
+        Image crewImage = retainedImage(PixelArtGenerator.generateCrewProfile(crew.getRole()), portraitSprites);
         crewImage.setSize(32f, 32f);
-        if (isSelected) {
-            crewImage.setColor(Color.YELLOW);
-        }
         portrait.add(crewImage).size(32f, 32f).padBottom(3f).row();
 
         // Crew name
@@ -552,7 +640,6 @@ public class ShipScreenNew extends GameScreen {
 
         // Health bar
         ProgressBar healthBar = new ProgressBar(0, crew.getMaxHealth(), 1, false, game.getSkin());
-        healthBar.setValue(crew.getHealth());
         healthBar.setWidth(120f);
         portrait.add(healthBar).left().padTop(3f).row();
 
@@ -569,7 +656,9 @@ public class ShipScreenNew extends GameScreen {
             }
         });
 
-        return portrait;
+        CrewPortrait result = new CrewPortrait(crew, index, portrait, crewImage, healthBar);
+        result.health = -1; // Filled in on the next update
+        return result;
     }
 
     private void createCenterPanel() {
@@ -597,18 +686,10 @@ public class ShipScreenNew extends GameScreen {
             shipTileMap = new ShipTileMapActor(ship, selectedCrew, (roomX, roomY, tileX, tileY, button) -> {
                 handleTileMapClick(roomX, roomY, tileX, tileY, button);
             });
+            shipTileMap.setSnapshots(game.getGameState().getSimulation().getSnapshots(ship));
 
             // Position it to match the center panel's map placeholder
-            // We'll position it after the UI is laid out
-            if (centerPanel != null) {
-                centerPanel.layout(); // Force layout
-                // Convert centerPanel coordinates to stage coordinates
-                Vector2 stagePos = centerPanel.localToStageCoordinates(new Vector2(0, 0));
-                // Position map below the title (title is ~30px high, plus 10px padding)
-                float mapX = stagePos.x + 10; // Padding from left edge of centerPanel
-                float mapY = stagePos.y + 40; // Below title (30px title + 10px padding)
-                shipTileMap.setPosition(mapX, mapY);
-            }
+            positionShipTileMap();
 
             // Add directly to stage so it can receive input
             stage.addActor(shipTileMap);
@@ -621,19 +702,16 @@ public class ShipScreenNew extends GameScreen {
             // The top bar is in a different area (top of screen), so shipTileMap won't cover it
             // shipTileMap only covers the center panel area where the ship grid is displayed
         } else {
+            if (shipTileMap.getShip() != ship && shipTileMap.getShip() != null) {
+                game.getGameState().getSimulation().releaseSnapshots(shipTileMap.getShip());
+            }
             shipTileMap.setShip(ship);
             shipTileMap.setSelectedCrew(selectedCrew);
+            shipTileMap.setSnapshots(game.getGameState().getSimulation().getSnapshots(ship));
 
             // Update position in case UI moved
-            if (centerPanel != null) {
-                centerPanel.layout();
-                Vector2 stagePos = centerPanel.localToStageCoordinates(new Vector2(0, 0));
-                float mapX = stagePos.x + 10;
-                float mapY = stagePos.y + 40;
-                shipTileMap.setPosition(mapX, mapY);
-                shipTileMap.setVisible(true);
-                // Don't call toFront() - it causes z-ordering conflicts
-            }
+            positionShipTileMap();
+            shipTileMap.setVisible(true);
         }
     }
 
@@ -651,12 +729,15 @@ public class ShipScreenNew extends GameScreen {
         if (tileX < 0 || tileY < 0) {
             // Clicked on room but not on a specific tile - allow selection of crew in room
             // Find first crew in this room and select them
-            List<Crew> crewInRoom = ship.getCrew().stream()
-                    .filter(c -> c.getCurrentRoomX() == roomX && c.getCurrentRoomY() == roomY)
-                    .filter(c -> !c.isMoving())
-                    .toList();
-            if (!crewInRoom.isEmpty() && button == Input.Buttons.LEFT) {
-                handleCrewSelection(crewInRoom.get(0));
+            RenderSnapshot snapshot = snapshot();
+            if (snapshot == null || button != Input.Buttons.LEFT) return;
+            for (int i = 0; i < snapshot.getCrewCount(); i++) {
+                int tile = snapshot.getCrewTile(i);
+                if (!snapshot.isCrewMoving(i)
+                        && Crew.unpackRoomX(tile) == roomX && Crew.unpackRoomY(tile) == roomY) {
+                    handleCrewSelection(snapshot.getCrew(i));
+                    return;
+                }
             }
             return;
         }
@@ -672,29 +753,49 @@ public class ShipScreenNew extends GameScreen {
         rightPanel.setBackground(game.getDrawable("default-round"));
         rightPanel.pad(10f);
 
-        if (game.getGameState().isInCombat()) {
-            updateEnemyShipGrid();
-        } else {
+        enemyPanelShown = game.getGameState().isInCombat();
+        if (!enemyPanelShown) { // Otherwise filled in by refreshPanels
             Label label = new Label("No Enemy", game.getSkin());
             rightPanel.add(label);
         }
     }
 
-    private void updateEnemyShipGrid() {
+    /**
+     * Bring the enemy panel up to date; the room grid is rebuilt only for a new enemy or layout.
+     */
+    private void updateEnemyShipGrid(RenderSnapshot snapshot) {
+        Ship enemyShip = snapshot.getEnemyShip();
+        if (enemyShip == null) return;
+
+        if (enemyShip != enemyPanelShip || snapshot.getEnemyLayoutVersion() != enemyLayoutVersion) {
+            rebuildEnemyShipGrid(enemyShip, snapshot.getEnemyLayoutVersion());
+        }
+        if (snapshot.getEnemyHull() != enemyHull) {
+            enemyHull = snapshot.getEnemyHull();
+            enemyHullLabel.setText("Hull: " + enemyHull + "/" + snapshot.getEnemyMaxHull());
+        }
+        if (snapshot.getCombatVersion() != enemyCombatVersion) {
+            enemyCombatVersion = snapshot.getCombatVersion();
+            enemyShieldLabel.setText("Shields: " + snapshot.getEnemyCombatShields() + "/" + snapshot.getMaxEnemyCombatShields());
+        }
+    }
+
+    private void rebuildEnemyShipGrid(Ship enemyShip, int layoutVersion) {
         rightPanel.clearChildren();
+        enemyPanelShip = enemyShip;
+        enemyLayoutVersion = layoutVersion;
+        enemyHull = -1; // Labels filled in by updateEnemyShipGrid
+        enemyCombatVersion = -1;
 
         Label title = new Label("ENEMY SHIP", game.getSkin(), "subtitle");
         rightPanel.add(title).padBottom(10f).row();
 
-        CombatState combatState = game.getGameState().getCombatState();
-        Ship enemyShip = combatState.getEnemyShip();
-
         // Enemy ship info
-        Label hullLabel = new Label("Hull: " + enemyShip.getCurrentHull() + "/" + enemyShip.getMaxHull(), game.getSkin());
-        rightPanel.add(hullLabel).left().row();
+        enemyHullLabel = new Label("", game.getSkin());
+        rightPanel.add(enemyHullLabel).left().row();
 
-        Label shieldLabel = new Label("Shields: " + combatState.getEnemyShields() + "/" + combatState.getMaxEnemyShields(), game.getSkin());
-        rightPanel.add(shieldLabel).left().row();
+        enemyShieldLabel = new Label("", game.getSkin());
+        rightPanel.add(enemyShieldLabel).left().row();
 
         // Enemy ship grid (miniaturized)
         Table grid = new Table();
@@ -726,7 +827,8 @@ public class ShipScreenNew extends GameScreen {
         button.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                if (selectedWeapon != null && selectedWeapon.isCharged()) {
+                // The simulation does not fire a weapon that has not charged
+                if (selectedWeapon != null) {
                     fireWeaponAtTarget(selectedWeapon, room, enemyShip);
                 }
             }
@@ -736,45 +838,77 @@ public class ShipScreenNew extends GameScreen {
     }
 
     private void createBottomPanel() {
-        // If panel already exists, just update its contents instead of recreating
-        if (bottomPanel != null) {
-            updateBottomPanel();
-            return;
-        }
-
-        // Initial creation only
         bottomPanel = new Table();
         bottomPanel.setBackground(game.getDrawable("default-round"));
         bottomPanel.pad(10f);
 
-        // Left: Systems power management
-        Table leftSide = new Table();
-        createSystemsPowerSection(leftSide);
-        bottomPanel.add(leftSide).expandX().fillX().padRight(10f);
-
-        // Right: Weapons section
-        Table rightSide = new Table();
-        createWeaponsSection(rightSide);
-        bottomPanel.add(rightSide).size(400f, 200f);
+        // Filled in by refreshPanels
     }
 
-    private void updateBottomPanel() {
+    /**
+     * Bring the systems and weapons panel up to date. Its widgets are rebuilt only when the
+     * ship, its rooms or its weapon list change; otherwise only rooms and weapons whose
+     * version changed, and charge bars whose charge moved, are touched.
+     */
+    private void updateBottomPanel(RenderSnapshot snapshot) {
         if (bottomPanel == null) return;
 
-        // Clear existing content
+        Ship ship = game.getGameState().getCurrentShip();
+        if (spritesReleased || ship != bottomPanelShip || snapshot.getLayoutVersion() != bottomPanelLayoutVersion
+                || !weaponRowsMatch(snapshot)) {
+            rebuildBottomPanel(ship, snapshot);
+        }
+
+        if (snapshot.getStatusVersion() != totalEnergyVersion) {
+            totalEnergyVersion = snapshot.getStatusVersion();
+            totalEnergyLabel.setText("Total Energy: " + snapshot.getAvailablePower() + "/" + snapshot.getMaxPower() + " (Used: " + snapshot.getUsedPower() + ")");
+        }
+        for (int i = 0; i < systemPanels.size(); i++) {
+            SystemPanel panel = systemPanels.get(i);
+            int power = snapshot.getRoomPower(panel.room);
+            if (panel.power != power) {
+                panel.power = power;
+                updateSystemPowerPanel(panel);
+            }
+        }
+        for (int i = 0; i < weaponRows.size(); i++) {
+            updateWeaponRow(weaponRows.get(i), snapshot, i);
+        }
+    }
+
+    private boolean weaponRowsMatch(RenderSnapshot snapshot) {
+        if (snapshot.getWeaponCount() != weaponRows.size()) {
+            return false;
+        }
+        for (int i = 0; i < weaponRows.size(); i++) {
+            if (weaponRows.get(i).weapon != snapshot.getWeapon(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rebuildBottomPanel(Ship ship, RenderSnapshot snapshot) {
         bottomPanel.clearChildren();
+        systemPanels.clear();
+        weaponRows.clear();
+        releaseSprites(bottomPanelSprites);
+        bottomPanelShip = ship;
+        bottomPanelLayoutVersion = snapshot.getLayoutVersion();
+        totalEnergyVersion = snapshot.getStatusVersion() - 1; // Filled in by updateBottomPanel
 
-        // Rebuild content with updated data
+        // Left: Systems power management
         Table leftSide = new Table();
-        createSystemsPowerSection(leftSide);
+        createSystemsPowerSection(leftSide, ship);
         bottomPanel.add(leftSide).expandX().fillX().padRight(10f);
 
+        // Right: Weapons section
         Table rightSide = new Table();
-        createWeaponsSection(rightSide);
+        createWeaponsSection(rightSide, ship, snapshot);
         bottomPanel.add(rightSide).size(400f, 200f);
     }
 
-    private void createWeaponsSection(Table parent) {
+    private void createWeaponsSection(Table parent, Ship ship, RenderSnapshot snapshot) {
         Table weaponsTable = new Table();
         weaponsTable.setBackground(game.getDrawable("default-round"));
         weaponsTable.pad(5f);
@@ -782,27 +916,25 @@ public class ShipScreenNew extends GameScreen {
         Label title = new Label("WEAPONS", game.getSkin(), "subtitle");
         weaponsTable.add(title).padBottom(5f).row();
 
-        Ship ship = game.getGameState().getCurrentShip();
-        for (Weapon weapon : ship.getWeapons()) {
-            Table weaponRow = createWeaponRow(weapon, ship);
-            weaponsTable.add(weaponRow).fillX().padBottom(3f).row();
+        for (int i = 0; i < snapshot.getWeaponCount(); i++) {
+            WeaponRow weaponRow = createWeaponRow(snapshot.getWeapon(i), ship);
+            weaponRows.add(weaponRow);
+            weaponsTable.add(weaponRow.row).fillX().padBottom(3f).row();
         }
 
         parent.add(weaponsTable).fillX();
     }
 
-    private Table createWeaponRow(Weapon weapon, Ship ship) {
+    /**
+     * Build a weapon row; charge, selection and autofire are filled in by updateWeaponRow.
+     */
+    private WeaponRow createWeaponRow(Weapon weapon, Ship ship) {
         Table row = new Table();
         row.setBackground(game.getDrawable("default-round"));
         row.pad(5f);
 
-        if (weapon.isSelected()) {
-            row.setColor(Color.YELLOW);
-        }
-
         // Weapon icon
-        Texture weaponIcon = PixelArtGenerator.generateWeaponIcon();
-        Image weaponImage = new Image(new TextureRegion(weaponIcon));
+        Image weaponImage = retainedImage(PixelArtGenerator.generateWeaponIcon(), bottomPanelSprites);
         weaponImage.setSize(24f, 24f);
         row.add(weaponImage).size(24f, 24f).padRight(5f);
 
@@ -813,12 +945,11 @@ public class ShipScreenNew extends GameScreen {
 
         // Charge bar
         ProgressBar chargeBar = new ProgressBar(0, weapon.getMaxCharge(), 1, false, game.getSkin());
-        chargeBar.setValue(weapon.getCurrentCharge());
         chargeBar.setWidth(150f);
         row.add(chargeBar).padLeft(10f);
 
         // Charge text
-        Label chargeLabel = new Label(weapon.getCurrentCharge() + "/" + weapon.getMaxCharge(), game.getSkin());
+        Label chargeLabel = new Label("", game.getSkin());
         chargeLabel.setFontScale(0.7f);
         row.add(chargeLabel).padLeft(5f);
 
@@ -828,45 +959,65 @@ public class ShipScreenNew extends GameScreen {
         row.add(powerLabel).padLeft(10f);
 
         // Select button
-        TextButton selectButton = new TextButton(weapon.isSelected() ? "SELECTED" : "SELECT", game.getSkin());
+        TextButton selectButton = new TextButton("SELECT", game.getSkin());
         selectButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                // Deselect all weapons
-                for (Weapon w : ship.getWeapons()) {
-                    w.setSelected(false);
-                }
-                weapon.setSelected(selectedWeapon == weapon ? false : true);
-                selectedWeapon = weapon.isSelected() ? weapon : null;
-                createBottomPanel(); // Refresh
+                boolean select = selectedWeapon != weapon;
+                selectedWeapon = select ? weapon : null;
+                // Weapons are simulation state; the row picks the change up through the weapon's version
+                game.getGameState().runOnSimulation(() -> {
+                    for (Weapon w : ship.getWeapons()) {
+                        w.setSelected(false);
+                    }
+                    weapon.setSelected(select);
+                });
+                refreshPanels();
             }
         });
         row.add(selectButton).padLeft(10f);
 
         // Autofire toggle
-        TextButton autoButton = new TextButton(weapon.isAutoFire() ? "AUTO ON" : "AUTO OFF", game.getSkin());
+        TextButton autoButton = new TextButton("AUTO OFF", game.getSkin());
         autoButton.addListener(new ClickListener() {
             @Override
             public void clicked(InputEvent event, float x, float y) {
-                weapon.setAutoFire(!weapon.isAutoFire());
-                createBottomPanel();
+                game.getGameState().runOnSimulation(() -> weapon.setAutoFire(!weapon.isAutoFire()));
+                refreshPanels();
             }
         });
         row.add(autoButton).padLeft(5f);
 
-        return row;
+        WeaponRow result = new WeaponRow(weapon, row, chargeBar, chargeLabel, selectButton, autoButton);
+        result.charge = -1;
+        result.buttons = -1;
+        return result;
+    }
+
+    private void updateWeaponRow(WeaponRow row, RenderSnapshot snapshot, int index) {
+        int charge = snapshot.getWeaponCharge(index);
+        if (charge != row.charge) {
+            row.charge = charge;
+            row.chargeBar.setValue(charge);
+            row.chargeLabel.setText(charge + "/" + row.weapon.getMaxCharge());
+        }
+        boolean selected = snapshot.isWeaponSelected(index);
+        boolean autoFire = snapshot.isWeaponAutoFire(index);
+        int buttons = (selected ? 1 : 0) | (autoFire ? 2 : 0);
+        if (buttons != row.buttons) {
+            row.buttons = buttons;
+            row.row.setColor(selected ? Color.YELLOW : Color.WHITE);
+            row.selectButton.setText(selected ? "SELECTED" : "SELECT");
+            row.autoButton.setText(autoFire ? "AUTO ON" : "AUTO OFF");
+        }
     }
 
-    private void createSystemsPowerSection(Table parent) {
+    private void createSystemsPowerSection(Table parent, Ship ship) {
         Table systemsTable = new Table();
         systemsTable.pad(5f);
 
         // Total energy display - show available power
-        Ship ship = game.getGameState().getCurrentShip();
-        int availablePower = ship.getAvailablePower();
-        int maxPower = ship.getMaxPower();
-        int usedPower = ship.getUsedPower();
-        Label totalEnergyLabel = new Label("Total Energy: " + availablePower + "/" + maxPower + " (Used: " + usedPower + ")", game.getSkin());
+        totalEnergyLabel = new Label("", game.getSkin());
         totalEnergyLabel.setFontScale(0.8f);
         systemsTable.add(totalEnergyLabel).colspan(10).padBottom(5f).row();
 
@@ -893,17 +1044,9 @@ public class ShipScreenNew extends GameScreen {
         // Vertical layout: indicator light, meter, icon
         panel.defaults().fillX().pad(2f);
 
-        // Get current power level (read fresh each time)
-        final int currentPowerLevel = room.getPowerLevel();
-
-        // Green indicator light at top (small square)
+        // Green indicator light at top (small square); coloured by updateSystemPowerPanel
         Table indicatorLight = new Table();
         indicatorLight.setBackground(game.getDrawable("default-round"));
-        if (currentPowerLevel > 0) {
-            indicatorLight.setColor(Color.GREEN);
-        } else {
-            indicatorLight.setColor(0.1f, 0.1f, 0.1f, 1f); // Dark when off
-        }
         panel.add(indicatorLight).size(8f, 8f).row();
 
         // Vertical power blocks (greyish-white blocks stacked)
@@ -911,23 +1054,20 @@ public class ShipScreenNew extends GameScreen {
         powerBlocks.defaults().size(16f, 5f).pad(1f);
         // Show up to 10 blocks
         int maxBlocks = 10;
+        Table[] blocks = new Table[maxBlocks];
         for (int i = maxBlocks - 1; i >= 0; i--) {
             Table block = new Table();
             block.setBackground(game.getDrawable("default-round"));
-            if (i < currentPowerLevel) {
-                // Powered block - greyish white
-                block.setColor(0.9f, 0.9f, 0.9f, 1f);
-            } else {
-                // Unpowered block - dark grey
-                block.setColor(0.15f, 0.15f, 0.15f, 1f);
-            }
+            blocks[i] = block;
             powerBlocks.add(block).row();
         }
         panel.add(powerBlocks).size(18f, 80f).row();
+        SystemPanel systemPanel = new SystemPanel(room, indicatorLight, blocks);
+        systemPanel.power = -1; // Filled in by updateBottomPanel
+        systemPanels.add(systemPanel);
 
         // System icon at bottom
-        Texture iconTexture = PixelArtGenerator.generateSystemIcon(room.getType());
-        Image iconImage = new Image(new TextureRegion(iconTexture));
+        Image iconImage = retainedImage(PixelArtGenerator.generateSystemIcon(room.getType()), bottomPanelSprites);
         iconImage.setColor(Color.WHITE);
         panel.add(iconImage).size(20f, 20f).row();
 
@@ -938,21 +1078,19 @@ public class ShipScreenNew extends GameScreen {
             public boolean touchDown(InputEvent event, float x, float y, int pointer, int button) {
                 if (button == Input.Buttons.LEFT) {
                     // Left click: add power (if available) - no max limit check
-                    if (ship.getAvailablePower() > 0) {
-                        ship.addPowerToRoom(roomRef);
-                        createBottomPanel();
-                        updateShipGrid();
-                        updateTopBar();
-                    }
+                    game.getGameState().runOnSimulation(() -> {
+                        if (ship.getAvailablePower() > 0) {
+                            ship.addPowerToRoom(roomRef);
+                        }
+                    });
                     return true;
                 } else if (button == Input.Buttons.RIGHT) {
                     // Right click: remove power
-                    if (roomRef.getPowerLevel() > 0) {
-                        ship.removePowerFromRoom(roomRef);
-                        createBottomPanel();
-                        updateShipGrid();
-                        updateTopBar();
-                    }
+                    game.getGameState().runOnSimulation(() -> {
+                        if (roomRef.getPowerLevel() > 0) {
+                            ship.removePowerFromRoom(roomRef);
+                        }
+                    });
                     return true;
                 }
                 return false;
@@ -974,6 +1112,24 @@ public class ShipScreenNew extends GameScreen {
         return panel;
     }
 
+    private void updateSystemPowerPanel(SystemPanel panel) {
+        int currentPowerLevel = panel.power;
+        if (currentPowerLevel > 0) {
+            panel.indicatorLight.setColor(Color.GREEN);
+        } else {
+            panel.indicatorLight.setColor(0.1f, 0.1f, 0.1f, 1f); // Dark when off
+        }
+        for (int i = 0; i < panel.blocks.length; i++) {
+            if (i < currentPowerLevel) {
+                // Powered block - greyish white
+                panel.blocks[i].setColor(0.9f, 0.9f, 0.9f, 1f);
+            } else {
+                // Unpowered block - dark grey
+                panel.blocks[i].setColor(0.15f, 0.15f, 0.15f, 1f);
+            }
+        }
+    }
+
     private Table tooltipTable;
 
     private void showSystemTooltip(Room room, float x, float y) {
@@ -982,12 +1138,14 @@ public class ShipScreenNew extends GameScreen {
         }
 
         String description = getSystemDescription(room.getType());
+        RenderSnapshot snapshot = snapshot();
+        int power = snapshot != null ? snapshot.getRoomPower(room) : 0;
         tooltipTable = new Table();
         tooltipTable.setBackground(game.getDrawable("default-round"));
         tooltipTable.setColor(0.2f, 0.2f, 0.2f, 0.9f);
         tooltipTable.pad(5f);
 
-        Label tooltipLabel = new Label(room.getType().getDisplayName() + "\n" + description + "\nPower: " + room.getPowerLevel() + "/" + room.getMaxPower(), game.getSkin());
+        Label tooltipLabel = new Label(room.getType().getDisplayName() + "\n" + description + "\nPower: " + power + "/" + room.getMaxPower(), game.getSkin());
         tooltipLabel.setFontScale(0.7f);
         tooltipLabel.setWrap(true);
         tooltipTable.add(tooltipLabel).width(150f);
@@ -1027,191 +1185,46 @@ public class ShipScreenNew extends GameScreen {
         }
     }
 
-    private void updateTopBar() {
-        Ship ship = game.getGameState().getCurrentShip();
-        hullBar.setValue(ship.getCurrentHull());
-        hullLabel.setText(ship.getCurrentHull() + "/" + ship.getMaxHull());
-        shieldBar.setValue(ship.getShields());
-        shieldLabel.setText(ship.getShields() + "/" + ship.getMaxShields());
-        scrapLabel.setText("Scrap: " + ship.getScrap());
-        fuelLabel.setText("Fuel: " + ship.getFuel());
-        powerLabel.setText("Energy: " + ship.getAvailablePower() + "/" + ship.getMaxPower() + " (Used: " + ship.getUsedPower() + ")");
-
-        // Update debug timer
-        if (timerLabel != null) {
-            timerLabel.setText(String.format("Time: %.2fs", gameTime));
-        }
-    }
-
-    private void updateOxygenSystem(float delta) {
-        Ship ship = game.getGameState().getCurrentShip();
-
-        // Find oxygen room
-        Room oxygenRoom = ship.getRooms().stream()
-                .filter(r -> r.getType() == RoomType.OXYGEN)
-                .findFirst()
-                .orElse(null);
-
-        if (oxygenRoom == null) return;
-
-        // If oxygen system is powered, recover oxygen in all tiles where oxygen is low
-        if (oxygenRoom.getPowerLevel() > 0) {
-            float fillRate = 0.8f * delta; // Fill rate per second (0.8 = 80% per second per power level)
-
-            for (Room room : ship.getRooms()) {
-                if (room.getType() == RoomType.EMPTY) continue;
-
-                for (int tileX = 0; tileX < 2; tileX++) {
-                    for (int tileY = 0; tileY < 2; tileY++) {
-                        float currentOxygen = room.getTileOxygen(tileX, tileY);
-                        // Only fill if oxygen is low (< 1.0)
-                        if (currentOxygen < 1.0f) {
-                            float newOxygen = Math.min(1.0f, currentOxygen + fillRate * oxygenRoom.getPowerLevel());
-                            room.setTileOxygen(tileX, tileY, newOxygen);
-                        }
-                    }
-                }
-            }
-        } else {
-            // If oxygen system is not powered, slowly drain oxygen
-            float drainRate = 0.1f * delta; // Drain rate per second (0.1 = 10% per second)
-
-            for (Room room : ship.getRooms()) {
-                if (room.getType() == RoomType.EMPTY) continue;
-
-                for (int tileX = 0; tileX < 2; tileX++) {
-                    for (int tileY = 0; tileY < 2; tileY++) {
-                        float currentOxygen = room.getTileOxygen(tileX, tileY);
-                        if (currentOxygen > 0.0f) {
-                            float newOxygen = Math.max(0.0f, currentOxygen - drainRate);
-                            room.setTileOxygen(tileX, tileY, newOxygen);
-                        }
-                    }
-                }
-            }
-        }
-
-        // Update ship grid to show oxygen changes
-        updateShipGrid();
-    }
-
-    private void updateRepairSystems(float delta) {
+    /**
+     * Bring the top bar up to date: ship status when its version changed, the timer when the
+     * simulation ticked.
+     */
+    private void updateTopBar(RenderSnapshot snapshot) {
         Ship ship = game.getGameState().getCurrentShip();
-
-        // Repair systems based on crew in each room
-        for (Room room : ship.getRooms()) {
-            if (room.getType() == RoomType.EMPTY) continue;
-            
-            // Check if room needs repair (health < maxHealth)
-            if (room.getHealth() < room.getMaxHealth()) {
-                // Calculate total repair rate from all crew in this room
-                float totalRepairRate = 0.0f;
-                boolean hasRepairingCrew = false;
-                List<Crew> repairingCrew = new ArrayList<>();
-                
-                for (int tileX = 0; tileX < 2; tileX++) {
-                    for (int tileY = 0; tileY < 2; tileY++) {
-                        Crew crew = room.getCrewAtTile(tileX, tileY);
-                        if (crew != null && !crew.isMoving()) {
-                            // Get repair stat (Engineering skill level)
-                            int engineeringLevel = crew.getSkillLevel(Skill.ENGINEERING);
-                            int engineeringXP = crew.getSkillXP(Skill.ENGINEERING);
-                            
-                            // Base repair rate: 20% per second for level 1, 10% for level 0
-                            // A trained Engineer (level 1 = 100 XP) repairs 0% to 100% in 5 seconds = 20% per second
-                            // Level 0 (10 XP) still repairs but slower: 10% per second = 10 seconds
-                            // Even with 0 XP, allow basic repair at 5% per second
-                            float repairRate = 0.05f; // Base repair rate for anyone
-                            if (engineeringXP > 0) {
-                                repairRate = 0.10f + (0.10f * engineeringLevel);
-                            }
-                            
-                            totalRepairRate += repairRate;
-                            hasRepairingCrew = true;
-                            repairingCrew.add(crew);
-                            
-                            // Log when crew starts repairing
-                            if (room.getHealth() < room.getMaxHealth()) {
-                                Gdx.app.log("Repair", String.format("%s in %s: Engineering Level=%d (XP=%d), Repair Rate=%.2f%%/s", 
-                                    crew.getName(), room.getType().getDisplayName(), engineeringLevel, engineeringXP, repairRate * 100f));
-                            }
-                        }
-                    }
-                }
-                
-                // Apply repair if crew is present
-                if (hasRepairingCrew && totalRepairRate > 0.0f) {
-                    int oldHealth = room.getHealth();
-                    float oldHealthPercent = (float)oldHealth / (float)room.getMaxHealth() * 100f;
-                    
-                    // Repair rate is percentage per second
-                    // Calculate repair amount in health points per second
-                    float repairAmountPerSecond = (totalRepairRate * room.getMaxHealth());
-                    float repairAmount = repairAmountPerSecond * delta;
-                    
-                    // Use fractional health accumulation to handle small increments
-                    boolean healthIncreased = room.addFractionalHealth(repairAmount);
-                    int newHealth = room.getHealth();
-                    float newHealthPercent = (float)newHealth / (float)room.getMaxHealth() * 100f;
-                    
-                    // Log repair activity with percentage (log every frame when repairing, or when health increases)
-                    if (healthIncreased || (oldHealth < room.getMaxHealth() && Math.random() < 0.1f)) {
-                        Gdx.app.log("Repair", String.format("%s: %s repairing %s - Health: %d/%d (%.1f%%) -> %d/%d (%.1f%%) [Rate: %.2f HP/s, Delta: %.3f, Amount: %.4f]", 
-                            room.getType().getDisplayName(),
-                            repairingCrew.stream().map(Crew::getName).reduce((a, b) -> a + ", " + b).orElse("Unknown"),
-                            room.getType().getDisplayName(),
-                            oldHealth, room.getMaxHealth(), oldHealthPercent,
-                            newHealth, room.getMaxHealth(), newHealthPercent,
-                            repairAmountPerSecond, delta, repairAmount));
-                    }
-                }
-            }
+        if (ship != topBarShip || snapshot.getStatusVersion() != topBarVersion) {
+            topBarShip = ship;
+            topBarVersion = snapshot.getStatusVersion();
+            hullBar.setRange(0, snapshot.getMaxHull());
+            hullBar.setValue(snapshot.getHull());
+            hullLabel.setText(snapshot.getHull() + "/" + snapshot.getMaxHull());
+            shieldBar.setRange(0, snapshot.getMaxShields());
+            shieldBar.setValue(snapshot.getShields());
+            shieldLabel.setText(snapshot.getShields() + "/" + snapshot.getMaxShields());
+            scrapLabel.setText("Scrap: " + snapshot.getScrap());
+            fuelLabel.setText("Fuel: " + snapshot.getFuel());
+            powerLabel.setText("Energy: " + snapshot.getAvailablePower() + "/" + snapshot.getMaxPower() + " (Used: " + snapshot.getUsedPower() + ")");
         }
-        
-        // Update ship grid to show repair progress
-        updateShipGrid();
-    }
 
-    private void updateWeaponCharges(float delta) {
-        Ship ship = game.getGameState().getCurrentShip();
-        for (Weapon weapon : ship.getWeapons()) {
-            // Check if weapon has power
-            Room weaponRoom = ship.getRooms().stream()
-                    .filter(r -> r.getType() == RoomType.WEAPONS)
-                    .findFirst()
-                    .orElse(null);
-
-            if (weaponRoom != null && weaponRoom.getPowerLevel() >= weapon.getPowerRequired()) {
-                weapon.charge(1); // Charge 1 per second
+        // Update debug timer, formatted as "Time: 1.23s" without allocating
+        long tick = game.getGameState().getSimulation().getTickCount();
+        if (timerLabel != null && tick != timerTick) {
+            timerTick = tick;
+            long centis = Math.round(game.getGameState().getSimulation().getTime() * 100.0);
+            timerText.setLength(0);
+            timerText.append("Time: ").append(centis / 100).append('.');
+            if (centis % 100 < 10) {
+                timerText.append('0');
             }
+            timerText.append(centis % 100).append('s');
+            timerLabel.setText(timerText);
         }
     }
 
     private void fireWeaponAtTarget(Weapon weapon, Room targetRoom, Ship enemyShip) {
-        CombatState combatState = game.getGameState().getCombatState();
-
-        int damage = weapon.getDamage();
-
-        // Check shields
-        if (combatState.getEnemyShields() > 0) {
-            int shieldDamage = Math.min(damage, combatState.getEnemyShields());
-            combatState.setEnemyShields(combatState.getEnemyShields() - shieldDamage);
-            damage -= shieldDamage;
-        }
-
-        // Apply hull damage
-        if (damage > 0) {
-            enemyShip.setCurrentHull(enemyShip.getCurrentHull() - damage);
-            targetRoom.setHealth(targetRoom.getHealth() - damage);
-
-            // Chance for fire/breach
-            if (Math.random() < 0.2) {
-                targetRoom.setFire(true);
-            }
-        }
-
-        weapon.fire();
-        updateEnemyShipGrid();
+        // Damage and its events are handled by the simulation; render picks up the result
+        Ship ship = game.getGameState().getCurrentShip();
+        game.getGameState().runOnSimulation(() ->
+                game.getGameState().getSimulation().fireWeaponAt(ship, weapon, enemyShip, targetRoom));
     }
 
 
@@ -1,17 +1,26 @@
 package io.github.n3wang.voidcodex.screens;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.InputListener;
+import com.badlogic.gdx.utils.viewport.Viewport;
 import io.github.n3wang.voidcodex.model.Crew;
 import io.github.n3wang.voidcodex.model.Room;
 import io.github.n3wang.voidcodex.model.RoomType;
 import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.TileStateStore;
+import io.github.n3wang.voidcodex.sim.RenderSnapshot;
+import io.github.n3wang.voidcodex.sim.SnapshotExchange;
 import io.github.n3wang.voidcodex.util.PixelArtGenerator;
 
 import java.util.List;
@@ -19,6 +28,14 @@ import java.util.List;
 /**
  * Tile-based rendering actor for ship grid.
  * Each room is 2x2 tiles, and the ship grid is rendered as a tile map.
+ * Oxygen, fire, breaches, room health and crew are drawn from the latest render snapshot
+ * ({@link SnapshotExchange}), so drawing never reads state the simulation may be writing;
+ * only the layout (room types) comes from the ship itself.
+ * Crew are drawn between where they were on the last two ticks, so they move smoothly at
+ * any frame rate even when the simulation ticks much slower.
+ * What only changes with the layout or room health (backgrounds, outlines, system icons) is
+ * drawn into frame buffers when it changes; each frame draws those plus the oxygen tint,
+ * repairs, hazards and crew. {@link #disposeLayers} frees the buffers.
  */
 public class ShipTileMapActor extends Actor {
     private Ship ship;
@@ -26,6 +43,15 @@ public class ShipTileMapActor extends Actor {
     private float roomTileSize = 28f; // Size of tiles within a room (2x2)
     private List<Crew> selectedCrew;
     private TileClickHandler clickHandler;
+    private SnapshotExchange snapshots; // Render snapshots of the ship
+    private FrameBuffer baseLayer; // Empty space, room backgrounds and outlines
+    private FrameBuffer overlayLayer; // Tile outlines and system icons, drawn over the oxygen tint
+    private RoomType[] layerRoomTypes = new RoomType[0]; // Per grid cell, as the layers were drawn
+    private int[] layerRoomHealth = new int[0];
+    private final Matrix4 savedProjection = new Matrix4(); // The batch's, while drawing the layers
+    private final Matrix4 savedTransform = new Matrix4();
+    private final Matrix4 layerProjection = new Matrix4(); // Actor-sized, set on each re-render
+    private final Matrix4 layerTransform = new Matrix4(); // Always identity
     
     public interface TileClickHandler {
         void onTileClick(int roomX, int roomY, int tileX, int tileY, int button);
@@ -115,7 +141,7 @@ public class ShipTileMapActor extends Actor {
         }
         
         // If clicked within a valid tile, notify handler
-        if (tileX >= 0 && tileX < 2 && tileY >= 0 && tileY < 2) {
+        if (tileX >= 0 && tileX < Room.TILES && tileY >= 0 && tileY < Room.TILES) {
             clickHandler.onTileClick(roomX, roomY, tileX, tileY, button);
         } else {
             // Clicked on room but not on a specific tile - still notify handler
@@ -125,39 +151,190 @@ public class ShipTileMapActor extends Actor {
     
     @Override
     public void draw(Batch batch, float parentAlpha) {
-        if (ship == null) return;
+        if (ship == null || snapshots == null) return;
+        RenderSnapshot snapshot = snapshots.acquire();
+        if (snapshot == null) return; // Nothing published yet
         
         Color originalColor = batch.getColor();
         Color actorColor = getColor();
         float finalAlpha = actorColor.a * parentAlpha;
         batch.setColor(actorColor.r, actorColor.g, actorColor.b, finalAlpha);
+
+        // Room backgrounds, outlines and system icons change only with the layout and room
+        // health, so they are drawn from two cached layers; oxygen goes between the two
+        if (layersStale(snapshot)) {
+            renderLayers(batch, snapshot);
+        }
+        drawLayer(batch, baseLayer, finalAlpha);
         
-        // Render each room
+        // Tint each room's tiles by oxygen, then repairs and hazards over the overlay
         // Note: In Scene2D, Y=0 is at bottom, so we render from bottom to top
         for (int roomY = 0; roomY < ship.getGridHeight(); roomY++) {
             for (int roomX = 0; roomX < ship.getGridWidth(); roomX++) {
                 Room room = ship.getRoom(roomX, roomY);
-                float roomScreenX = getX() + (roomX * tileSize);
-                // Y=0 is at bottom in Scene2D, so render normally
-                float roomScreenY = getY() + (roomY * tileSize);
-                
                 if (room != null && room.getType() != RoomType.EMPTY) {
-                    drawRoom(batch, room, roomScreenX, roomScreenY, finalAlpha);
-                } else {
-                    // Draw empty space
-                    drawEmptySpace(batch, roomScreenX, roomScreenY, finalAlpha);
+                    drawOxygen(batch, snapshot, room, getX() + (roomX * tileSize), getY() + (roomY * tileSize), finalAlpha);
+                }
+            }
+        }
+        drawLayer(batch, overlayLayer, finalAlpha);
+        for (int roomY = 0; roomY < ship.getGridHeight(); roomY++) {
+            for (int roomX = 0; roomX < ship.getGridWidth(); roomX++) {
+                Room room = ship.getRoom(roomX, roomY);
+                if (room != null && room.getType() != RoomType.EMPTY) {
+                    drawRoomEffects(batch, snapshot, room, getX() + (roomX * tileSize), getY() + (roomY * tileSize), finalAlpha);
                 }
             }
         }
+
+        // Crew go over every room, so nobody walking between rooms is covered by the next one
+        float tickAlpha = snapshot.getAlpha(System.nanoTime());
+        for (int i = 0; i < snapshot.getCrewCount(); i++) {
+            if (!snapshot.isCrewPlaced(i)) continue;
+            // Position on the previous tick and on this one, each part way along its step
+            float fromProgress = snapshot.getPreviousCrewProgress(i);
+            float fromX = lerp(tileScreenX(snapshot.getPreviousCrewTile(i)), tileScreenX(snapshot.getPreviousCrewNextTile(i)), fromProgress);
+            float fromY = lerp(tileScreenY(snapshot.getPreviousCrewTile(i)), tileScreenY(snapshot.getPreviousCrewNextTile(i)), fromProgress);
+            float toProgress = snapshot.getCrewProgress(i);
+            float toX = lerp(tileScreenX(snapshot.getCrewTile(i)), tileScreenX(snapshot.getCrewNextTile(i)), toProgress);
+            float toY = lerp(tileScreenY(snapshot.getCrewTile(i)), tileScreenY(snapshot.getCrewNextTile(i)), toProgress);
+            drawCrew(batch, snapshot, i, lerp(fromX, toX, tickAlpha), lerp(fromY, toY, tickAlpha), roomTileSize, finalAlpha);
+        }
         
         batch.setColor(originalColor);
     }
+
+    /**
+     * Whether the cached layers no longer match the ship: a room was built or changed, a
+     * room's health changed, or the map was resized.
+     */
+    private boolean layersStale(RenderSnapshot snapshot) {
+        int width = ship.getGridWidth();
+        int height = ship.getGridHeight();
+        if (baseLayer == null || baseLayer.getWidth() != layerPixels(getWidth()) || baseLayer.getHeight() != layerPixels(getHeight())
+                || layerRoomTypes.length != width * height) {
+            return true;
+        }
+        for (int roomY = 0; roomY < height; roomY++) {
+            for (int roomX = 0; roomX < width; roomX++) {
+                int cell = roomY * width + roomX;
+                Room room = ship.getRoom(roomX, roomY);
+                if (layerRoomTypes[cell] != (room != null ? room.getType() : null)
+                        || layerRoomHealth[cell] != snapshot.getRoomHealth(roomX, roomY)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draw the static parts of every room into the two layers, at full opacity and in local
+     * coordinates. Ends and restarts the batch.
+     */
+    private void renderLayers(Batch batch, RenderSnapshot snapshot) {
+        int width = ship.getGridWidth();
+        int height = ship.getGridHeight();
+        int layerWidth = layerPixels(getWidth());
+        int layerHeight = layerPixels(getHeight());
+        if (baseLayer == null || baseLayer.getWidth() != layerWidth || baseLayer.getHeight() != layerHeight) {
+            disposeLayers();
+            baseLayer = new FrameBuffer(Pixmap.Format.RGBA8888, layerWidth, layerHeight, false);
+            overlayLayer = new FrameBuffer(Pixmap.Format.RGBA8888, layerWidth, layerHeight, false);
+            baseLayer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+            overlayLayer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        }
+        if (layerRoomTypes.length != width * height) {
+            layerRoomTypes = new RoomType[width * height];
+            layerRoomHealth = new int[width * height];
+        }
+
+        batch.end();
+        savedProjection.set(batch.getProjectionMatrix());
+        savedTransform.set(batch.getTransformMatrix());
+        int srcColor = batch.getBlendSrcFunc();
+        int dstColor = batch.getBlendDstFunc();
+        int srcAlpha = batch.getBlendSrcFuncAlpha();
+        int dstAlpha = batch.getBlendDstFuncAlpha();
+        // Local coordinates, at the resolution the map is shown at
+        batch.setProjectionMatrix(layerProjection.setToOrtho2D(0, 0, getWidth(), getHeight()));
+        batch.setTransformMatrix(layerTransform);
+        // Alpha adds up the way it does on screen, leaving colour premultiplied (see drawLayer)
+        batch.setBlendFunctionSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        for (int layer = 0; layer < 2; layer++) {
+            FrameBuffer target = layer == 0 ? baseLayer : overlayLayer;
+            target.begin();
+            Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+            batch.begin();
+            for (int roomY = 0; roomY < height; roomY++) {
+                for (int roomX = 0; roomX < width; roomX++) {
+                    Room room = ship.getRoom(roomX, roomY);
+                    float x = roomX * tileSize;
+                    float y = roomY * tileSize;
+                    boolean isRoom = room != null && room.getType() != RoomType.EMPTY;
+                    if (layer == 0 && isRoom) {
+                        drawRoomBase(batch, room, x, y, 1f);
+                    } else if (layer == 0) {
+                        drawEmptySpace(batch, x, y, 1f);
+                    } else if (isRoom) {
+                        drawRoomOverlay(batch, snapshot, room, x, y, 1f);
+                    }
+                    int cell = roomY * width + roomX;
+                    layerRoomTypes[cell] = room != null ? room.getType() : null;
+                    layerRoomHealth[cell] = snapshot.getRoomHealth(roomX, roomY);
+                }
+            }
+            batch.end();
+            Viewport viewport = getStage().getViewport();
+            target.end(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+        }
+
+        batch.setBlendFunctionSeparate(srcColor, dstColor, srcAlpha, dstAlpha);
+        batch.setProjectionMatrix(savedProjection);
+        batch.setTransformMatrix(savedTransform);
+        batch.begin();
+    }
+
+    private void drawLayer(Batch batch, FrameBuffer layer, float alpha) {
+        int srcColor = batch.getBlendSrcFunc();
+        int dstColor = batch.getBlendDstFunc();
+        int srcAlpha = batch.getBlendSrcFuncAlpha();
+        int dstAlpha = batch.getBlendDstFuncAlpha();
+        batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA); // Premultiplied
+        batch.setColor(alpha, alpha, alpha, alpha);
+        // Frame buffer textures are upside down
+        Texture texture = layer.getColorBufferTexture();
+        batch.draw(texture, getX(), getY(), getWidth(), getHeight(),
+                0, 0, texture.getWidth(), texture.getHeight(), false, true);
+        batch.setBlendFunctionSeparate(srcColor, dstColor, srcAlpha, dstAlpha);
+    }
+
+    /**
+     * Screen pixels across a length of the map.
+     */
+    private int layerPixels(float length) {
+        Viewport viewport = getStage().getViewport();
+        return Math.max(1, (int) Math.ceil(length * viewport.getScreenWidth() / viewport.getWorldWidth()));
+    }
+
+    /**
+     * Free the cached layers; they are made again when next drawn.
+     */
+    public void disposeLayers() {
+        if (baseLayer != null) {
+            baseLayer.dispose();
+            overlayLayer.dispose();
+            baseLayer = null;
+            overlayLayer = null;
+        }
+    }
     
-    private void drawRoom(Batch batch, Room room, float x, float y, float alpha) {
+    private void drawRoomBase(Batch batch, Room room, float x, float y, float alpha) {
         // Draw room background FIRST (so tiles appear on top)
         // Background color now only reflects oxygen level, not health
-        Texture roomTexture = PixelArtGenerator.generateRoomSprite(room.getType());
-        TextureRegion roomRegion = new TextureRegion(roomTexture);
+        TextureRegion roomRegion = PixelArtGenerator.generateRoomSprite(room.getType());
         
         // Room background (full tile size) - neutral color, oxygen affects tiles only
         batch.setColor(Color.WHITE.r, Color.WHITE.g, Color.WHITE.b, alpha * 0.3f);
@@ -166,22 +343,25 @@ public class ShipTileMapActor extends Actor {
         // Draw room border/outline
         batch.setColor(0.4f, 0.4f, 0.4f, alpha * 0.5f);
         drawRectOutline(batch, x, y, tileSize, tileSize);
-        
+    }
+
+    private void drawOxygen(Batch batch, RenderSnapshot snapshot, Room room, float x, float y, float alpha) {
         // Draw 2x2 tile grid within room
         float roomPadding = (tileSize - (roomTileSize * 2)) / 2;
         float tileStartX = x + roomPadding;
         float tileStartY = y + roomPadding;
         
         // Render tiles (tileY 0 is bottom, 1 is top in room coords, matching Scene2D Y=0 at bottom)
-        for (int tileY = 0; tileY < 2; tileY++) {
-            for (int tileX = 0; tileX < 2; tileX++) {
+        for (int tileY = 0; tileY < Room.TILES; tileY++) {
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
                 float tileXPos = tileStartX + (tileX * roomTileSize);
                 // Y=0 is at bottom, so render normally
                 float tileYPos = tileStartY + (tileY * roomTileSize);
                 
                 // Draw tile background based ONLY on oxygen level (no fixed colors)
-                float oxygenLevel = room.getTileOxygen(tileX, tileY);
-                Texture tileBgTexture = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
+                int tile = room.getTileId(tileX, tileY);
+                float oxygenLevel = snapshot.getOxygen(tile);
+                TextureRegion tileBgRegion = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
                 
                 // Color based on oxygen: white/grey when full (1.0), blue tint when low, dark/black when no O2
                 if (oxygenLevel > 0.7f) {
@@ -197,23 +377,27 @@ public class ShipTileMapActor extends Actor {
                     float darkness = oxygenLevel / 0.3f; // 0.0 to 1.0
                     batch.setColor(0.1f * darkness, 0.1f * darkness, 0.15f * darkness, alpha * 0.5f);
                 }
-                batch.draw(tileBgTexture, tileXPos, tileYPos, roomTileSize, roomTileSize);
-                
-                // Draw tile border - make it subtle
-                batch.setColor(0.4f, 0.4f, 0.4f, alpha * 0.5f);
-                drawRectOutline(batch, tileXPos, tileYPos, roomTileSize, roomTileSize);
-                
-                // Draw crew if present
-                Crew crewAtTile = room.getCrewAtTile(tileX, tileY);
-                if (crewAtTile != null) {
-                    drawCrew(batch, crewAtTile, tileXPos, tileYPos, roomTileSize, alpha);
-                }
+                batch.draw(tileBgRegion, tileXPos, tileYPos, roomTileSize, roomTileSize);
+            }
+        }
+    }
+
+    private void drawRoomOverlay(Batch batch, RenderSnapshot snapshot, Room room, float x, float y, float alpha) {
+        // Tile borders - make them subtle
+        float roomPadding = (tileSize - (roomTileSize * 2)) / 2;
+        batch.setColor(0.4f, 0.4f, 0.4f, alpha * 0.5f);
+        for (int tileY = 0; tileY < Room.TILES; tileY++) {
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                drawRectOutline(batch, x + roomPadding + (tileX * roomTileSize), y + roomPadding + (tileY * roomTileSize),
+                        roomTileSize, roomTileSize);
             }
         }
         
         // Draw system icon with health-based color
-        float healthPercent = (float)room.getHealth() / (float)room.getMaxHealth();
-        Texture systemIcon = PixelArtGenerator.generateSystemIcon(room.getType());
+        int health = snapshot.getRoomHealth(room.getX(), room.getY());
+        int maxHealth = snapshot.getRoomMaxHealth(room.getX(), room.getY());
+        float healthPercent = (float)health / (float)maxHealth;
+        TextureRegion systemIcon = PixelArtGenerator.generateSystemIcon(room.getType());
         
         // Log Sensors room specifically for debugging
         // if (room.getType() == RoomType.SENSORS && Math.random() < 0.1f) {
@@ -254,19 +438,27 @@ public class ShipTileMapActor extends Actor {
         
         batch.setColor(iconColor.r, iconColor.g, iconColor.b, alpha);
         batch.draw(systemIcon, iconX, iconY, iconSize, iconSize);
-        
+    }
+
+    private void drawRoomEffects(Batch batch, RenderSnapshot snapshot, Room room, float x, float y, float alpha) {
+        float iconSize = 20f;
+        float iconX = x + (tileSize - iconSize) / 2;
+        float iconY = y + (tileSize - iconSize) / 2;
+
         // Draw repair animation if crew is repairing
         boolean isRepairing = false;
-        for (int tileX = 0; tileX < 2; tileX++) {
-            for (int tileY = 0; tileY < 2; tileY++) {
-                Crew crew = room.getCrewAtTile(tileX, tileY);
-                if (crew != null && !crew.isMoving() && room.getHealth() < room.getMaxHealth()) {
-                    // Any crew member can repair (Engineering skill just makes it faster)
-                    isRepairing = true;
-                    break;
+        if (snapshot.getRoomHealth(room.getX(), room.getY()) < snapshot.getRoomMaxHealth(room.getX(), room.getY())) {
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                for (int tileY = 0; tileY < Room.TILES; tileY++) {
+                    int crew = snapshot.getCrewAt(room.getTileId(tileX, tileY));
+                    if (crew != RenderSnapshot.NO_CREW && !snapshot.isCrewMoving(crew)) {
+                        // Any crew member can repair (Engineering skill just makes it faster)
+                        isRepairing = true;
+                        break;
+                    }
                 }
+                if (isRepairing) break;
             }
-            if (isRepairing) break;
         }
         
         if (isRepairing) {
@@ -282,34 +474,45 @@ public class ShipTileMapActor extends Actor {
                 float angle = (float)(time * 2f + i * Math.PI / 2);
                 float sparkX = iconX + iconSize / 2 + (float)Math.cos(angle) * 8f - sparkSize / 2;
                 float sparkY = iconY + iconSize / 2 + (float)Math.sin(angle) * 8f - sparkSize / 2;
-                Texture sparkTexture = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
-                batch.draw(sparkTexture, sparkX, sparkY, sparkSize, sparkSize);
+                TextureRegion sparkRegion = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
+                batch.draw(sparkRegion, sparkX, sparkY, sparkSize, sparkSize);
             }
         }
         
         // Draw room hazards (fire, breach) as overlay
-        if (room.hasFire()) {
-            Texture fireTexture = PixelArtGenerator.generateFireSprite();
+        boolean fire = false;
+        boolean breach = false;
+        for (int tileY = 0; tileY < Room.TILES; tileY++) {
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                int tile = room.getTileId(tileX, tileY);
+                fire |= snapshot.getFire(tile) > 0.0f;
+                breach |= snapshot.hasFlag(tile, TileStateStore.FLAG_BREACH);
+            }
+        }
+        if (fire) {
+            TextureRegion fireRegion = PixelArtGenerator.generateFireSprite();
             batch.setColor(Color.WHITE.r, Color.WHITE.g, Color.WHITE.b, alpha);
-            batch.draw(fireTexture, x + tileSize - 20, y + tileSize - 20, 20, 20);
+            batch.draw(fireRegion, x + tileSize - 20, y + tileSize - 20, 20, 20);
         }
-        if (room.hasBreach()) {
-            Texture breachTexture = PixelArtGenerator.generateBreachSprite();
+        if (breach) {
+            TextureRegion breachRegion = PixelArtGenerator.generateBreachSprite();
             batch.setColor(Color.WHITE.r, Color.WHITE.g, Color.WHITE.b, alpha);
-            batch.draw(breachTexture, x + 5, y + tileSize - 20, 20, 20);
+            batch.draw(breachRegion, x + 5, y + tileSize - 20, 20, 20);
         }
     }
     
-    private void drawCrew(Batch batch, Crew crew, float x, float y, float size, float alpha) {
-        // Find crew index for sprite
-        int crewIndex = ship.getCrew().indexOf(crew);
-        Texture crewTexture = PixelArtGenerator.generateCrewSprite(crewIndex);
+    private void drawCrew(Batch batch, RenderSnapshot snapshot, int crewIndex, float x, float y, float size, float alpha) {
+        // Sprite by crew index
+        TextureRegion crewRegion = PixelArtGenerator.generateCrewSprite(crewIndex);
         
         // Check if crew is repairing (any crew in a damaged room can repair)
         boolean isRepairing = false;
-        if (!crew.isMoving()) {
-            Room crewRoom = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
-            if (crewRoom != null && crewRoom.getHealth() < crewRoom.getMaxHealth() && crewRoom.getType() != RoomType.EMPTY) {
+        if (!snapshot.isCrewMoving(crewIndex)) {
+            int roomX = Crew.unpackRoomX(snapshot.getCrewTile(crewIndex));
+            int roomY = Crew.unpackRoomY(snapshot.getCrewTile(crewIndex));
+            Room crewRoom = ship.getRoom(roomX, roomY);
+            if (crewRoom != null && snapshot.getRoomHealth(roomX, roomY) < snapshot.getRoomMaxHealth(roomX, roomY)
+                    && crewRoom.getType() != RoomType.EMPTY) {
                 // Any crew member can repair, but Engineering skill makes it faster
                 isRepairing = true;
             }
@@ -327,10 +530,10 @@ public class ShipTileMapActor extends Actor {
         }
         
         batch.setColor(crewColor.r, crewColor.g, crewColor.b, alpha);
-        batch.draw(crewTexture, x + 2, y + 2, size - 4, size - 4);
+        batch.draw(crewRegion, x + 2, y + 2, size - 4, size - 4);
         
         // Draw selection highlight - use semi-transparent yellow
-        if (selectedCrew != null && selectedCrew.contains(crew)) {
+        if (selectedCrew != null && selectedCrew.contains(snapshot.getCrew(crewIndex))) {
             // Use lower alpha (0.3) for highlight so crew is still visible
             batch.setColor(Color.YELLOW.r, Color.YELLOW.g, Color.YELLOW.b, alpha * 0.3f);
             drawRect(batch, x, y, size, size);
@@ -340,11 +543,28 @@ public class ShipTileMapActor extends Actor {
         }
     }
     
+    /**
+     * Screen x of the lower-left corner of a tile (packed as by {@link Crew#packTile}).
+     */
+    private float tileScreenX(int packed) {
+        float roomPadding = (tileSize - (roomTileSize * 2)) / 2;
+        return getX() + Crew.unpackRoomX(packed) * tileSize + roomPadding + Crew.unpackTileX(packed) * roomTileSize;
+    }
+
+    private float tileScreenY(int packed) {
+        float roomPadding = (tileSize - (roomTileSize * 2)) / 2;
+        return getY() + Crew.unpackRoomY(packed) * tileSize + roomPadding + Crew.unpackTileY(packed) * roomTileSize;
+    }
+
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
+    }
+    
     private void drawEmptySpace(Batch batch, float x, float y, float alpha) {
         // Draw empty/void space - use a visible gray color
         batch.setColor(0.3f, 0.3f, 0.3f, alpha);
-        Texture emptyTexture = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
-        batch.draw(emptyTexture, x, y, tileSize, tileSize);
+        TextureRegion emptyRegion = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
+        batch.draw(emptyRegion, x, y, tileSize, tileSize);
         
         // Draw border
         batch.setColor(0.2f, 0.2f, 0.2f, alpha);
@@ -353,22 +573,22 @@ public class ShipTileMapActor extends Actor {
     
     private void drawRect(Batch batch, float x, float y, float width, float height) {
         // Draw filled rectangle using a simple texture
-        Texture fillTexture = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
-        batch.draw(fillTexture, x, y, width, height);
+        TextureRegion fillRegion = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
+        batch.draw(fillRegion, x, y, width, height);
     }
     
     private void drawRectOutline(Batch batch, float x, float y, float width, float height) {
         // Draw rectangle outline using lines
         float lineWidth = 2f;
-        Texture lineTexture = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
+        TextureRegion lineRegion = PixelArtGenerator.generateRoomSprite(RoomType.EMPTY);
         // Top
-        batch.draw(lineTexture, x, y + height - lineWidth, width, lineWidth);
+        batch.draw(lineRegion, x, y + height - lineWidth, width, lineWidth);
         // Bottom
-        batch.draw(lineTexture, x, y, width, lineWidth);
+        batch.draw(lineRegion, x, y, width, lineWidth);
         // Left
-        batch.draw(lineTexture, x, y, lineWidth, height);
+        batch.draw(lineRegion, x, y, lineWidth, height);
         // Right
-        batch.draw(lineTexture, x + width - lineWidth, y, lineWidth, height);
+        batch.draw(lineRegion, x + width - lineWidth, y, lineWidth, height);
     }
     
     public void setShip(Ship ship) {
@@ -378,6 +598,17 @@ public class ShipTileMapActor extends Actor {
         }
     }
     
+    public Ship getShip() {
+        return ship;
+    }
+
+    /**
+     * Where to take the ship's render snapshots from; nothing is drawn until one is published.
+     */
+    public void setSnapshots(SnapshotExchange snapshots) {
+        this.snapshots = snapshots;
+    }
+    
     public void setSelectedCrew(List<Crew> selectedCrew) {
         this.selectedCrew = selectedCrew;
     }
@@ -0,0 +1,86 @@
+package io.github.n3wang.voidcodex.sim;
+
+/**
+ * Typed, single-threaded event bus of a {@link ShipSimulation}. The simulation publishes
+ * {@link GameEvent}s; UI, audio and telemetry subscribe per event type.
+ * Events published during a tick are delivered at the end of it, ship by ship in ship
+ * order, on the thread stepping the simulation; events from calls between ticks (e.g.
+ * firing a weapon) are delivered before the call returns.
+ * Each type has its own listener array, copied on (un)subscribe, so delivering an event
+ * is an array walk with no allocation and no lookup; listeners may (un)subscribe while an
+ * event is being delivered, taking effect from the next event.
+ */
+public class EventBus {
+    /**
+     * Receives events of one type. The event is pooled; see {@link GameEvent}.
+     */
+    public interface Listener<T extends GameEvent> {
+        void onEvent(T event);
+    }
+
+    private static final Listener<?>[] NONE = new Listener<?>[0];
+
+    private final Listener<?>[][] listeners = new Listener<?>[EventType.COUNT][];
+    private boolean dispatching;
+
+    public EventBus() {
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = NONE;
+        }
+    }
+
+    public <T extends GameEvent> void subscribe(EventType<T> type, Listener<? super T> listener) {
+        Listener<?>[] current = listeners[type.getId()];
+        Listener<?>[] grown = new Listener<?>[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = listener;
+        listeners[type.getId()] = grown;
+    }
+
+    public <T extends GameEvent> void unsubscribe(EventType<T> type, Listener<? super T> listener) {
+        Listener<?>[] current = listeners[type.getId()];
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                Listener<?>[] shrunk = current.length == 1 ? NONE : new Listener<?>[current.length - 1];
+                System.arraycopy(current, 0, shrunk, 0, i);
+                System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+                listeners[type.getId()] = shrunk;
+                return;
+            }
+        }
+    }
+
+    public boolean hasListeners(EventType<?> type) {
+        return listeners[type.getId()].length > 0;
+    }
+
+    /**
+     * Deliver a queue's events in the order they were posted, including any posted by the
+     * listeners themselves, then recycle them. A dispatch started from inside a listener
+     * returns at once and leaves its queue for the simulation's next delivery, which comes
+     * later in the same tick (or call).
+     */
+    void dispatch(EventQueue queue) {
+        if (dispatching) {
+            return;
+        }
+        dispatching = true;
+        try {
+            for (int i = 0; i < queue.size(); i++) {
+                GameEvent event = queue.get(i);
+                Listener<?>[] forType = listeners[event.getType().getId()];
+                for (int j = 0; j < forType.length; j++) {
+                    deliver(forType[j], event);
+                }
+            }
+        } finally {
+            queue.recycle();
+            dispatching = false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends GameEvent> void deliver(Listener<T> listener, GameEvent event) {
+        listener.onEvent((T) event);
+    }
+}
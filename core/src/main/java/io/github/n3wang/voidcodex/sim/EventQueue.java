@@ -0,0 +1,71 @@
+package io.github.n3wang.voidcodex.sim;
+
+/**
+ * Events published but not yet delivered, with a pool of spent events per type.
+ * One writer at a time: each ticked ship has its own queue, so ships publish from their
+ * fork/join tasks without locking, and the simulation drains the queues in ship order
+ * once the tick's barrier is reached. Once the pools and the pending array have grown to
+ * the busiest tick, publishing allocates nothing.
+ */
+final class EventQueue {
+    private GameEvent[] pending = new GameEvent[16];
+    private int size;
+    private final GameEvent[][] free = new GameEvent[EventType.COUNT][];
+    private final int[] freeCount = new int[EventType.COUNT];
+
+    EventQueue() {
+        for (int i = 0; i < free.length; i++) {
+            free[i] = new GameEvent[8];
+        }
+    }
+
+    /**
+     * Take an event of a type from the pool (or create one), to be filled in and {@link #post}ed.
+     */
+    <T extends GameEvent> T obtain(EventType<T> type) {
+        int id = type.getId();
+        if (freeCount[id] == 0) {
+            return type.create();
+        }
+        @SuppressWarnings("unchecked")
+        T event = (T) free[id][--freeCount[id]];
+        free[id][freeCount[id]] = null;
+        return event;
+    }
+
+    void post(GameEvent event) {
+        if (size == pending.length) {
+            GameEvent[] grown = new GameEvent[size * 2];
+            System.arraycopy(pending, 0, grown, 0, size);
+            pending = grown;
+        }
+        pending[size++] = event;
+    }
+
+    int size() { return size; }
+
+    /**
+     * Pending event at an index; events posted while delivering are appended.
+     */
+    GameEvent get(int index) { return pending[index]; }
+
+    /**
+     * Return every delivered event to the pool and empty the queue.
+     */
+    void recycle() {
+        for (int i = 0; i < size; i++) {
+            GameEvent event = pending[i];
+            pending[i] = null;
+            event.reset();
+            int id = event.getType().getId();
+            GameEvent[] pool = free[id];
+            if (freeCount[id] == pool.length) {
+                GameEvent[] grown = new GameEvent[pool.length * 2];
+                System.arraycopy(pool, 0, grown, 0, pool.length);
+                free[id] = pool = grown;
+            }
+            pool[freeCount[id]++] = event;
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.n3wang.voidcodex.sim;
+
+import java.util.function.Supplier;
+
+/**
+ * Key for one kind of {@link GameEvent}: its listener array on the {@link EventBus} and its
+ * pool in each event queue. The types are fixed (see the constants on {@link GameEvent}),
+ * so both are plain arrays indexed by {@link #getId}.
+ */
+public final class EventType<T extends GameEvent> {
+    static final int COUNT = 5; // Number of types declared on GameEvent
+
+    private final int id;
+    private final String name;
+    private final Supplier<T> factory;
+
+    EventType(int id, String name, Supplier<T> factory) {
+        this.id = id;
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+
+    T create() {
+        return factory.get();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
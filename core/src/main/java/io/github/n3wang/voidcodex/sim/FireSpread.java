@@ -0,0 +1,87 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.TileStateStore;
+
+/**
+ * Fire as a cellular automaton over a ship's tile grid. Each tile holds a fire intensity
+ * (0 to 1) that grows with the tile's oxygen, spreads to connected neighbours, burns the
+ * tile's oxygen, and dies down when the tile is starved of oxygen (e.g. vented through a
+ * breach) or a crew member stands on it.
+ * Double-buffered like {@link OxygenDiffusion}: every tile reads the current fire buffer
+ * and writes only its own entries (next fire, own oxygen), so the grid can be split into
+ * row bands and stepped in parallel. Away from the first and last rows the update has no
+ * data-dependent branches.
+ */
+public class FireSpread {
+    public static final float GROWTH_PER_SECOND = 0.5f; // At full intensity and full oxygen
+    public static final float SPREAD_PER_SECOND = 0.15f; // Per burning neighbour at full oxygen
+    public static final float SMOTHER_PER_SECOND = 2.0f; // Per unit of oxygen below MIN_OXYGEN
+    public static final float EXTINGUISH_PER_SECOND = 1.0f; // By a crew member on the tile
+    public static final float OXYGEN_BURN_PER_SECOND = 0.3f; // Oxygen consumed at full intensity
+    public static final float MIN_OXYGEN = 0.25f; // Below this, fires die down
+
+    private final TileMasks masks = new TileMasks();
+
+    /**
+     * Advance a store's fires by one tick.
+     */
+    public void step(TileStateStore tiles, float delta) {
+        masks.update(tiles);
+
+        int wide = tiles.getTilesWide();
+        int count = tiles.getTileCount();
+        float[] current = tiles.getFireArray();
+        float[] next = tiles.getNextFireArray();
+        float[] oxygen = tiles.getOxygenArray();
+        short[] occupant = tiles.getOccupantArray();
+
+        int middleStart = Math.min(wide, count);
+        int middleEnd = Math.max(middleStart, count - wide);
+        for (int tile = 0; tile < middleStart; tile++) {
+            burn(tile, masks.edgeSum(current, tile, wide, count), current, next, oxygen, occupant, delta);
+        }
+        float[] interior = masks.interior;
+        float[] openPlusX = masks.openPlusX;
+        float[] openPlusY = masks.openPlusY;
+        for (int tile = middleStart; tile < middleEnd; tile++) {
+            // Same rule as burn(), inlined, with min/max written as abs so the JIT vectorizes it
+            float fire = current[tile];
+            float air = oxygen[tile];
+            float neighbours = openPlusX[tile] * current[tile + 1]
+                    + openPlusX[tile - 1] * current[tile - 1]
+                    + openPlusY[tile] * current[tile + wide]
+                    + openPlusY[tile - wide] * current[tile - wide];
+            float starved = MIN_OXYGEN - air;
+            float change = GROWTH_PER_SECOND * fire * air
+                    + SPREAD_PER_SECOND * neighbours * air
+                    - SMOTHER_PER_SECOND * 0.5f * (starved + Math.abs(starved))
+                    - EXTINGUISH_PER_SECOND * (occupant[tile] != TileStateStore.NO_CREW ? 1.0f : 0.0f);
+            float value = fire + change * delta;
+            value = 0.5f * (value + Math.abs(value));
+            value = 0.5f * (value + 1.0f - Math.abs(value - 1.0f)) * interior[tile];
+            next[tile] = value;
+            float left = air - OXYGEN_BURN_PER_SECOND * value * delta;
+            oxygen[tile] = 0.5f * (left + Math.abs(left));
+        }
+        for (int tile = middleEnd; tile < count; tile++) {
+            burn(tile, masks.edgeSum(current, tile, wide, count), current, next, oxygen, occupant, delta);
+        }
+        tiles.swapFire();
+    }
+
+    /**
+     * Update one tile, with the neighbours' fire already summed.
+     */
+    private void burn(int tile, float neighbours, float[] current, float[] next, float[] oxygen,
+                      short[] occupant, float delta) {
+        float fire = current[tile];
+        float air = oxygen[tile];
+        float change = GROWTH_PER_SECOND * fire * air
+                + SPREAD_PER_SECOND * neighbours * air
+                - SMOTHER_PER_SECOND * Math.max(0.0f, MIN_OXYGEN - air)
+                - EXTINGUISH_PER_SECOND * (occupant[tile] != TileStateStore.NO_CREW ? 1.0f : 0.0f);
+        float value = Math.max(0.0f, Math.min(1.0f, fire + change * delta)) * masks.interior[tile];
+        next[tile] = value;
+        oxygen[tile] = Math.max(0.0f, air - OXYGEN_BURN_PER_SECOND * value * delta);
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.Weapon;
+
+/**
+ * Something that happened in the simulation, published on its {@link EventBus}.
+ * Events are pooled: a listener may read one only while it is being delivered and must
+ * copy out anything it wants to keep.
+ */
+public abstract class GameEvent {
+    public static final EventType<HullDamaged> HULL_DAMAGED = new EventType<>(0, "HullDamaged", HullDamaged::new);
+    public static final EventType<RoomFireStarted> ROOM_FIRE_STARTED = new EventType<>(1, "RoomFireStarted", RoomFireStarted::new);
+    public static final EventType<CrewArrived> CREW_ARRIVED = new EventType<>(2, "CrewArrived", CrewArrived::new);
+    public static final EventType<WeaponFired> WEAPON_FIRED = new EventType<>(3, "WeaponFired", WeaponFired::new);
+    public static final EventType<ShieldDropped> SHIELD_DROPPED = new EventType<>(4, "ShieldDropped", ShieldDropped::new);
+
+    Ship ship;
+    long tick;
+
+    /**
+     * Ship the event happened on.
+     */
+    public Ship getShip() { return ship; }
+
+    /**
+     * Simulation tick the event happened in.
+     */
+    public long getTick() { return tick; }
+
+    public abstract EventType<?> getType();
+
+    /**
+     * Drop references before the event goes back to its pool.
+     */
+    void reset() {
+        ship = null;
+    }
+
+    /**
+     * A ship's hull took damage.
+     */
+    public static final class HullDamaged extends GameEvent {
+        Room room;
+        int damage;
+
+        /** Room that was hit, or null. */
+        public Room getRoom() { return room; }
+        public int getDamage() { return damage; }
+
+        @Override
+        public EventType<HullDamaged> getType() { return HULL_DAMAGED; }
+
+        @Override
+        void reset() {
+            super.reset();
+            room = null;
+        }
+    }
+
+    /**
+     * A room that was not burning caught fire.
+     */
+    public static final class RoomFireStarted extends GameEvent {
+        Room room;
+
+        public Room getRoom() { return room; }
+
+        @Override
+        public EventType<RoomFireStarted> getType() { return ROOM_FIRE_STARTED; }
+
+        @Override
+        void reset() {
+            super.reset();
+            room = null;
+        }
+    }
+
+    /**
+     * A crew member reached the end of their route and stopped.
+     */
+    public static final class CrewArrived extends GameEvent {
+        Crew crew;
+
+        public Crew getCrew() { return crew; }
+
+        @Override
+        public EventType<CrewArrived> getType() { return CREW_ARRIVED; }
+
+        @Override
+        void reset() {
+            super.reset();
+            crew = null;
+        }
+    }
+
+    /**
+     * A ship fired a weapon.
+     */
+    public static final class WeaponFired extends GameEvent {
+        Weapon weapon;
+        Ship target;
+        Room targetRoom;
+
+        public Weapon getWeapon() { return weapon; }
+        /** Ship fired at, or null. */
+        public Ship getTarget() { return target; }
+        /** Room aimed at, or null. */
+        public Room getTargetRoom() { return targetRoom; }
+
+        @Override
+        public EventType<WeaponFired> getType() { return WEAPON_FIRED; }
+
+        @Override
+        void reset() {
+            super.reset();
+            weapon = null;
+            target = null;
+            targetRoom = null;
+        }
+    }
+
+    /**
+     * A ship lost shield layers.
+     */
+    public static final class ShieldDropped extends GameEvent {
+        int layers;
+        int remaining;
+
+        public int getLayers() { return layers; }
+        public int getRemaining() { return remaining; }
+
+        @Override
+        public EventType<ShieldDropped> getType() { return SHIELD_DROPPED; }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.TileStateStore;
+
+/**
+ * Gas model over a ship's tile grid. Each tick, oxygen diffuses between neighbouring
+ * interior tiles (inside a room or through the door between two rooms; hull and empty
+ * rooms are walls), vents into space from breached tiles, and is topped up or drained
+ * uniformly by the oxygen system.
+ * Runs as a double-buffered stencil over the flat arrays of a {@link TileStateStore}:
+ * every tile reads the current buffer and writes the back buffer, so the result does
+ * not depend on visiting order. Walls and breaches come in as float masks
+ * ({@link TileMasks}), so the inner loop is branch-free float arithmetic that the
+ * JIT vectorizes.
+ */
+public class OxygenDiffusion {
+    public static final float DIFFUSION_PER_SECOND = 6.0f; // Share of a difference evened out per second
+    public static final float VENT_PER_SECOND = 1.5f; // Share of a breached tile's oxygen lost per second
+    private static final float MAX_DIFFUSION_PER_TICK = 0.24f; // Keeps the 4-neighbour stencil stable
+
+    private final TileMasks masks = new TileMasks();
+
+    /**
+     * Advance a store's oxygen by one tick. {@code source} is added to every interior
+     * tile (negative drains).
+     */
+    public void step(TileStateStore tiles, float delta, float source) {
+        masks.update(tiles);
+
+        int wide = tiles.getTilesWide();
+        int count = tiles.getTileCount();
+        float[] current = tiles.getOxygenArray();
+        float[] next = tiles.getNextOxygenArray();
+        float rate = Math.min(MAX_DIFFUSION_PER_TICK, DIFFUSION_PER_SECOND * delta);
+        float vent = Math.min(1.0f, VENT_PER_SECOND * delta);
+
+        // First and last rows lack a neighbour row; everything between has all four
+        int middleStart = Math.min(wide, count);
+        int middleEnd = Math.max(middleStart, count - wide);
+        for (int tile = 0; tile < middleStart; tile++) {
+            next[tile] = finish(masks.edgeFlow(current, tile, wide, count), current[tile], tile, rate, vent, source);
+        }
+        float[] interior = masks.interior;
+        float[] breach = masks.breach;
+        float[] openPlusX = masks.openPlusX;
+        float[] openPlusY = masks.openPlusY;
+        for (int tile = middleStart; tile < middleEnd; tile++) {
+            float oxygen = current[tile];
+            // Edges at row ends are closed, so the wrap-around neighbours contribute nothing
+            float flow = openPlusX[tile] * (current[tile + 1] - oxygen)
+                    + openPlusX[tile - 1] * (current[tile - 1] - oxygen)
+                    + openPlusY[tile] * (current[tile + wide] - oxygen)
+                    + openPlusY[tile - wide] * (current[tile - wide] - oxygen);
+            float value = (oxygen + rate * flow) * (1.0f - vent * breach[tile]);
+            value = (value + source) * interior[tile];
+            // Clamp to 0..1 with abs rather than min/max, which the JIT does not vectorize
+            value = 0.5f * (value + Math.abs(value));
+            next[tile] = 0.5f * (value + 1.0f - Math.abs(value - 1.0f));
+        }
+        for (int tile = middleEnd; tile < count; tile++) {
+            next[tile] = finish(masks.edgeFlow(current, tile, wide, count), current[tile], tile, rate, vent, source);
+        }
+        tiles.swapOxygen();
+    }
+
+    private float finish(float flow, float oxygen, int tile, float rate, float vent, float source) {
+        float value = (oxygen + rate * flow) * (1.0f - vent * masks.breach[tile]);
+        value = (value + source) * masks.interior[tile];
+        return Math.max(0.0f, Math.min(1.0f, value));
+    }
+}
@@ -0,0 +1,342 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.CombatState;
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.TileStateStore;
+import io.github.n3wang.voidcodex.model.Weapon;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copy of what the renderer draws of one ship, taken on the simulation thread at the end of
+ * a tick: status (hull, shields, power, resources), per-tile oxygen, fire and flags, per-room
+ * health and power, crew positions and health, weapon charge, and the combat the ship's game
+ * is in. Tiles use the ship's global tile ids ({@link TileStateStore}), rooms their grid cell,
+ * crew and weapons their index in the ship's lists. Handed to the render thread by a
+ * {@link SnapshotExchange}; once published it is not written until the reader gives it back,
+ * so reading it needs no locks.
+ * Crew positions are also kept as of the tick before, so the renderer can interpolate
+ * between the two ticks ({@link #getAlpha}) however slowly the simulation ticks.
+ */
+public final class RenderSnapshot {
+    public static final int NO_CREW = -1;
+
+    long sequence; // Publication number, 0 until first filled
+    private long tick;
+    private int gridWidth;
+    private int gridHeight;
+    private int tilesWide;
+    private int statusVersion;
+    private int layoutVersion;
+    private int hull;
+    private int maxHull;
+    private int shields;
+    private int maxShields;
+    private int availablePower;
+    private int maxPower;
+    private int usedPower;
+    private int scrap;
+    private int fuel;
+    private float tickAlpha; // Fraction of a tick accumulated past this one when published
+    private long publishNanos;
+    private double ticksPerNano; // Simulated ticks per real nanosecond, 0 while paused
+
+    private float[] oxygen = new float[0];
+    private float[] fire = new float[0];
+    private byte[] flags = new byte[0];
+    private int[] tileCrew = new int[0]; // Crew index standing on each tile, or NO_CREW
+
+    private Room[] rooms = new Room[0]; // Per grid cell, null where there is no room; identity only
+    private int[] roomHealth = new int[0]; // Per grid cell, 0 where there is no room
+    private int[] roomMaxHealth = new int[0];
+    private int[] roomPower = new int[0];
+
+    private int crewCount;
+    private Crew[] crew = new Crew[0]; // Identity only, e.g. to match the selection
+    private int[] crewTile = new int[0]; // Packed current tile (Crew.packTile)
+    private int[] crewNextTile = new int[0]; // Packed tile being walked to
+    private float[] crewProgress = new float[0];
+    private boolean[] crewMoving = new boolean[0];
+    private boolean[] crewPlaced = new boolean[0]; // Holds their current tile in the tile store
+    private int[] crewHealth = new int[0];
+    private int[] previousTile = new int[0]; // Crew positions as of the tick before
+    private int[] previousNextTile = new int[0];
+    private float[] previousProgress = new float[0];
+
+    private int weaponCount;
+    private Weapon[] weapons = new Weapon[0]; // Identity only
+    private int[] weaponCharge = new int[0];
+    private boolean[] weaponSelected = new boolean[0];
+    private boolean[] weaponAutoFire = new boolean[0];
+
+    // The combat the ship's game is in, as the combat panels show it
+    private int combatVersion;
+    private boolean inCombat;
+    private Ship enemyShip; // Identity only, null out of combat
+    private int enemyHull;
+    private int enemyMaxHull;
+    private int enemyCrewCount;
+    private int enemyLayoutVersion;
+    private int playerCombatShields;
+    private int maxPlayerCombatShields;
+    private int enemyCombatShields;
+    private int maxEnemyCombatShields;
+
+    /**
+     * Copy a ship's state. Arrays are reused, and only regrown when the ship outgrows them.
+     * Crew positions of the tick before come from {@code previous} (see {@link #captureCrew});
+     * crew it does not have stand still.
+     */
+    void fill(Ship ship, CombatState combat, long tick, RenderSnapshot previous, float tickAlpha, double ticksPerNano) {
+        this.tick = tick;
+        this.tickAlpha = tickAlpha;
+        this.ticksPerNano = ticksPerNano;
+        this.publishNanos = System.nanoTime();
+        this.statusVersion = ship.getStatusVersion();
+        this.layoutVersion = ship.getLayoutVersion();
+        this.hull = ship.getCurrentHull();
+        this.maxHull = ship.getMaxHull();
+        this.shields = ship.getShields();
+        this.maxShields = ship.getMaxShields();
+        this.availablePower = ship.getAvailablePower();
+        this.maxPower = ship.getMaxPower();
+        this.usedPower = ship.getUsedPower();
+        this.scrap = ship.getScrap();
+        this.fuel = ship.getFuel();
+
+        TileStateStore tiles = ship.getTileStore();
+        int count = tiles.getTileCount();
+        if (oxygen.length != count) {
+            oxygen = new float[count];
+            fire = new float[count];
+            flags = new byte[count];
+            tileCrew = new int[count];
+        }
+        tilesWide = tiles.getTilesWide();
+        System.arraycopy(tiles.getOxygenArray(), 0, oxygen, 0, count);
+        System.arraycopy(tiles.getFireArray(), 0, fire, 0, count);
+        System.arraycopy(tiles.getFlagsArray(), 0, flags, 0, count);
+
+        gridWidth = ship.getGridWidth();
+        gridHeight = ship.getGridHeight();
+        int cells = gridWidth * gridHeight;
+        if (roomHealth.length != cells) {
+            rooms = new Room[cells];
+            roomHealth = new int[cells];
+            roomMaxHealth = new int[cells];
+            roomPower = new int[cells];
+        }
+        for (int y = 0; y < gridHeight; y++) {
+            for (int x = 0; x < gridWidth; x++) {
+                Room room = ship.getRoom(x, y);
+                int cell = y * gridWidth + x;
+                rooms[cell] = room;
+                roomHealth[cell] = room != null ? room.getHealth() : 0;
+                roomMaxHealth[cell] = room != null ? room.getMaxHealth() : 0;
+                roomPower[cell] = room != null ? room.getPowerLevel() : 0;
+            }
+        }
+
+        fillWeapons(ship.getWeapons(), tick);
+        fillCombat(combat);
+
+        List<Crew> crewList = ship.getCrew();
+        captureCrew(crewList);
+        if (previousTile.length < crew.length) {
+            previousTile = new int[crew.length];
+            previousNextTile = new int[crew.length];
+            previousProgress = new float[crew.length];
+            crewPlaced = new boolean[crew.length];
+        }
+        Arrays.fill(tileCrew, NO_CREW);
+        for (int i = 0; i < crewCount; i++) {
+            Crew member = crew[i];
+            if (i < previous.crewCount && previous.crew[i] == member) {
+                previousTile[i] = previous.crewTile[i];
+                previousNextTile[i] = previous.crewNextTile[i];
+                previousProgress[i] = previous.crewProgress[i];
+            } else {
+                previousTile[i] = crewTile[i];
+                previousNextTile[i] = crewNextTile[i];
+                previousProgress[i] = crewProgress[i];
+            }
+            crewMoving[i] = member.isMoving();
+            crewHealth[i] = member.getHealth();
+
+            // Drawn on the tile they hold, as recorded in the tile store
+            int gx = crewTile[i] >>> 16;
+            int gy = crewTile[i] & 0xFFFF;
+            crewPlaced[i] = false;
+            if (gx < tilesWide && gy < tiles.getTilesHigh()) {
+                int tile = tiles.tileId(gx, gy);
+                if (tiles.getCrew(tile) == member) {
+                    tileCrew[tile] = i;
+                    crewPlaced[i] = true;
+                }
+            }
+        }
+    }
+
+    private void fillWeapons(List<Weapon> weaponList, long tick) {
+        int count = weaponList.size();
+        if (weapons.length < count) {
+            int capacity = Math.max(4, count);
+            weapons = new Weapon[capacity];
+            weaponCharge = new int[capacity];
+            weaponSelected = new boolean[capacity];
+            weaponAutoFire = new boolean[capacity];
+        }
+        if (weaponCount > count) {
+            Arrays.fill(weapons, count, weaponCount, null);
+        }
+        weaponCount = count;
+        for (int i = 0; i < count; i++) {
+            Weapon weapon = weaponList.get(i);
+            weapons[i] = weapon;
+            weaponCharge[i] = weapon.getCurrentCharge(tick);
+            weaponSelected[i] = weapon.isSelected();
+            weaponAutoFire[i] = weapon.isAutoFire();
+        }
+    }
+
+    private void fillCombat(CombatState combat) {
+        combatVersion = combat.getVersion();
+        inCombat = combat.isInCombat();
+        enemyShip = combat.getEnemyShip();
+        enemyHull = enemyShip != null ? enemyShip.getCurrentHull() : 0;
+        enemyMaxHull = enemyShip != null ? enemyShip.getMaxHull() : 0;
+        enemyCrewCount = enemyShip != null ? enemyShip.getCrew().size() : 0;
+        enemyLayoutVersion = enemyShip != null ? enemyShip.getLayoutVersion() : 0;
+        playerCombatShields = combat.getPlayerShields();
+        maxPlayerCombatShields = combat.getMaxPlayerShields();
+        enemyCombatShields = combat.getEnemyShields();
+        maxEnemyCombatShields = combat.getMaxEnemyShields();
+    }
+
+    /**
+     * Record crew positions: the crew arrays of this snapshot only. Used on a snapshot the
+     * simulation keeps to itself, at the start of every tick.
+     */
+    void captureCrew(List<Crew> crewList) {
+        int count = crewList.size();
+        if (crew.length < count) {
+            int capacity = Math.max(8, count);
+            crew = new Crew[capacity];
+            crewTile = new int[capacity];
+            crewNextTile = new int[capacity];
+            crewProgress = new float[capacity];
+            crewMoving = new boolean[capacity];
+            crewHealth = new int[capacity];
+        }
+        if (crewCount > count) {
+            Arrays.fill(crew, count, crewCount, null);
+        }
+        crewCount = count;
+        for (int i = 0; i < count; i++) {
+            Crew member = crewList.get(i);
+            crew[i] = member;
+            crewTile[i] = Crew.packTile(member.getCurrentRoomX(), member.getCurrentRoomY(),
+                    member.getCurrentTileX(), member.getCurrentTileY());
+            crewNextTile[i] = Crew.packTile(member.getNextRoomX(), member.getNextRoomY(),
+                    member.getNextTileX(), member.getNextTileY());
+            crewProgress[i] = member.getMovementProgress();
+        }
+    }
+
+    /**
+     * How far the simulation has got from the tick before this snapshot (0) to this
+     * snapshot's tick (1), at a given {@link System#nanoTime}. Past the snapshot's tick the
+     * next one is due, so it stops at 1 rather than extrapolating.
+     */
+    public float getAlpha(long nowNanos) {
+        double alpha = tickAlpha + (nowNanos - publishNanos) * ticksPerNano;
+        return alpha >= 1.0 ? 1.0f : (float) alpha;
+    }
+
+    /**
+     * Simulation tick the snapshot was taken after.
+     */
+    public long getTick() { return tick; }
+
+    /**
+     * The ship's status version ({@link Ship#getStatusVersion}) as of the snapshot.
+     */
+    public int getStatusVersion() { return statusVersion; }
+    public int getLayoutVersion() { return layoutVersion; }
+    public int getHull() { return hull; }
+    public int getMaxHull() { return maxHull; }
+    public int getShields() { return shields; }
+    public int getMaxShields() { return maxShields; }
+    public int getAvailablePower() { return availablePower; }
+    public int getMaxPower() { return maxPower; }
+    public int getUsedPower() { return usedPower; }
+    public int getScrap() { return scrap; }
+    public int getFuel() { return fuel; }
+
+    public int tileId(int gx, int gy) { return gy * tilesWide + gx; }
+    public float getOxygen(int tile) { return oxygen[tile]; }
+    public float getFire(int tile) { return fire[tile]; }
+    public boolean hasFlag(int tile, byte flag) { return (flags[tile] & flag) != 0; }
+
+    /**
+     * Index of the crew member standing on a tile, or {@link #NO_CREW}.
+     */
+    public int getCrewAt(int tile) { return tileCrew[tile]; }
+
+    public int getRoomHealth(int roomX, int roomY) { return roomHealth[roomY * gridWidth + roomX]; }
+    public int getRoomMaxHealth(int roomX, int roomY) { return roomMaxHealth[roomY * gridWidth + roomX]; }
+    public int getRoomPower(int roomX, int roomY) { return roomPower[roomY * gridWidth + roomX]; }
+
+    /**
+     * The room in a grid cell, or null; identity only, read its state from the snapshot.
+     */
+    public Room getRoom(int roomX, int roomY) {
+        if (roomX < 0 || roomX >= gridWidth || roomY < 0 || roomY >= gridHeight) {
+            return null;
+        }
+        return rooms[roomY * gridWidth + roomX];
+    }
+
+    /**
+     * Power of a room as of the snapshot, or 0 if the ship no longer has it there.
+     */
+    public int getRoomPower(Room room) {
+        return getRoom(room.getX(), room.getY()) == room ? getRoomPower(room.getX(), room.getY()) : 0;
+    }
+
+    public int getCrewCount() { return crewCount; }
+    public Crew getCrew(int index) { return crew[index]; }
+    public int getCrewTile(int index) { return crewTile[index]; }
+    public int getCrewNextTile(int index) { return crewNextTile[index]; }
+    public float getCrewProgress(int index) { return crewProgress[index]; }
+    public boolean isCrewMoving(int index) { return crewMoving[index]; }
+    public boolean isCrewPlaced(int index) { return crewPlaced[index]; }
+    public int getCrewHealth(int index) { return crewHealth[index]; }
+    public int getPreviousCrewTile(int index) { return previousTile[index]; }
+    public int getPreviousCrewNextTile(int index) { return previousNextTile[index]; }
+    public float getPreviousCrewProgress(int index) { return previousProgress[index]; }
+
+    public int getWeaponCount() { return weaponCount; }
+    public Weapon getWeapon(int index) { return weapons[index]; }
+    public int getWeaponCharge(int index) { return weaponCharge[index]; }
+    public boolean isWeaponSelected(int index) { return weaponSelected[index]; }
+    public boolean isWeaponAutoFire(int index) { return weaponAutoFire[index]; }
+
+    /**
+     * The game's combat version ({@link CombatState#getVersion}) as of the snapshot.
+     */
+    public int getCombatVersion() { return combatVersion; }
+    public boolean isInCombat() { return inCombat; }
+    public Ship getEnemyShip() { return enemyShip; }
+    public int getEnemyHull() { return enemyHull; }
+    public int getEnemyMaxHull() { return enemyMaxHull; }
+    public int getEnemyCrewCount() { return enemyCrewCount; }
+    public int getEnemyLayoutVersion() { return enemyLayoutVersion; }
+    public int getPlayerCombatShields() { return playerCombatShields; }
+    public int getMaxPlayerCombatShields() { return maxPlayerCombatShields; }
+    public int getEnemyCombatShields() { return enemyCombatShields; }
+    public int getMaxEnemyCombatShields() { return maxEnemyCombatShields; }
+}
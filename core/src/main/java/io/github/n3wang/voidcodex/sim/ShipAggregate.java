@@ -0,0 +1,158 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.TileStateStore;
+
+import java.util.List;
+
+/**
+ * Coarse stand-in for a ship nobody is looking at. Instead of per-tile oxygen and fire it
+ * keeps the ship's mean oxygen and one fire value per room, and advances them (with room
+ * and crew health) in closed form over whole seconds at a time. Weapon charge and shields
+ * run on the simulation's timers whatever the ship's detail.
+ * Crew keep their tiles while the ship is coarse; they only stand still.
+ * {@link #capture} takes the aggregates from the tile state, {@link #restore} spreads them
+ * back over the tiles when the ship is simulated in full again.
+ */
+final class ShipAggregate {
+    private static final float FIRE_OUT = 0.01f; // Room fire below this is put out
+
+    private float oxygen; // Mean over interior tiles, 0.0 to 1.0
+    private int interiorTiles;
+    private int breachedTiles;
+    private float[] roomFire = new float[0]; // Per room (ship room list order), sum over its tiles
+
+    /**
+     * Take the aggregates from a ship's tiles.
+     */
+    void capture(Ship ship) {
+        TileStateStore tiles = ship.getTileStore();
+        float[] tileOxygen = tiles.getOxygenArray();
+        byte[] flags = tiles.getFlagsArray();
+        float total = 0.0f;
+        interiorTiles = 0;
+        breachedTiles = 0;
+        for (int tile = 0; tile < tileOxygen.length; tile++) {
+            if ((flags[tile] & TileStateStore.FLAG_INTERIOR) == 0) continue;
+            total += tileOxygen[tile];
+            interiorTiles++;
+            if ((flags[tile] & TileStateStore.FLAG_BREACH) != 0) {
+                breachedTiles++;
+            }
+        }
+        oxygen = interiorTiles > 0 ? total / interiorTiles : 0.0f;
+
+        List<Room> rooms = ship.getRooms();
+        if (roomFire.length != rooms.size()) {
+            roomFire = new float[rooms.size()];
+        }
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            float fire = 0.0f;
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                for (int tileY = 0; tileY < Room.TILES; tileY++) {
+                    fire += room.getTileFire(tileX, tileY);
+                }
+            }
+            roomFire[i] = fire;
+        }
+    }
+
+    /**
+     * Advance the ship by a span of simulated time.
+     */
+    void advance(Ship ship, float seconds) {
+        List<Room> rooms = ship.getRooms();
+        List<Crew> crew = ship.getCrew();
+        float maxRoomFire = Room.TILES * Room.TILES;
+        float totalFire = 0.0f;
+
+        for (int i = 0; i < rooms.size() && i < roomFire.length; i++) {
+            Room room = rooms.get(i);
+            float fire = roomFire[i];
+            int crewInRoom = room.getCrewCount();
+
+            if (fire > 0.0f) {
+                // Grows or dies down exponentially with the ship's oxygen; crew put it out
+                float rate = FireSpread.GROWTH_PER_SECOND * oxygen
+                        - FireSpread.SMOTHER_PER_SECOND * Math.max(0.0f, FireSpread.MIN_OXYGEN - oxygen)
+                        - FireSpread.EXTINGUISH_PER_SECOND * crewInRoom;
+                // Fire integrated over the span, for damage and oxygen burned
+                float burned = Math.abs(rate) < 1e-4f
+                        ? fire * seconds
+                        : fire * ((float) Math.exp(rate * seconds) - 1.0f) / rate;
+                burned = Math.min(burned, maxRoomFire * seconds);
+                fire = Math.min(maxRoomFire, fire * (float) Math.exp(rate * seconds));
+                if (fire < FIRE_OUT) {
+                    fire = 0.0f;
+                }
+                roomFire[i] = fire;
+                totalFire += burned;
+
+                room.addFractionalDamage(burned * ShipSimulation.ROOM_FIRE_DAMAGE);
+                // Crew in the room share the average exposure of its tiles
+                float crewExposure = burned / maxRoomFire * ShipSimulation.CREW_FIRE_DAMAGE;
+                for (int j = 0; j < crew.size(); j++) {
+                    Crew member = crew.get(j);
+                    if (member.getCurrentRoomX() == room.getX() && member.getCurrentRoomY() == room.getY()) {
+                        member.addFractionalDamage(crewExposure);
+                    }
+                }
+            }
+
+            if (room.getType() != RoomType.EMPTY && room.getHealth() < room.getMaxHealth() && crewInRoom > 0) {
+                float repairRate = 0.0f;
+                for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                    for (int tileY = 0; tileY < Room.TILES; tileY++) {
+                        Crew member = room.getCrewAtTile(tileX, tileY);
+                        if (member != null) {
+                            repairRate += ShipSimulation.getRepairRate(member);
+                        }
+                    }
+                }
+                room.addFractionalHealth(repairRate * room.getMaxHealth() * seconds);
+            }
+        }
+
+        // dO/dt = source - vent * breached share * O - fire burn, solved exactly for O
+        if (interiorTiles > 0) {
+            Room oxygenRoom = ship.getFirstRoomOfType(RoomType.OXYGEN);
+            float source = oxygenRoom != null ? ShipSimulation.getOxygenPerSecond(oxygenRoom) : 0.0f;
+            float drift = source - FireSpread.OXYGEN_BURN_PER_SECOND * totalFire / (interiorTiles * seconds);
+            float decay = OxygenDiffusion.VENT_PER_SECOND * breachedTiles / interiorTiles;
+            if (decay > 0.0f) {
+                float settled = drift / decay;
+                oxygen = settled + (oxygen - settled) * (float) Math.exp(-decay * seconds);
+            } else {
+                oxygen += drift * seconds;
+            }
+            oxygen = Math.max(0.0f, Math.min(1.0f, oxygen));
+        }
+    }
+
+    /**
+     * Spread the aggregates back over the ship's tiles.
+     */
+    void restore(Ship ship) {
+        TileStateStore tiles = ship.getTileStore();
+        float[] tileOxygen = tiles.getOxygenArray();
+        byte[] flags = tiles.getFlagsArray();
+        for (int tile = 0; tile < tileOxygen.length; tile++) {
+            tileOxygen[tile] = (flags[tile] & TileStateStore.FLAG_INTERIOR) != 0 ? oxygen : 0.0f;
+        }
+        List<Room> rooms = ship.getRooms();
+        float perTile = 1.0f / (Room.TILES * Room.TILES);
+        for (int i = 0; i < rooms.size() && i < roomFire.length; i++) {
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                for (int tileY = 0; tileY < Room.TILES; tileY++) {
+                    rooms.get(i).setTileFire(tileX, tileY, roomFire[i] * perTile);
+                }
+            }
+        }
+    }
+
+    float getOxygen() { return oxygen; }
+}
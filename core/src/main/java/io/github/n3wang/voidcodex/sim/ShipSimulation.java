@@ -0,0 +1,989 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.GameState;
+import io.github.n3wang.voidcodex.model.CombatState;
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.model.GameTimeState;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.Skill;
+import io.github.n3wang.voidcodex.model.Weapon;
+import io.github.n3wang.voidcodex.util.FlowField;
+import io.github.n3wang.voidcodex.util.NavSnapshot;
+import io.github.n3wang.voidcodex.util.PathService;
+import io.github.n3wang.voidcodex.util.ShipTileGraph;
+import io.github.n3wang.voidcodex.util.ShipTileGraph.TileNode;
+import io.github.n3wang.voidcodex.util.TilePathfinding;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fixed-timestep gameplay simulation for the current ship.
+ * Owns crew movement, weapon charging, fire and oxygen (see {@link FireSpread},
+ * {@link OxygenDiffusion}) and repairs. Has no scene2d or
+ * Gdx.graphics dependency, so it can be stepped headless (e.g. batch balance runs)
+ * as fast as the CPU allows; screens only feed it frame time and observe the result.
+ * On large ships crew routes are solved by a background {@link PathService}; results are
+ * picked up at the start of the next tick.
+ * Besides the current ship it can tick any number of other ships (fleet battles, off-screen
+ * sector traffic). With more than one ship, each tick runs one fork/join task per ship;
+ * ships only touch their own state while ticking, and effects on another ship are queued
+ * ({@link #queueInteraction}) and applied after all ships finish, in ship order, so the
+ * outcome does not depend on thread timing. Call {@link #dispose} to stop its threads.
+ * Other ships are simulated coarsely ({@link ShipAggregate}) unless promoted with
+ * {@link #setFullDetail}; the current ship is always simulated in full, so warping in
+ * promotes a ship and leaving it demotes it.
+ * What happens (hits, fires, arrivals) is published on an {@link EventBus} ({@link #getEvents});
+ * a ticking ship publishes into its own queue and the queues are delivered after the barrier.
+ * Ships being drawn get a {@link RenderSnapshot} after every update ({@link #getSnapshots}),
+ * and the screens draw and show only those, so the simulation can run on its own thread
+ * ({@link SimulationThread}); snapshots let the renderer interpolate between ticks, so the
+ * tick rate can be well below the frame rate.
+ */
+public class ShipSimulation {
+    public static final int DEFAULT_TICK_RATE = 60; // Ticks per simulated second
+    private static final int MAX_TICKS_PER_UPDATE = 16; // Avoids a spiral of death on slow frames
+    private static final int MAX_BLOCKED_STEPS = 4; // Waits on a cooperative route before being planned again
+    static final float ROOM_FIRE_DAMAGE = 0.25f; // Room health per second per burning tile
+    static final float CREW_FIRE_DAMAGE = 10.0f; // Crew health per second on a burning tile
+    private static final int COARSE_TICKS = 60; // Ticks between updates of a coarse ship
+
+    private final GameState gameState;
+    private final float tickSeconds;
+    private float accumulator;
+    private volatile long tickCount; // Read by the render thread when threaded (SimulationThread)
+    private final List<Ship> ships = new ArrayList<>(); // Ticked alongside the current ship
+    private final List<Ship> tickShips = new ArrayList<>(); // Reused by step
+    private final List<Ship> allShips = new ArrayList<>(); // Reused by step
+    private final Map<Ship, ShipState> shipStates = new IdentityHashMap<>();
+    private final Map<Ship, ShipAggregate> coarseShips = new IdentityHashMap<>();
+    private final SystemTimers systemTimers; // Weapon charge and shield events, for every ship
+    private final List<Runnable> coarseInteractions = new ArrayList<>(); // Queued by coarse ships
+    private final EventBus eventBus = new EventBus();
+    private final EventQueue events = new EventQueue(); // Published outside ship ticks (barrier, API calls)
+    private final Map<Ship, SnapshotExchange> snapshots = new ConcurrentHashMap<>(); // Ships being drawn
+    private final PathService pathService = new PathService(); // Threads start on first request
+    private ForkJoinPool tickPool; // Started when more than one ship is ticked
+
+    /**
+     * Scratch state and per-tick work for one ship. Only the thread ticking the ship touches it.
+     */
+    private final class ShipState extends RecursiveAction {
+        final Ship ship;
+        final List<Crew> arrivedCrew = new ArrayList<>(); // Reused by updateCrewMovement
+        final List<Crew> replanCrew = new ArrayList<>(); // Cooperative crew due a new window
+        final List<Crew> pathRequests = new ArrayList<>(); // Crew to route in the background next tick
+        final ConcurrentLinkedQueue<PathService.Result> pathResults = new ConcurrentLinkedQueue<>();
+        final List<Runnable> interactions = new ArrayList<>(); // Effects on other ships, applied after the tick
+        final OxygenDiffusion oxygenDiffusion = new OxygenDiffusion();
+        final FireSpread fireSpread = new FireSpread();
+        final EventQueue events = new EventQueue(); // Published while ticking, delivered after the barrier
+        boolean[] roomBurning = new boolean[0]; // Per room (ship room list order), as of the last tick
+
+        ShipState(Ship ship) {
+            this.ship = ship;
+        }
+
+        @Override
+        protected void compute() {
+            tickShip(ship);
+        }
+    }
+
+    /**
+     * Forks one task per ship and joins them in ship order.
+     */
+    private final class TickAll extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (int i = 0; i < tickShips.size(); i++) {
+                ShipState state = shipStates.get(tickShips.get(i));
+                state.reinitialize();
+                state.fork();
+            }
+            for (int i = 0; i < tickShips.size(); i++) {
+                shipStates.get(tickShips.get(i)).join();
+            }
+        }
+    }
+
+    private final TickAll tickAll = new TickAll();
+
+    public ShipSimulation(GameState gameState) {
+        this(gameState, DEFAULT_TICK_RATE);
+    }
+
+    public ShipSimulation(GameState gameState, int tickRate) {
+        this.gameState = gameState;
+        this.tickSeconds = 1.0f / Math.max(1, tickRate);
+        this.accumulator = 0.0f;
+        this.tickCount = 0;
+        this.systemTimers = new SystemTimers(tickCount, tickSeconds);
+    }
+
+    /**
+     * Feed real frame time into the simulation. Applies pause and time scale, then runs
+     * as many fixed ticks as the accumulated time allows.
+     * Returns the number of ticks that were run.
+     */
+    public int update(float delta) {
+        GameTimeState timeState = gameState.getTimeState();
+        if (timeState.isPaused()) {
+            return 0;
+        }
+
+        accumulator += delta * timeState.getTimeScale();
+        int ticks = 0;
+        while (accumulator >= tickSeconds && ticks < MAX_TICKS_PER_UPDATE) {
+            step();
+            accumulator -= tickSeconds;
+            ticks++;
+        }
+        if (ticks == MAX_TICKS_PER_UPDATE) {
+            // Fell too far behind - drop the backlog instead of catching up forever
+            accumulator = Math.min(accumulator, tickSeconds);
+        }
+        return ticks;
+    }
+
+    /**
+     * Run a fixed number of ticks immediately, ignoring pause and time scale.
+     */
+    public void run(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            step();
+        }
+    }
+
+    /**
+     * Advance the simulation by exactly one fixed tick.
+     */
+    public void step() {
+        if (!snapshots.isEmpty()) {
+            for (Map.Entry<Ship, SnapshotExchange> entry : snapshots.entrySet()) {
+                entry.getValue().beginTick(entry.getKey()); // Start of the interpolation
+            }
+        }
+        tickShips.clear();
+        allShips.clear();
+        Ship current = gameState.getCurrentShip();
+        if (current != null) {
+            if (coarseShips.containsKey(current)) {
+                setFullDetail(current, true); // Warped in
+            }
+            tickShips.add(current);
+            allShips.add(current);
+        }
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (ship == current) continue;
+            allShips.add(ship);
+            ShipAggregate coarse = coarseShips.get(ship);
+            if (coarse == null) {
+                tickShips.add(ship);
+            } else if ((tickCount + i) % COARSE_TICKS == 0) {
+                // Staggered so coarse ships spread over the ticks of a second
+                coarse.advance(ship, COARSE_TICKS * tickSeconds);
+            }
+        }
+        // Timed events are shared by all ships, full or coarse
+        systemTimers.update(allShips, tickCount + 1);
+
+        if (shipStates.size() > tickShips.size()) {
+            shipStates.keySet().retainAll(tickShips); // Drop ships no longer ticked
+        }
+        for (int i = 0; i < tickShips.size(); i++) {
+            stateFor(tickShips.get(i)); // Created here so the parallel phase only reads the map
+        }
+
+        if (tickShips.size() == 1) {
+            tickShip(tickShips.get(0));
+        } else if (tickShips.size() > 1) {
+            if (tickPool == null) {
+                tickPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            }
+            tickAll.reinitialize();
+            tickPool.invoke(tickAll);
+        }
+
+        // Barrier: cross-ship effects, in ship order
+        for (int i = 0; i < tickShips.size(); i++) {
+            List<Runnable> interactions = shipStates.get(tickShips.get(i)).interactions;
+            for (int j = 0; j < interactions.size(); j++) {
+                interactions.get(j).run();
+            }
+            interactions.clear();
+        }
+        for (int i = 0; i < coarseInteractions.size(); i++) {
+            coarseInteractions.get(i).run();
+        }
+        coarseInteractions.clear();
+
+        // Deliver the tick's events, ship by ship in ship order
+        for (int i = 0; i < tickShips.size(); i++) {
+            eventBus.dispatch(shipStates.get(tickShips.get(i)).events);
+        }
+        eventBus.dispatch(events);
+        tickCount++;
+    }
+
+    private void tickShip(Ship ship) {
+        deliverPathResults(ship);
+        submitPathRequests(ship);
+        updateCrewMovement(ship, tickSeconds);
+        updateFireSystem(ship, tickSeconds);
+        updateOxygenSystem(ship, tickSeconds);
+        updateRepairSystems(ship, tickSeconds);
+    }
+
+    private ShipState stateFor(Ship ship) {
+        ShipState state = shipStates.get(ship);
+        if (state == null) {
+            state = new ShipState(ship);
+            shipStates.put(ship, state);
+        }
+        return state;
+    }
+
+    /**
+     * Simulate another ship along with the current one, e.g. an enemy or an off-screen ship.
+     * It starts out coarse; promote it with {@link #setFullDetail} while it is on screen.
+     */
+    public void addShip(Ship ship) {
+        if (!ships.contains(ship)) {
+            ships.add(ship);
+            if (ship != gameState.getCurrentShip()) {
+                setFullDetail(ship, false);
+            }
+        }
+    }
+
+    public void removeShip(Ship ship) {
+        ships.remove(ship);
+        coarseShips.remove(ship);
+        if (ship != gameState.getCurrentShip()) {
+            systemTimers.remove(ship);
+            shipStates.remove(ship);
+        }
+    }
+
+    /**
+     * Switch a ship between the full tile simulation and the coarse one.
+     * Demoting stops crew where they stand; promoting spreads the coarse oxygen and fire
+     * back over the tiles. The current ship is promoted automatically on the next tick.
+     */
+    public void setFullDetail(Ship ship, boolean full) {
+        ShipAggregate coarse = coarseShips.get(ship);
+        if (full) {
+            if (coarse != null) {
+                coarse.restore(ship);
+                coarseShips.remove(ship);
+            }
+            return;
+        }
+        if (coarse != null) {
+            return;
+        }
+        List<Crew> crewList = ship.getCrew();
+        for (int i = 0; i < crewList.size(); i++) {
+            Crew crew = crewList.get(i);
+            crew.setWaitingForPath(false);
+            if (crew.isMoving()) {
+                // Give up the tile being stepped into; the crew member never left their own
+                ShipTileGraph graph = TilePathfinding.getGraph(ship);
+                TileNode next = graph.getNode(crew.getNextRoomX(), crew.getNextRoomY(),
+                        crew.getNextTileX(), crew.getNextTileY());
+                if (next != null && next != currentNode(ship, crew)) {
+                    graph.release(next);
+                }
+                crew.setMovementProgress(0.0f);
+                stopCrew(ship, crew);
+            }
+        }
+        shipStates.remove(ship);
+        coarse = new ShipAggregate();
+        coarse.capture(ship);
+        coarseShips.put(ship, coarse);
+    }
+
+    public boolean isFullDetail(Ship ship) {
+        return !coarseShips.containsKey(ship);
+    }
+
+    public List<Ship> getShips() { return ships; }
+
+    /**
+     * Queue an effect on another ship (a projectile hit, a boarding party arriving) from
+     * inside a ship's tick. Runs once every ship has finished the tick, in ship order.
+     */
+    public void queueInteraction(Ship from, Runnable interaction) {
+        if (coarseShips.containsKey(from)) {
+            coarseInteractions.add(interaction); // Coarse ships advance on the calling thread
+        } else {
+            stateFor(from).interactions.add(interaction);
+        }
+    }
+
+    /**
+     * Fire a ship's weapon if it is charged; it starts charging again from empty.
+     * Returns true if the weapon fired.
+     */
+    public boolean fireWeapon(Ship ship, Weapon weapon) {
+        if (!weapon.fire(tickCount)) {
+            return false;
+        }
+        ship.invalidateSystems(); // Reschedule its charge
+        publish(events, GameEvent.WEAPON_FIRED, ship).weapon = weapon;
+        eventBus.dispatch(events);
+        return true;
+    }
+
+    /**
+     * Fire a ship's weapon at a room of another ship, if it is charged. Shields absorb the
+     * damage first (the combat state's enemy shields when the target is the current enemy);
+     * the rest hits the hull and the room, and may start a fire.
+     * Returns true if the weapon fired.
+     */
+    public boolean fireWeaponAt(Ship ship, Weapon weapon, Ship target, Room targetRoom) {
+        if (!weapon.fire(tickCount)) {
+            return false;
+        }
+        ship.invalidateSystems(); // Reschedule its charge
+        GameEvent.WeaponFired fired = publish(events, GameEvent.WEAPON_FIRED, ship);
+        fired.weapon = weapon;
+        fired.target = target;
+        fired.targetRoom = targetRoom;
+
+        int damage = weapon.getDamage();
+
+        // Check shields
+        CombatState combatState = gameState.getCombatState();
+        boolean enemy = combatState != null && combatState.getEnemyShip() == target;
+        int shields = enemy ? combatState.getEnemyShields() : target.getShields();
+        if (shields > 0) {
+            int shieldDamage = Math.min(damage, shields);
+            if (enemy) {
+                combatState.setEnemyShields(shields - shieldDamage);
+            } else {
+                target.setShields(shields - shieldDamage);
+            }
+            damage -= shieldDamage;
+            GameEvent.ShieldDropped dropped = publish(events, GameEvent.SHIELD_DROPPED, target);
+            dropped.layers = shieldDamage;
+            dropped.remaining = shields - shieldDamage;
+        }
+
+        // Apply hull damage
+        if (damage > 0) {
+            target.setCurrentHull(target.getCurrentHull() - damage);
+            targetRoom.setHealth(targetRoom.getHealth() - damage);
+            GameEvent.HullDamaged damaged = publish(events, GameEvent.HULL_DAMAGED, target);
+            damaged.room = targetRoom;
+            damaged.damage = damage;
+
+            // Chance for fire/breach; ticked ships report the fire when it shows up
+            if (Math.random() < 0.2) {
+                targetRoom.setFire(true);
+            }
+        }
+        eventBus.dispatch(events);
+        return true;
+    }
+
+    /**
+     * Events published by this simulation; subscribe on the thread that steps it.
+     */
+    public EventBus getEvents() { return eventBus; }
+
+    /**
+     * Render snapshots of a ship, published by {@link #publishSnapshots} from now on.
+     * Safe to call from the render thread.
+     */
+    public SnapshotExchange getSnapshots(Ship ship) {
+        return snapshots.computeIfAbsent(ship, s -> new SnapshotExchange());
+    }
+
+    /**
+     * Stop publishing snapshots of a ship that is no longer drawn.
+     */
+    public void releaseSnapshots(Ship ship) {
+        snapshots.remove(ship);
+    }
+
+    /**
+     * Publish a snapshot of every ship being drawn, as of the last tick. Called on the
+     * thread that steps the simulation, after {@link #update}.
+     */
+    public void publishSnapshots() {
+        GameTimeState timeState = gameState.getTimeState();
+        CombatState combat = gameState.getCombatState();
+        float tickAlpha = Math.min(1.0f, accumulator / tickSeconds);
+        double ticksPerNano = timeState.getTimeScale() / (tickSeconds * 1_000_000_000.0); // 0 while paused
+        for (Map.Entry<Ship, SnapshotExchange> entry : snapshots.entrySet()) {
+            entry.getValue().publish(entry.getKey(), combat, tickCount, tickAlpha, ticksPerNano);
+        }
+    }
+
+    private <T extends GameEvent> T publish(EventQueue queue, EventType<T> type, Ship ship) {
+        T event = queue.obtain(type);
+        event.ship = ship;
+        event.tick = tickCount;
+        queue.post(event);
+        return event;
+    }
+
+    /**
+     * Order a crew member to walk to a tile.
+     * Returns true if the crew member's position or route changed.
+     */
+    public boolean orderCrewMove(Crew crew, Room room, int tileX, int tileY) {
+        Ship ship = gameState.getCurrentShip();
+        if (ship == null || crew.isMoving() || room.getType() == RoomType.EMPTY || !room.isTileEmpty(tileX, tileY)) {
+            return false;
+        }
+
+        Room currentRoom = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
+
+        // Set target and plan the full route once; it is consumed step by step while walking
+        crew.setTargetRoomX(room.getX());
+        crew.setTargetRoomY(room.getY());
+        crew.setTargetTileX(tileX);
+        crew.setTargetTileY(tileY);
+        crew.setCooperativeRoute(false);
+
+        if (ship.getRooms().size() >= PathService.ASYNC_MIN_ROOMS) {
+            // Long search on a large ship - solve it in the background while the crew waits
+            crew.setWaitingForPath(true);
+            crew.setPathRequestId(crew.getPathRequestId() + 1);
+            List<Crew> pathRequests = stateFor(ship).pathRequests;
+            if (!pathRequests.contains(crew)) {
+                pathRequests.add(crew);
+            }
+            return true;
+        }
+
+        if (TilePathfinding.planRoute(ship, crew)) {
+            // The crew member keeps their tile until they step off it
+            startWalking(ship, crew);
+            return true;
+        }
+
+        // Path blocked, place crew directly if same room and adjacent tile
+        if (crew.getCurrentRoomX() == room.getX() && crew.getCurrentRoomY() == room.getY()) {
+            // Check if it's an adjacent tile (horizontal or vertical only)
+            int dx = Math.abs(crew.getCurrentTileX() - tileX);
+            int dy = Math.abs(crew.getCurrentTileY() - tileY);
+            if ((dx == 1 && dy == 0) || (dx == 0 && dy == 1)) {
+                if (currentRoom != null) {
+                    currentRoom.removeCrewFromTile(crew.getCurrentTileX(), crew.getCurrentTileY());
+                }
+                room.setCrewAtTile(tileX, tileY, crew);
+                crew.setCurrentTileX(tileX);
+                crew.setCurrentTileY(tileY);
+                TilePathfinding.tileOccupied(ship, crew);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Order a whole selection to the clicked tile in one batch. Each crew member is sent to
+     * a free tile around it, and the routes are planned together so nobody walks into
+     * anybody else; crew already walking are redirected from their next tile.
+     * Returns true if any crew member was given a route.
+     */
+    public boolean orderCrewMoves(List<Crew> group, Room room, int tileX, int tileY) {
+        Ship ship = gameState.getCurrentShip();
+        if (ship == null || room.getType() == RoomType.EMPTY) {
+            return false;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            group.get(i).setFollowingFlowField(false);
+            group.get(i).setWaitingForPath(false);
+        }
+        TilePathfinding.planGroupRoutes(ship, group, room.getX(), room.getY(), tileX, tileY);
+
+        // Crew on a shared plan set off first, so anyone routed alone sees the tiles they claim
+        boolean anyOrdered = false;
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < group.size(); i++) {
+                Crew crew = group.get(i);
+                if (crew.isCooperativeRoute() != (pass == 0)) continue;
+                if (crew.isMoving()) {
+                    anyOrdered = true; // Picks up the new route at their next tile
+                } else if (crew.hasPathStep()) {
+                    startWalking(ship, crew);
+                    anyOrdered = crew.isMoving() || anyOrdered;
+                }
+            }
+        }
+        return anyOrdered;
+    }
+
+    /**
+     * Order a group of crew to a room. Instead of planning individual routes they all follow
+     * one shared flow field, and each settles on the first free tile of the room it reaches.
+     * Suited to large groups such as boarding parties; crew already walking switch to the
+     * field at their next tile.
+     * Returns true if any crew member was given the order.
+     */
+    public boolean orderGroupMove(List<Crew> group, Room room) {
+        Ship ship = gameState.getCurrentShip();
+        if (ship == null || room.getType() == RoomType.EMPTY
+                || TilePathfinding.getFlowField(ship, room.getX(), room.getY()) == null) {
+            return false;
+        }
+
+        boolean anyOrdered = false;
+        for (int i = 0; i < group.size(); i++) {
+            Crew crew = group.get(i);
+            crew.setTargetRoomX(room.getX());
+            crew.setTargetRoomY(room.getY());
+            crew.clearPath(ship.getNavVersion());
+            crew.setCooperativeRoute(false);
+            crew.setWaitingForPath(false);
+            crew.setFollowingFlowField(true);
+            if (crew.isMoving()) {
+                anyOrdered = true;
+                continue;
+            }
+
+            if (!pickFlowFieldStep(ship, crew)) {
+                // Already in the room, or it cannot be reached
+                crew.setFollowingFlowField(false);
+                continue;
+            }
+            claimNextTile(ship, crew);
+            crew.setMoving(true);
+            crew.setMovementProgress(0.0f);
+            anyOrdered = true;
+        }
+        return anyOrdered;
+    }
+
+    /**
+     * Hand this tick's background route requests to the path service, all against one
+     * snapshot of the ship's navigation grid.
+     */
+    private void submitPathRequests(Ship ship) {
+        ShipState state = stateFor(ship);
+        List<Crew> pathRequests = state.pathRequests;
+        if (pathRequests.isEmpty()) {
+            return;
+        }
+        NavSnapshot snapshot = new NavSnapshot(ship, TilePathfinding.getGraph(ship));
+        if (!pathService.submit(snapshot, pathRequests, state.pathResults)) {
+            for (int i = 0; i < pathRequests.size(); i++) {
+                pathRequests.get(i).setWaitingForPath(false); // Shut down - drop the orders
+            }
+        }
+        pathRequests.clear();
+    }
+
+    /**
+     * Start crew walking on routes the path service finished since the last tick.
+     */
+    private void deliverPathResults(Ship ship) {
+        ConcurrentLinkedQueue<PathService.Result> pathResults = stateFor(ship).pathResults;
+        PathService.Result result;
+        while ((result = pathResults.poll()) != null) {
+            Crew crew = result.crew;
+            if (!crew.isWaitingForPath() || crew.getPathRequestId() != result.requestId) {
+                continue; // Superseded by a later order
+            }
+            crew.setWaitingForPath(false);
+            if (!result.found || result.steps.length == 0 || !ship.getCrew().contains(crew)) {
+                continue;
+            }
+
+            crew.clearPath(ship.getNavVersion());
+            for (int i = 0; i < result.steps.length; i++) {
+                crew.addPathStep(result.steps[i]);
+            }
+            // The route was planned on a snapshot; repair it before the first step if the
+            // layout changed since or crew have settled on it
+            if (result.navVersion != ship.getNavVersion() || isRouteObstructed(ship, result.steps)) {
+                crew.invalidatePath();
+            }
+            startWalking(ship, crew);
+        }
+    }
+
+    private static boolean isRouteObstructed(Ship ship, int[] steps) {
+        for (int i = 0; i < steps.length; i++) {
+            Room room = ship.getRoom(Crew.unpackRoomX(steps[i]), Crew.unpackRoomY(steps[i]));
+            if (room == null) {
+                return true;
+            }
+            Crew occupant = room.getCrewAtTile(Crew.unpackTileX(steps[i]), Crew.unpackTileY(steps[i]));
+            if (occupant != null && !occupant.isMoving()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop the background path workers and tick threads. The simulation keeps working,
+     * solving routes inline and ticking ships one after another.
+     */
+    public void dispose() {
+        pathService.shutdown();
+        for (ShipState state : shipStates.values()) {
+            state.pathResults.clear();
+        }
+        if (tickPool != null) {
+            tickPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Start walking a freshly planned route, taking the first step as if just arrived on the current tile.
+     */
+    private void startWalking(Ship ship, Crew crew) {
+        crew.setMoving(true);
+        crew.setMovementProgress(0.0f);
+        crew.setBlockedSteps(0);
+        chooseNextStep(ship, crew);
+    }
+
+    /**
+     * Pick the next tile from the flow field towards the crew member's target room.
+     * Returns false when the crew member should stop where they are.
+     */
+    private boolean pickFlowFieldStep(Ship ship, Crew crew) {
+        FlowField field = TilePathfinding.getFlowField(ship, crew.getTargetRoomX(), crew.getTargetRoomY());
+        TileNode here = TilePathfinding.getGraph(ship).getNode(crew.getCurrentRoomX(), crew.getCurrentRoomY(),
+                crew.getCurrentTileX(), crew.getCurrentTileY());
+        if (field == null || here == null || field.isInTargetRoom(here)) {
+            return false;
+        }
+
+        TileNode next = field.getNextTile(here);
+        if (next == null) {
+            if (field.getDistance(here) == FlowField.UNREACHABLE) {
+                return false; // Room is full or cut off
+            }
+            // Closer tiles are taken by crew on the move - wait one step and retry
+            next = here;
+        }
+        setNextTile(crew, next);
+        return true;
+    }
+
+    private void updateCrewMovement(Ship ship, float delta) {
+        // Two passes: everyone who finished a step stands on their new tile before anyone
+        // picks their next one, so a tile vacated this tick is free whatever the crew order
+        List<Crew> crewList = ship.getCrew();
+        ShipState state = stateFor(ship);
+        List<Crew> arrivedCrew = state.arrivedCrew;
+        List<Crew> replanCrew = state.replanCrew;
+        arrivedCrew.clear();
+        for (int i = 0; i < crewList.size(); i++) {
+            Crew crew = crewList.get(i);
+            if (!crew.isMoving()) continue;
+
+            // Movement speed: 2 tiles per second = 0.5 seconds per tile
+            crew.setMovementProgress(crew.getMovementProgress() + crew.getMovementSpeed() * delta);
+            if (crew.getMovementProgress() < 1.0f) continue;
+
+            // Reached next tile in path
+            Room currentRoom = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
+            if (currentRoom != null) {
+                currentRoom.removeCrewFromTile(crew.getCurrentTileX(), crew.getCurrentTileY());
+            }
+
+            // Move to next tile
+            crew.setCurrentRoomX(crew.getNextRoomX());
+            crew.setCurrentRoomY(crew.getNextRoomY());
+            crew.setCurrentTileX(crew.getNextTileX());
+            crew.setCurrentTileY(crew.getNextTileY());
+            crew.setMovementProgress(0.0f);
+
+            // Place crew in new tile
+            Room nextRoom = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
+            if (nextRoom != null) {
+                nextRoom.setCrewAtTile(crew.getCurrentTileX(), crew.getCurrentTileY(), crew);
+            }
+            TileNode here = currentNode(ship, crew);
+            if (here != null) {
+                TilePathfinding.getGraph(ship).release(here);
+            }
+            arrivedCrew.add(crew);
+        }
+
+        for (int i = 0; i < arrivedCrew.size(); i++) {
+            chooseNextStep(ship, arrivedCrew.get(i));
+        }
+        arrivedCrew.clear();
+
+        if (!replanCrew.isEmpty()) {
+            TilePathfinding.replanGroupRoutes(ship, replanCrew);
+            for (int i = 0; i < replanCrew.size(); i++) {
+                Crew crew = replanCrew.get(i);
+                if (!crew.hasPathStep()) {
+                    crew.setCooperativeRoute(false); // Could not be planned with the group
+                }
+                chooseNextStep(ship, crew);
+            }
+            replanCrew.clear();
+        }
+    }
+
+    /**
+     * Decide where a crew member who just reached a tile walks next, or stop them.
+     */
+    private void chooseNextStep(Ship ship, Crew crew) {
+        if (crew.isFollowingFlowField()) {
+            if (pickFlowFieldStep(ship, crew)) {
+                claimNextTile(ship, crew);
+            } else {
+                // Settle on the tile reached
+                crew.setTargetTileX(crew.getCurrentTileX());
+                crew.setTargetTileY(crew.getCurrentTileY());
+                stopCrew(ship, crew);
+                publish(stateFor(ship).events, GameEvent.CREW_ARRIVED, ship).crew = crew;
+            }
+            return;
+        }
+
+        if (crew.isCooperativeRoute()) {
+            // Planned together with the rest of the selection: others stopping does not
+            // invalidate it, and a blocked step means someone is running late - wait for them.
+            // The route may pass over the target on the way to a free goal, so only its end counts
+            if (!crew.hasPathStep()) {
+                if (isAtTarget(crew)) {
+                    stopCrew(ship, crew);
+                    publish(stateFor(ship).events, GameEvent.CREW_ARRIVED, ship).crew = crew;
+                } else {
+                    stateFor(ship).replanCrew.add(crew); // Walked the planned window; plan the next one with the group
+                }
+                return;
+            }
+            if (isNextStepFree(ship, crew)) {
+                crew.advancePath();
+                claimNextTile(ship, crew);
+                return;
+            }
+            if (crew.getBlockedSteps() < MAX_BLOCKED_STEPS) {
+                crew.setBlockedSteps(crew.getBlockedSteps() + 1);
+                setNextTile(crew, currentNode(ship, crew));
+                return;
+            }
+            // Whoever is in the way fell out of step with the plan; plan around them
+            crew.clearPath(ship.getNavVersion());
+            stateFor(ship).replanCrew.add(crew);
+            return;
+        }
+
+        // Check if reached final destination
+        if (isAtTarget(crew)) {
+            stopCrew(ship, crew);
+            publish(stateFor(ship).events, GameEvent.CREW_ARRIVED, ship).crew = crew;
+            return;
+        }
+
+        // Follow the planned route; replan only if it was invalidated or the next tile got occupied
+        if (!isRouteValid(ship, crew) && !replanRoute(ship, crew)) {
+            // Path blocked, stop movement
+            stopCrew(ship, crew);
+            return;
+        }
+        crew.advancePath();
+        claimNextTile(ship, crew);
+    }
+
+    /**
+     * Route a walking crew member again. A route that went stale is repaired incrementally;
+     * one that simply ran out (a single room hop on a large ship) gets the next hop planned.
+     */
+    private boolean replanRoute(Ship ship, Crew crew) {
+        if (crew.hasPathStep() || TilePathfinding.hasIncrementalRoute(ship, crew)) {
+            return TilePathfinding.repairRoute(ship, crew);
+        }
+        return TilePathfinding.planRoute(ship, crew);
+    }
+
+    private static boolean isAtTarget(Crew crew) {
+        return crew.getCurrentRoomX() == crew.getTargetRoomX() &&
+            crew.getCurrentRoomY() == crew.getTargetRoomY() &&
+            crew.getCurrentTileX() == crew.getTargetTileX() &&
+            crew.getCurrentTileY() == crew.getTargetTileY();
+    }
+
+    private boolean isRouteValid(Ship ship, Crew crew) {
+        return crew.getPathVersion() == ship.getNavVersion() && isNextStepFree(ship, crew);
+    }
+
+    /**
+     * Whether the next step of the route can be taken now: a wait, or a free tile nobody is stepping into.
+     */
+    private boolean isNextStepFree(Ship ship, Crew crew) {
+        if (!crew.hasPathStep()) {
+            return false;
+        }
+        int next = crew.peekPathStep();
+        ShipTileGraph graph = TilePathfinding.getGraph(ship);
+        TileNode node = graph.getNode(Crew.unpackRoomX(next), Crew.unpackRoomY(next),
+                Crew.unpackTileX(next), Crew.unpackTileY(next));
+        if (!graph.isPassable(node)) {
+            return false;
+        }
+        if (node == currentNode(ship, crew)) {
+            return true;
+        }
+        return node.getRoom().isTileEmpty(node.tileX, node.tileY) && !graph.isClaimed(node);
+    }
+
+    private TileNode currentNode(Ship ship, Crew crew) {
+        return TilePathfinding.getGraph(ship).getNode(crew.getCurrentRoomX(), crew.getCurrentRoomY(),
+                crew.getCurrentTileX(), crew.getCurrentTileY());
+    }
+
+    private static void setNextTile(Crew crew, TileNode next) {
+        crew.setNextRoomX(next.roomX);
+        crew.setNextRoomY(next.roomY);
+        crew.setNextTileX(next.tileX);
+        crew.setNextTileY(next.tileY);
+    }
+
+    /**
+     * Claim the tile a crew member is stepping into so nobody else picks it before they arrive.
+     */
+    private void claimNextTile(Ship ship, Crew crew) {
+        if (crew.getNextRoomX() == crew.getCurrentRoomX() && crew.getNextRoomY() == crew.getCurrentRoomY()
+                && crew.getNextTileX() == crew.getCurrentTileX() && crew.getNextTileY() == crew.getCurrentTileY()) {
+            return; // Waiting in place
+        }
+        ShipTileGraph graph = TilePathfinding.getGraph(ship);
+        TileNode next = graph.getNode(crew.getNextRoomX(), crew.getNextRoomY(), crew.getNextTileX(), crew.getNextTileY());
+        if (next != null) {
+            graph.claim(next);
+        }
+    }
+
+    private void stopCrew(Ship ship, Crew crew) {
+        crew.setMoving(false);
+        crew.setFollowingFlowField(false);
+        crew.setCooperativeRoute(false);
+        crew.setBlockedSteps(0);
+        crew.clearPath(ship.getNavVersion());
+        TilePathfinding.releaseRoute(ship, crew);
+        // A crew member standing still is a new obstacle for the routes through their tile
+        TilePathfinding.tileOccupied(ship, crew);
+    }
+
+    private void updateFireSystem(Ship ship, float delta) {
+        ShipState state = stateFor(ship);
+        state.fireSpread.step(ship.getTileStore(), delta);
+
+        // Burning tiles damage their room's system and whoever stands on them
+        List<Room> rooms = ship.getRooms();
+        if (state.roomBurning.length != rooms.size()) {
+            state.roomBurning = new boolean[rooms.size()];
+        }
+        for (int i = 0; i < rooms.size(); i++) {
+            Room room = rooms.get(i);
+            float burning = 0.0f;
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                for (int tileY = 0; tileY < Room.TILES; tileY++) {
+                    burning += room.getTileFire(tileX, tileY);
+                }
+            }
+            if (burning > 0.0f) {
+                room.addFractionalDamage(burning * ROOM_FIRE_DAMAGE * delta);
+                if (!state.roomBurning[i]) {
+                    publish(state.events, GameEvent.ROOM_FIRE_STARTED, ship).room = room;
+                }
+            }
+            state.roomBurning[i] = burning > 0.0f;
+        }
+        List<Crew> crewList = ship.getCrew();
+        for (int i = 0; i < crewList.size(); i++) {
+            Crew crew = crewList.get(i);
+            Room room = ship.getRoom(crew.getCurrentRoomX(), crew.getCurrentRoomY());
+            if (room == null) continue;
+            float fire = room.getTileFire(crew.getCurrentTileX(), crew.getCurrentTileY());
+            if (fire > 0.0f) {
+                crew.addFractionalDamage(fire * CREW_FIRE_DAMAGE * delta);
+            }
+        }
+    }
+
+    private void updateOxygenSystem(Ship ship, float delta) {
+        Room oxygenRoom = ship.getFirstRoomOfType(RoomType.OXYGEN);
+        float source = oxygenRoom != null ? getOxygenPerSecond(oxygenRoom) * delta : 0.0f;
+
+        // Gas spreads through rooms and doors and vents out of breaches, oxygen system or not
+        stateFor(ship).oxygenDiffusion.step(ship.getTileStore(), delta, source);
+    }
+
+    /**
+     * Oxygen added to every tile per second by the oxygen system (negative drains).
+     */
+    static float getOxygenPerSecond(Room oxygenRoom) {
+        if (oxygenRoom.getPowerLevel() > 0) {
+            // If oxygen system is powered, replenish every tile
+            return 0.8f * oxygenRoom.getPowerLevel(); // 80% per second per power level
+        }
+        // If oxygen system is not powered, slowly drain oxygen
+        return -0.1f; // 10% per second
+    }
+
+    private void updateRepairSystems(Ship ship, float delta) {
+        // Repair systems based on crew in each room
+        for (Room room : ship.getRooms()) {
+            if (room.getType() == RoomType.EMPTY) continue;
+            if (room.getHealth() >= room.getMaxHealth()) continue;
+
+            // Calculate total repair rate from all crew in this room
+            float totalRepairRate = 0.0f;
+            for (int tileX = 0; tileX < Room.TILES; tileX++) {
+                for (int tileY = 0; tileY < Room.TILES; tileY++) {
+                    Crew crew = room.getCrewAtTile(tileX, tileY);
+                    if (crew != null && !crew.isMoving()) {
+                        totalRepairRate += getRepairRate(crew);
+                    }
+                }
+            }
+
+            // Repair rate is percentage of max health per second; fractional
+            // health accumulation handles the small per-tick increments
+            if (totalRepairRate > 0.0f) {
+                room.addFractionalHealth(totalRepairRate * room.getMaxHealth() * delta);
+            }
+        }
+    }
+
+    /**
+     * Repair rate of a crew member as a fraction of max health per second.
+     * A trained Engineer (level 1 = 100 XP) repairs 0% to 100% in 5 seconds = 20% per second.
+     * Level 0 with some XP repairs at 10% per second, and anyone at least at 5% per second.
+     */
+    static float getRepairRate(Crew crew) {
+        if (crew.getSkillXP(Skill.ENGINEERING) <= 0) {
+            return 0.05f;
+        }
+        return 0.10f + (0.10f * crew.getSkillLevel(Skill.ENGINEERING));
+    }
+
+    /**
+     * Elapsed simulated time in seconds.
+     */
+    public float getTime() {
+        return tickCount * tickSeconds;
+    }
+
+    public long getTickCount() { return tickCount; }
+    public float getTickSeconds() { return tickSeconds; }
+}
@@ -0,0 +1,94 @@
+package io.github.n3wang.voidcodex.sim;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link ShipSimulation} on its own thread at its fixed tick rate, so frame rendering
+ * is isolated from simulation spikes and the simulation gets a core of its own.
+ * Everything that changes game state is passed in as a command ({@link #execute}) and runs
+ * on this thread before the next tick; the renderer reads the ships through
+ * {@link ShipSimulation#getSnapshots}, published after every loop. Event listeners run on
+ * this thread too.
+ * If a command or tick throws, the thread stops and {@link #checkFailure} rethrows the error.
+ */
+public class SimulationThread {
+    private final ShipSimulation simulation;
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+    private volatile boolean running;
+    private volatile Throwable failure;
+
+    public SimulationThread(ShipSimulation simulation) {
+        this.simulation = simulation;
+        this.thread = new Thread(this::loop, "simulation");
+        this.thread.setDaemon(true); // Never keeps the game from exiting
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stop after the current loop and wait for the thread to finish. Commands not yet run are dropped.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commands.clear();
+    }
+
+    public boolean isRunning() { return running; }
+
+    /**
+     * Run a command on the simulation thread before its next tick. Commands run in the order given.
+     */
+    public void execute(Runnable command) {
+        commands.add(command);
+    }
+
+    /**
+     * Rethrow whatever stopped the thread, if anything did.
+     */
+    public void checkFailure() {
+        Throwable error = failure;
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+    }
+
+    private void loop() {
+        long tickNanos = (long) (simulation.getTickSeconds() * 1_000_000_000L);
+        long last = System.nanoTime();
+        try {
+            while (running) {
+                Runnable command;
+                while ((command = commands.poll()) != null) {
+                    command.run();
+                }
+                long now = System.nanoTime();
+                simulation.update((now - last) / 1_000_000_000f);
+                last = now;
+                simulation.publishSnapshots();
+
+                // Sleep out the rest of the tick; the simulation's accumulator absorbs oversleeping
+                long wait = tickNanos - (System.nanoTime() - now);
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            running = false;
+        }
+    }
+}
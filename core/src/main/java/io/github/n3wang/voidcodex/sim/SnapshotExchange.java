@@ -0,0 +1,51 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.CombatState;
+import io.github.n3wang.voidcodex.model.Ship;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free hand-off of one ship's {@link RenderSnapshot}s from the simulation thread to the
+ * render thread, with three buffers: one being filled, one published, one being drawn.
+ * Neither side ever waits for the other; the reader always gets the latest complete
+ * snapshot, and a snapshot is never written while the reader holds it.
+ */
+public final class SnapshotExchange {
+    private final AtomicReference<RenderSnapshot> ready = new AtomicReference<>(new RenderSnapshot());
+    private volatile long published; // Sequence of the snapshot last put in ready
+    private RenderSnapshot writing = new RenderSnapshot(); // Simulation thread only
+    private RenderSnapshot reading = new RenderSnapshot(); // Render thread only
+    private final RenderSnapshot previous = new RenderSnapshot(); // Crew as of the last tick's start, simulation thread only
+
+    /**
+     * Remember where the crew are before a tick, to interpolate from. Simulation thread only.
+     */
+    void beginTick(Ship ship) {
+        previous.captureCrew(ship.getCrew());
+    }
+
+    /**
+     * Take a snapshot of a ship, and of the combat its game is in, and make it the latest.
+     * Simulation thread only.
+     */
+    void publish(Ship ship, CombatState combat, long tick, float tickAlpha, double ticksPerNano) {
+        long sequence = published + 1;
+        writing.fill(ship, combat, tick, previous, tickAlpha, ticksPerNano);
+        writing.sequence = sequence;
+        writing = ready.getAndSet(writing);
+        published = sequence;
+    }
+
+    /**
+     * The latest published snapshot, or null if none has been published yet. It stays valid
+     * (and unchanged) until the next call from anywhere on the render thread, so readers
+     * sharing an exchange acquire again rather than keep it across frames. Render thread only.
+     */
+    public RenderSnapshot acquire() {
+        if (published > reading.sequence) {
+            reading = ready.getAndSet(reading);
+        }
+        return reading.sequence > 0 ? reading : null;
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.Weapon;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weapon charging and shield regeneration as scheduled events on a {@link TimingWheel}.
+ * Weapons charge lazily ({@link Weapon#getCurrentCharge(long)}); the only events are
+ * "weapon fully charged" and "shield layer back up". A ship's events are recomputed only
+ * when its systems version changes (power moved, weapon fired or added, shields hit), so a
+ * tick costs one version check per ship plus the events that fire.
+ */
+final class SystemTimers {
+    static final float WEAPON_CHARGE_PER_SECOND = 1.0f; // Charge units a powered weapon gains per second
+    static final float SHIELD_LAYER_SECONDS = 2.0f; // Time to bring one shield layer back up
+
+    private final TimingWheel wheel;
+    private final float weaponChargePerTick;
+    private final int shieldLayerTicks;
+    private final Map<Ship, ShipTimers> timers = new IdentityHashMap<>();
+
+    private static final class WeaponCharged extends TimingWheel.Timer {
+        final Weapon weapon;
+
+        WeaponCharged(Weapon weapon) {
+            this.weapon = weapon;
+        }
+
+        @Override
+        protected void fire(long tick) {
+            weapon.setChargeRate(tick, weapon.getChargePerTick()); // Settles the charge at full
+        }
+    }
+
+    private final class ShieldLayer extends TimingWheel.Timer {
+        final ShipTimers owner;
+
+        ShieldLayer(ShipTimers owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        protected void fire(long tick) {
+            Ship ship = owner.ship;
+            ship.setShields(ship.getShields() + 1);
+            owner.systemsVersion = ship.getSystemsVersion(); // Our own change - no full reschedule
+            if (ship.getShields() < ship.getMaxShields()) {
+                wheel.schedule(this, tick + shieldLayerTicks);
+            }
+        }
+    }
+
+    private final class ShipTimers {
+        final Ship ship;
+        final List<WeaponCharged> weapons = new ArrayList<>();
+        final ShieldLayer shield = new ShieldLayer(this);
+        int systemsVersion;
+
+        ShipTimers(Ship ship) {
+            this.ship = ship;
+            this.systemsVersion = ship.getSystemsVersion() - 1; // Scheduled on first update
+        }
+    }
+
+    SystemTimers(long startTick, float tickSeconds) {
+        this.wheel = new TimingWheel(startTick);
+        this.weaponChargePerTick = WEAPON_CHARGE_PER_SECOND * tickSeconds;
+        this.shieldLayerTicks = Math.max(1, Math.round(SHIELD_LAYER_SECONDS / tickSeconds));
+    }
+
+    /**
+     * Reschedule ships whose systems changed, then fire everything due up to the tick.
+     */
+    void update(List<Ship> ships, long tick) {
+        if (timers.size() > ships.size()) {
+            retain(ships);
+        }
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            ShipTimers shipTimers = timers.get(ship);
+            if (shipTimers == null) {
+                shipTimers = new ShipTimers(ship);
+                timers.put(ship, shipTimers);
+            }
+            if (shipTimers.systemsVersion != ship.getSystemsVersion()) {
+                reschedule(shipTimers, tick);
+            }
+        }
+        wheel.advance(tick);
+    }
+
+    private void reschedule(ShipTimers shipTimers, long tick) {
+        Ship ship = shipTimers.ship;
+        shipTimers.systemsVersion = ship.getSystemsVersion();
+
+        List<Weapon> weapons = ship.getWeapons();
+        List<WeaponCharged> charged = shipTimers.weapons;
+        if (charged.size() != weapons.size()) {
+            for (int i = 0; i < charged.size(); i++) {
+                wheel.cancel(charged.get(i));
+            }
+            charged.clear();
+            for (int i = 0; i < weapons.size(); i++) {
+                charged.add(new WeaponCharged(weapons.get(i)));
+            }
+        }
+        Room weaponRoom = ship.getFirstRoomOfType(RoomType.WEAPONS);
+        for (int i = 0; i < charged.size(); i++) {
+            WeaponCharged timer = charged.get(i);
+            Weapon weapon = timer.weapon;
+            boolean powered = weaponRoom != null && weaponRoom.getPowerLevel() >= weapon.getPowerRequired();
+            weapon.setChargeRate(tick, powered ? weaponChargePerTick : 0);
+            long due = weapon.getChargedTick();
+            if (due > tick) {
+                wheel.schedule(timer, due);
+            } else {
+                wheel.cancel(timer); // Full already, or not charging
+            }
+        }
+
+        Room shieldRoom = ship.getFirstRoomOfType(RoomType.SHIELDS);
+        boolean regenerating = shieldRoom != null && shieldRoom.getPowerLevel() > 0
+                && ship.getShields() < ship.getMaxShields();
+        if (!regenerating) {
+            wheel.cancel(shipTimers.shield);
+        } else if (!shipTimers.shield.isScheduled()) {
+            wheel.schedule(shipTimers.shield, tick + shieldLayerTicks); // A layer in progress keeps its time
+        }
+    }
+
+    void remove(Ship ship) {
+        ShipTimers shipTimers = timers.remove(ship);
+        if (shipTimers != null) {
+            cancelAll(shipTimers);
+        }
+    }
+
+    private void retain(List<Ship> ships) {
+        List<Ship> stale = new ArrayList<>();
+        for (Ship ship : timers.keySet()) {
+            if (!ships.contains(ship)) {
+                stale.add(ship);
+            }
+        }
+        for (int i = 0; i < stale.size(); i++) {
+            remove(stale.get(i));
+        }
+    }
+
+    private void cancelAll(ShipTimers shipTimers) {
+        for (int i = 0; i < shipTimers.weapons.size(); i++) {
+            WeaponCharged timer = shipTimers.weapons.get(i);
+            wheel.cancel(timer);
+            timer.weapon.setChargeRate(wheel.getTick(), 0); // Frozen while out of the simulation
+        }
+        wheel.cancel(shipTimers.shield);
+    }
+}
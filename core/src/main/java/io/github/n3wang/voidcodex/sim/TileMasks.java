@@ -0,0 +1,74 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.TileStateStore;
+
+/**
+ * Float masks (1 or 0 per tile) derived from a {@link TileStateStore}'s flags, so tile
+ * passes can multiply by walls and breaches instead of branching on them.
+ * Rebuilt only when the store's flags change.
+ */
+final class TileMasks {
+    private TileStateStore store;
+    private int flagVersion;
+    float[] interior = new float[0];
+    float[] breach = new float[0];
+    float[] openPlusX = new float[0]; // Tile i and i + 1 are connected
+    float[] openPlusY = new float[0]; // Tile i and i + tilesWide are connected
+
+    /**
+     * Bring the masks up to date with a store's flags.
+     */
+    void update(TileStateStore tiles) {
+        if (tiles == store && tiles.getFlagVersion() == flagVersion) {
+            return;
+        }
+        int wide = tiles.getTilesWide();
+        int count = tiles.getTileCount();
+        byte[] flags = tiles.getFlagsArray();
+        if (interior.length != count) {
+            interior = new float[count];
+            breach = new float[count];
+            openPlusX = new float[count];
+            openPlusY = new float[count];
+        }
+        for (int tile = 0; tile < count; tile++) {
+            boolean inside = (flags[tile] & TileStateStore.FLAG_INTERIOR) != 0;
+            interior[tile] = inside ? 1.0f : 0.0f;
+            breach[tile] = (flags[tile] & TileStateStore.FLAG_BREACH) != 0 ? 1.0f : 0.0f;
+            // Adjacent non-empty rooms always share a door, so any two interior neighbours connect
+            boolean plusX = tile % wide + 1 < wide && (flags[tile + 1] & TileStateStore.FLAG_INTERIOR) != 0;
+            boolean plusY = tile + wide < count && (flags[tile + wide] & TileStateStore.FLAG_INTERIOR) != 0;
+            openPlusX[tile] = inside && plusX ? 1.0f : 0.0f;
+            openPlusY[tile] = inside && plusY ? 1.0f : 0.0f;
+        }
+        store = tiles;
+        flagVersion = tiles.getFlagVersion();
+    }
+
+    /**
+     * Sum over a tile's connected neighbours of {@code values[neighbour] - values[tile]},
+     * with bounds checks, for tiles in the first or last row.
+     */
+    float edgeFlow(float[] values, int tile, int wide, int count) {
+        float value = values[tile];
+        float flow = 0.0f;
+        if (tile + 1 < count) flow += openPlusX[tile] * (values[tile + 1] - value);
+        if (tile >= 1) flow += openPlusX[tile - 1] * (values[tile - 1] - value);
+        if (tile + wide < count) flow += openPlusY[tile] * (values[tile + wide] - value);
+        if (tile >= wide) flow += openPlusY[tile - wide] * (values[tile - wide] - value);
+        return flow;
+    }
+
+    /**
+     * Sum of {@code values} over a tile's connected neighbours, with bounds checks,
+     * for tiles in the first or last row.
+     */
+    float edgeSum(float[] values, int tile, int wide, int count) {
+        float sum = 0.0f;
+        if (tile + 1 < count) sum += openPlusX[tile] * values[tile + 1];
+        if (tile >= 1) sum += openPlusX[tile - 1] * values[tile - 1];
+        if (tile + wide < count) sum += openPlusY[tile] * values[tile + wide];
+        if (tile >= wide) sum += openPlusY[tile - wide] * values[tile - wide];
+        return sum;
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.n3wang.voidcodex.sim;
+
+/**
+ * Hierarchical timing wheel keyed by simulation tick: four levels of 64 slots, each level
+ * covering 64 times the span of the one below. A timer sits in the slot of the coarsest
+ * level it fits and drops a level each time the wheel turns past that slot, so advancing
+ * one tick costs the timers fired plus the few cascaded, however many are scheduled.
+ * Timers are intrusive list nodes: scheduling and cancelling allocate nothing and are O(1).
+ * Not thread-safe.
+ */
+public class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4; // 64^4 ticks, about 77 hours at 60 ticks a second
+
+    /**
+     * Something that happens at a tick. Subclass and keep the instance; it can be scheduled
+     * again from its own {@link #fire}.
+     */
+    public abstract static class Timer {
+        private long due;
+        private Timer previous;
+        private Timer next;
+        private int level = -1; // -1 when not scheduled
+        private int slot;
+
+        public boolean isScheduled() { return level >= 0; }
+        public long getDue() { return due; }
+
+        protected abstract void fire(long tick);
+    }
+
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS]; // Head of each slot's list
+    private long now; // Every timer due at or before this tick has fired
+    private int size;
+
+    public TimingWheel(long startTick) {
+        this.now = startTick;
+    }
+
+    public long getTick() { return now; }
+    public int size() { return size; }
+
+    /**
+     * Schedule a timer, replacing any earlier schedule. Due ticks that have passed fire on
+     * the next advance.
+     */
+    public void schedule(Timer timer, long dueTick) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+        timer.due = Math.max(dueTick, now + 1);
+        insert(timer);
+        size++;
+    }
+
+    public void cancel(Timer timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+    }
+
+    /**
+     * Turn the wheel to a tick, firing every timer due up to and including it in tick order.
+     */
+    public void advance(long toTick) {
+        while (now < toTick) {
+            now++;
+            // Cascade coarse slots whose span starts now, highest level first
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (now >>> (SLOT_BITS * level)) & (SLOTS - 1));
+                }
+            }
+            int slot = (int) now & (SLOTS - 1);
+            Timer timer = slots[0][slot];
+            slots[0][slot] = null;
+            while (timer != null) {
+                Timer next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                timer.level = -1;
+                size--;
+                timer.fire(now); // May schedule itself or others again
+                timer = next;
+            }
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        Timer timer = slots[level][slot];
+        slots[level][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            timer.previous = null;
+            timer.next = null;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer timer) {
+        long delta = timer.due - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        // Past the top level's span a timer waits in its top slot and is re-sorted each turn
+        int slot = (int) (timer.due >>> (SLOT_BITS * level)) & (SLOTS - 1);
+        Timer head = slots[level][slot];
+        timer.level = level;
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = head;
+        if (head != null) {
+            head.previous = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.previous != null) {
+            timer.previous.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.previous = timer.previous;
+        }
+        timer.previous = null;
+        timer.next = null;
+        timer.level = -1;
+        size--;
+    }
+}
@@ -217,12 +217,20 @@ public class AutomationHandler {
         try {
             FileHandle statusFile = Gdx.files.local(STATUS_FILE);
 
-            // Create status JSON
+            // Create status JSON (render calls are the previous frame's; this runs before drawing)
+            int renderCalls = game.getScreen() instanceof GameScreen ? ((GameScreen) game.getScreen()).getRenderCalls() : -1;
             String status = String.format(
-                "{\"currentScreen\":\"%s\",\"timestamp\":%d,\"fps\":%d}",
+                "{\"currentScreen\":\"%s\",\"timestamp\":%d,\"fps\":%d,\"renderCalls\":%d,"
+                    + "\"spriteCache\":{\"hits\":%d,\"misses\":%d,\"evictions\":%d,\"residentBytes\":%d,\"budgetBytes\":%d}}",
                 currentScreen,
                 System.currentTimeMillis(),
-                Gdx.graphics.getFramesPerSecond()
+                Gdx.graphics.getFramesPerSecond(),
+                renderCalls,
+                PixelArtGenerator.getHits(),
+                PixelArtGenerator.getMisses(),
+                PixelArtGenerator.getEvictions(),
+                PixelArtGenerator.getResidentBytes(),
+                PixelArtGenerator.getBudgetBytes()
             );
 
             statusFile.writeString(status, false);
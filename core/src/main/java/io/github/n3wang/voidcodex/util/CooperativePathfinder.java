@@ -0,0 +1,580 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.util.ShipTileGraph.TileNode;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Windowed cooperative A* (WHCA*) for dispatching a whole crew selection in one query.
+ * The selection is sent to the free tiles nearest the clicked one. Crew are interchangeable,
+ * so nobody is handed a particular tile: each agent heads for the nearest goal that may be
+ * taken and takes the first one their route reaches. Goals are taken nearest the clicked
+ * tile first, so crew arriving early never wall off the ones further in. Agents are planned
+ * one after another in space-time (tile, step), and every planned route goes into a shared
+ * {@link ReservationTable} so later agents route or wait around it; collisions are resolved
+ * in planning instead of by stopping crew mid-walk. A wait shows up in a route as the same
+ * tile repeated.
+ * Searches only look WINDOW steps ahead; crew walk the first half of the window and then the
+ * group is planned again ({@link #replanGroup}) towards the goals still free at that point.
+ * Agents that cannot be planned hold position for a while and then get an ordinary route.
+ * The heuristic is one breadth-first search out from all the goals that may be taken at once,
+ * around crew standing still, shared by the whole batch and only redone when the next ring of
+ * goals opens. Reservations and visited states are dense arrays.
+ * Search state is kept per ship layout and reused, so a batch allocates nothing once warm.
+ * Not thread-safe - call from the simulation thread only.
+ */
+public class CooperativePathfinder {
+    public static final int WINDOW = 12; // Steps planned ahead in space-time
+    public static final int ROUTE_STEPS = WINDOW / 2; // Steps walked before the group is planned again
+    private static final int MAX_EXPANSIONS = 512; // Search budget per agent
+    private static final int MAX_HELD_STEPS = ROUTE_STEPS * 3; // Steps an unplannable agent holds before going alone
+    private static final int MAX_RECORDS = MAX_EXPANSIONS * 5 + 1; // Each expansion adds at most 5 states
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final ShipTileGraph graph;
+    private final ReservationTable reservations;
+
+    // The batch's goals: the free tiles nearest the clicked one (the anchor) that the agents
+    // can reach, taken nearest first so crew settling early never wall off the goals further in
+    private TileNode anchor;
+    private final int[] anchorDistance; // Ignoring crew; kept until a group with another anchor is planned
+    private final int[] anchorOrder; // Tiles reachable from the anchor, nearest first
+    private int reachableCount;
+    private final IntArray goalTiles = new IntArray(); // Nearest the anchor first
+    private int nextGoal; // First of goalTiles not taken yet
+    private int openDistance = UNREACHABLE; // Anchor distance of the goals that may be taken now
+    private final boolean[] isGoal; // Goals nobody has taken yet
+    private final boolean[] claimed; // Goals crew walking an earlier window are heading for
+    private final boolean[] settled; // Tiles crew standing still are on
+    private final int[] goalDistance; // To the nearest goal that may be taken, around crew standing still
+    private final int[] queue;
+    private final IntArray claimedTiles = new IntArray();
+
+    // Batch scratch, reused between batches
+    private final Array<Crew> agents = new Array<>();
+    private final Array<TileNode> starts = new Array<>();
+    private final Comparator<Crew> byPriority;
+
+    // Space-time search records
+    private final int[] stateStamp; // Per node * (WINDOW + 1) + step, searchStamp once visited
+    private int searchStamp;
+    private final int[] recordNode = new int[MAX_RECORDS];
+    private final int[] recordStep = new int[MAX_RECORDS];
+    private final int[] recordParent = new int[MAX_RECORDS];
+    private final int[] recordCost = new int[MAX_RECORDS]; // Step + heuristic
+    private final int[] recordNext = new int[MAX_RECORDS]; // Next record in the same bucket
+    private final int[] routeScratch = new int[WINDOW + 1];
+    private int recordCount;
+    // Open records bucketed by cost above the start's. The heuristic is consistent, so a
+    // cost is at most two per step above the start's and never drops below the lowest open one
+    private final int[] bucketHead = new int[WINDOW * 2 + 1];
+    private int baseCost;
+    private int lowestBucket;
+    private int openCount;
+
+    public CooperativePathfinder(ShipTileGraph graph) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.reservations = new ReservationTable(nodeCount, WINDOW + 3);
+        this.anchorDistance = new int[nodeCount];
+        this.anchorOrder = new int[nodeCount];
+        this.isGoal = new boolean[nodeCount];
+        this.claimed = new boolean[nodeCount];
+        this.settled = new boolean[nodeCount];
+        this.goalDistance = new int[nodeCount];
+        this.queue = new int[nodeCount];
+        this.stateStamp = new int[nodeCount * (WINDOW + 1)];
+        this.byPriority = new Comparator<Crew>() {
+            @Override
+            public int compare(Crew a, Crew b) {
+                // Crew that were held last time go first, then the crew nearest a goal
+                if (a.getBlockedSteps() != b.getBlockedSteps()) {
+                    return Integer.compare(b.getBlockedSteps(), a.getBlockedSteps());
+                }
+                return Integer.compare(goalDistance[startOf(a).index], goalDistance[startOf(b).index]);
+            }
+        };
+    }
+
+    /**
+     * Send a group of crew to the free tiles nearest the clicked one.
+     * Each crew member gets the first part of a route in their path buffer, and as target
+     * the goal it ends on (or the clicked tile if it ends short of one); crew marked with
+     * {@link Crew#isCooperativeRoute()} follow a space-time route that may contain waits.
+     * Crew that cannot be routed cooperatively get an ordinary route (or, if already walking,
+     * an empty one so they replan when they reach their next tile).
+     * Returns the number of crew given a cooperative route.
+     */
+    public int planGroup(Ship ship, List<Crew> group, int roomX, int roomY, int tileX, int tileY) {
+        TileNode anchor = graph.getNode(roomX, roomY, tileX, tileY);
+        if (!graph.isPassable(anchor)) {
+            return 0;
+        }
+
+        reservations.clear();
+        agents.clear();
+        if (anchor != this.anchor) {
+            computeAnchorDistances(anchor);
+        }
+        int packedAnchor = Crew.packTile(anchor.roomX, anchor.roomY, anchor.tileX, anchor.tileY);
+        for (int i = 0; i < group.size(); i++) {
+            Crew crew = group.get(i);
+            TileNode start = startOf(crew);
+            if (!graph.isPassable(start) || anchorDistance[start.index] == UNREACHABLE) continue;
+            crew.setGroupAnchor(packedAnchor);
+            crew.setBlockedSteps(0);
+            agents.add(crew);
+        }
+        if (agents.size == 0) {
+            return 0;
+        }
+
+        markSettled(ship, true);
+        unsettleAgents();
+        openGoals(agents.size);
+        return planBatch(ship);
+    }
+
+    /**
+     * Plan the next window for crew on cooperative routes that have walked their current
+     * one. The crew should be in step (all just reached a tile).
+     * Returns the number of crew given a cooperative route.
+     */
+    public int replanGroup(Ship ship, List<Crew> group) {
+        reservations.clear();
+        agents.clear();
+        for (int i = 0; i < group.size(); i++) {
+            Crew crew = group.get(i);
+            if (!graph.isPassable(startOf(crew))) continue;
+            agents.add(crew);
+        }
+        if (agents.size == 0) {
+            return 0;
+        }
+        // The group shares its anchor, so this is normally the distance field already computed
+        int packedAnchor = agents.get(0).getGroupAnchor();
+        TileNode groupAnchor = unpack(packedAnchor);
+        if (!graph.isPassable(groupAnchor)) {
+            return 0;
+        }
+        if (groupAnchor != anchor) {
+            computeAnchorDistances(groupAnchor);
+        }
+        // Crew from another order (a different anchor) are left to route alone
+        for (int i = agents.size - 1; i >= 0; i--) {
+            if (agents.get(i).getGroupAnchor() != packedAnchor) {
+                agents.removeIndex(i);
+            }
+        }
+
+        markSettled(ship, true);
+        unsettleAgents();
+        int stillLooking = reserveWalkingRoutes(ship, packedAnchor);
+        openGoals(agents.size + stillLooking);
+        return planBatch(ship);
+    }
+
+    private int planBatch(Ship ship) {
+        agents.sort(byPriority);
+        reserveStarts();
+        int planned = planAgents(ship);
+        markSettled(ship, false);
+        for (int i = 0; i < goalTiles.size; i++) {
+            isGoal[goalTiles.get(i)] = false;
+        }
+        for (int i = 0; i < claimedTiles.size; i++) {
+            claimed[claimedTiles.get(i)] = false;
+        }
+        goalTiles.clear();
+        claimedTiles.clear();
+        return planned;
+    }
+
+    private void markSettled(Ship ship, boolean value) {
+        List<Crew> crewList = ship.getCrew();
+        for (int i = 0; i < crewList.size(); i++) {
+            Crew crew = crewList.get(i);
+            if (!crew.isMoving()) {
+                TileNode node = graph.getNode(crew.getCurrentRoomX(), crew.getCurrentRoomY(),
+                        crew.getCurrentTileX(), crew.getCurrentTileY());
+                if (node != null) {
+                    settled[node.index] = value;
+                }
+            }
+        }
+    }
+
+    private void unsettleAgents() {
+        for (int i = 0; i < agents.size; i++) {
+            settled[startOf(agents.get(i)).index] = false; // The agents are the ones moving off
+        }
+    }
+
+    /**
+     * The free tiles nearest the anchor that the agents can reach become the batch's goals,
+     * and the distance to the nearest of them is worked out for every tile.
+     */
+    private void openGoals(int count) {
+        // Which tiles the agents can reach around crew standing still
+        Arrays.fill(goalDistance, UNREACHABLE);
+        int tail = 0;
+        for (int i = 0; i < agents.size; i++) {
+            int start = startOf(agents.get(i)).index;
+            if (goalDistance[start] == UNREACHABLE) {
+                goalDistance[start] = 0;
+                queue[tail++] = start;
+            }
+        }
+        breadthFirst(tail);
+
+        goalTiles.clear();
+        nextGoal = 0;
+        for (int i = 0; i < reachableCount && goalTiles.size < count; i++) {
+            int index = anchorOrder[i];
+            if (settled[index] || claimed[index] || goalDistance[index] == UNREACHABLE) continue;
+            isGoal[index] = true;
+            goalTiles.add(index);
+        }
+        openDistance = UNREACHABLE;
+        updateOpenGoals();
+    }
+
+    /**
+     * Goals can be taken once no goal nearer the anchor is left, so crew settle from the
+     * inside out. When the last of the nearest goals has been taken, the next ring opens
+     * and goalDistance is worked out again; until then it may count taken goals, which
+     * still leaves it a lower bound.
+     */
+    private void updateOpenGoals() {
+        while (nextGoal < goalTiles.size && !isGoal[goalTiles.get(nextGoal)]) {
+            nextGoal++;
+        }
+        if (nextGoal == goalTiles.size) {
+            return; // All taken: the rest end their window as near the goals as they can
+        }
+        int distance = anchorDistance[goalTiles.get(nextGoal)];
+        if (distance == openDistance) {
+            return;
+        }
+        openDistance = distance;
+        Arrays.fill(goalDistance, UNREACHABLE);
+        int tail = 0;
+        for (int i = nextGoal; i < goalTiles.size; i++) {
+            int index = goalTiles.get(i);
+            if (anchorDistance[index] > distance) break;
+            if (!isGoal[index]) continue;
+            goalDistance[index] = 0;
+            queue[tail++] = index;
+        }
+        breadthFirst(tail);
+    }
+
+    /**
+     * Spread goalDistance out from the first tiles of the queue, around crew standing still.
+     */
+    private void breadthFirst(int tail) {
+        int head = 0;
+        while (head < tail) {
+            TileNode node = graph.getNode(queue[head++]);
+            Array<Connection<TileNode>> connections = node.connections;
+            for (int i = 0; i < connections.size; i++) {
+                TileNode to = connections.get(i).getToNode();
+                if (goalDistance[to.index] != UNREACHABLE || settled[to.index]) continue;
+                goalDistance[to.index] = goalDistance[node.index] + 1;
+                queue[tail++] = to.index;
+            }
+        }
+    }
+
+    /**
+     * Crew still walking an earlier cooperative window keep the tiles of their route.
+     * They may be a step out of phase with the agents being planned, so each tile is held
+     * one step either side, and the last one until they are planned again. A goal their
+     * route ends on stays theirs.
+     * Returns how many of them belong to the group and have not reached a goal yet.
+     */
+    private int reserveWalkingRoutes(Ship ship, int packedAnchor) {
+        List<Crew> crewList = ship.getCrew();
+        int id = agents.size; // Ids past the agents only ever block
+        int stillLooking = 0;
+        for (int i = 0; i < crewList.size(); i++) {
+            Crew crew = crewList.get(i);
+            if (!crew.isCooperativeRoute() || !crew.hasPathStep() || agents.contains(crew, true)) continue;
+            TileNode node = startOf(crew);
+            reservations.reserve(node.index, 0, id);
+            reservations.reserve(node.index, 1, id);
+            int steps = Math.min(crew.getRemainingPathSteps(), WINDOW);
+            for (int ahead = 0; ahead < steps; ahead++) {
+                node = unpack(crew.peekPathStep(ahead));
+                reservations.reserve(node.index, ahead, id);
+                reservations.reserve(node.index, ahead + 1, id);
+                reservations.reserve(node.index, ahead + 2, id);
+            }
+            reservations.park(node.index, steps, id);
+            id++;
+            if (crew.getGroupAnchor() != packedAnchor) continue;
+            if (node == targetOf(crew)) {
+                if (!claimed[node.index]) {
+                    claimed[node.index] = true;
+                    claimedTiles.add(node.index);
+                }
+            } else {
+                stillLooking++;
+            }
+        }
+        return stillLooking;
+    }
+
+    /**
+     * Everyone holds their start tile at step 0.
+     */
+    private void reserveStarts() {
+        starts.clear();
+        for (int i = 0; i < agents.size; i++) {
+            TileNode start = startOf(agents.get(i));
+            starts.add(start);
+            reservations.reserve(start.index, 0, i);
+        }
+    }
+
+    private int planAgents(Ship ship) {
+        int planned = 0;
+        for (int i = 0; i < agents.size; i++) {
+            Crew crew = agents.get(i);
+            TileNode start = starts.get(i);
+            crew.clearPath(ship.getNavVersion());
+
+            if (search(i, start)) {
+                crew.setCooperativeRoute(true);
+                crew.setBlockedSteps(0);
+                planned++;
+                continue;
+            }
+
+            // Nobody else may rely on this agent moving out of the way
+            reservations.park(start.index, 0, i);
+            boolean reachable = goalDistance[start.index] != UNREACHABLE;
+            if (reachable && crew.getBlockedSteps() < MAX_HELD_STEPS) {
+                // Out of search budget in a crowd: hold position until the group is planned again
+                int packed = Crew.packTile(start.roomX, start.roomY, start.tileX, start.tileY);
+                for (int step = 0; step < ROUTE_STEPS; step++) {
+                    crew.addPathStep(packed);
+                }
+                crew.setCooperativeRoute(true);
+                crew.setBlockedSteps(crew.getBlockedSteps() + ROUTE_STEPS);
+                planned++;
+                continue;
+            }
+            crew.setCooperativeRoute(false);
+            crew.setBlockedSteps(0);
+            if (reachable) {
+                setTarget(crew, nearestGoal(start));
+            }
+            if (!crew.isMoving()) {
+                TilePathfinding.planRoute(ship, crew);
+            }
+        }
+        return planned;
+    }
+
+    /**
+     * Where an agent's route starts: their tile, or the tile they are stepping into.
+     */
+    private TileNode startOf(Crew crew) {
+        if (crew.isMoving()) {
+            return graph.getNode(crew.getNextRoomX(), crew.getNextRoomY(), crew.getNextTileX(), crew.getNextTileY());
+        }
+        return graph.getNode(crew.getCurrentRoomX(), crew.getCurrentRoomY(), crew.getCurrentTileX(), crew.getCurrentTileY());
+    }
+
+    private TileNode targetOf(Crew crew) {
+        return graph.getNode(crew.getTargetRoomX(), crew.getTargetRoomY(), crew.getTargetTileX(), crew.getTargetTileY());
+    }
+
+    private TileNode unpack(int packed) {
+        return graph.getNode(Crew.unpackRoomX(packed), Crew.unpackRoomY(packed),
+                Crew.unpackTileX(packed), Crew.unpackTileY(packed));
+    }
+
+    private static void setTarget(Crew crew, TileNode target) {
+        crew.setTargetRoomX(target.roomX);
+        crew.setTargetRoomY(target.roomY);
+        crew.setTargetTileX(target.tileX);
+        crew.setTargetTileY(target.tileY);
+    }
+
+    /**
+     * Follow the goal distances downhill to the goal nearest a tile.
+     */
+    private TileNode nearestGoal(TileNode from) {
+        TileNode node = from;
+        while (goalDistance[node.index] > 0) {
+            Array<Connection<TileNode>> connections = node.connections;
+            for (int i = 0; i < connections.size; i++) {
+                TileNode to = connections.get(i).getToNode();
+                if (goalDistance[to.index] == goalDistance[node.index] - 1) {
+                    node = to;
+                    break;
+                }
+            }
+        }
+        return node;
+    }
+
+    private void computeAnchorDistances(TileNode anchor) {
+        this.anchor = anchor;
+        Arrays.fill(anchorDistance, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        anchorDistance[anchor.index] = 0;
+        anchorOrder[tail++] = anchor.index;
+        while (head < tail) {
+            TileNode node = graph.getNode(anchorOrder[head++]);
+            Array<Connection<TileNode>> connections = node.connections;
+            for (int i = 0; i < connections.size; i++) {
+                TileNode to = connections.get(i).getToNode();
+                if (anchorDistance[to.index] != UNREACHABLE) continue;
+                anchorDistance[to.index] = anchorDistance[node.index] + 1;
+                anchorOrder[tail++] = to.index;
+            }
+        }
+        reachableCount = tail;
+    }
+
+    /**
+     * Whether crew outside the group block a tile at a step. Crew standing still block it
+     * for good; crew on the move only until they have walked on.
+     */
+    private boolean isBlockedByOthers(TileNode node, int step) {
+        if (reservations.getAgent(node.index, 0) != ReservationTable.NONE) {
+            return false;
+        }
+        Crew occupant = node.getRoom().getCrewAtTile(node.tileX, node.tileY);
+        if (occupant != null && (!occupant.isMoving() || step <= 2)) {
+            return true;
+        }
+        return graph.isClaimed(node) && step <= 1;
+    }
+
+    /**
+     * Space-time A* for one agent against the current reservations, up to the window.
+     * On success the route is reserved, its first ROUTE_STEPS steps written into the
+     * agent's path buffer, and a goal it ends on taken.
+     */
+    private boolean search(int agent, TileNode start) {
+        updateOpenGoals();
+        if (goalDistance[start.index] == UNREACHABLE) {
+            return false; // Cut off from every goal
+        }
+        searchStamp++;
+        recordCount = 0;
+        Arrays.fill(bucketHead, -1);
+        baseCost = goalDistance[start.index];
+        lowestBucket = 0;
+        openCount = 0;
+        push(addRecord(start.index, 0, -1, baseCost));
+
+        int expansions = 0;
+        while (openCount > 0) {
+            int record = pop();
+            int step = recordStep[record];
+            int node = recordNode[record];
+            boolean onGoal = isGoal[node] && anchorDistance[node] <= openDistance;
+            if (onGoal ? reservations.isFreeAfter(node, step) : step == WINDOW) {
+                // On a goal for good, or at the edge of the window as close to one as possible
+                writeRoute(agent, record, onGoal);
+                return true;
+            }
+            if (++expansions > MAX_EXPANSIONS) {
+                return false;
+            }
+            if (step == WINDOW) continue; // On a goal, but someone passes through later
+
+            TileNode from = graph.getNode(node);
+            expand(agent, record, from, from); // Wait
+            Array<Connection<TileNode>> connections = from.connections;
+            for (int i = 0; i < connections.size; i++) {
+                expand(agent, record, from, connections.get(i).getToNode());
+            }
+        }
+        return false;
+    }
+
+    private void expand(int agent, int parent, TileNode from, TileNode to) {
+        int step = recordStep[parent] + 1;
+        if (goalDistance[to.index] == UNREACHABLE || recordCount == MAX_RECORDS) {
+            return;
+        }
+        int key = to.index * (WINDOW + 1) + step;
+        if (stateStamp[key] == searchStamp) {
+            return; // A state's cost so far is its step, so the first visit is the best
+        }
+        // No following, swapping or being followed
+        if (!reservations.isFreeAround(to.index, step, agent, to != from) || isBlockedByOthers(to, step)) {
+            return;
+        }
+        stateStamp[key] = searchStamp;
+        push(addRecord(to.index, step, parent, step + goalDistance[to.index]));
+    }
+
+    private int addRecord(int node, int step, int parent, int cost) {
+        int record = recordCount++;
+        recordNode[record] = node;
+        recordStep[record] = step;
+        recordParent[record] = parent;
+        recordCost[record] = cost;
+        return record;
+    }
+
+    private void writeRoute(int agent, int lastRecord, boolean reachesGoal) {
+        Crew crew = agents.get(agent);
+        int length = 0;
+        for (int record = lastRecord; recordParent[record] != -1; record = recordParent[record]) {
+            routeScratch[length++] = record;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            int record = routeScratch[i];
+            TileNode node = graph.getNode(recordNode[record]);
+            reservations.reserve(node.index, recordStep[record], agent);
+            // Everyone stops at the same step to be planned again together
+            if (recordStep[record] <= ROUTE_STEPS) {
+                crew.addPathStep(Crew.packTile(node.roomX, node.roomY, node.tileX, node.tileY));
+            }
+        }
+        TileNode end = graph.getNode(recordNode[lastRecord]);
+        if (reachesGoal) {
+            reservations.park(end.index, recordStep[lastRecord], agent);
+            isGoal[end.index] = false; // Taken
+            setTarget(crew, end);
+        } else {
+            setTarget(crew, anchor);
+        }
+    }
+
+    // Bucket queue of records by cost; each bucket is a stack, so on ties the records pushed
+    // last - the deepest - come out first
+
+    private void push(int record) {
+        int bucket = recordCost[record] - baseCost;
+        recordNext[record] = bucketHead[bucket];
+        bucketHead[bucket] = record;
+        openCount++;
+    }
+
+    private int pop() {
+        while (bucketHead[lowestBucket] == -1) {
+            lowestBucket++;
+        }
+        int record = bucketHead[lowestBucket];
+        bucketHead[lowestBucket] = recordNext[record];
+        openCount--;
+        return record;
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.util.ShipTileGraph.TileNode;
+
+import java.util.Arrays;
+
+/**
+ * Integration field towards one destination room, shared by every crew member sent there.
+ * A single multi-source BFS from the room's free tiles gives each tile its step distance
+ * to the room; agents then follow it in O(1) per step by moving to a free neighbour with a
+ * lower distance. Stationary crew are obstacles; moving crew are avoided locally by the agents.
+ * Rebuilt in place (no allocation) when the ship's navigation version changes or crew settle
+ * on or step off a tile.
+ */
+public class FlowField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final ShipTileGraph graph;
+    private final int targetRoomX;
+    private final int targetRoomY;
+    private final int[] distance;
+    private final int[] queue;
+    private int navVersion;
+    private int occupancyVersion;
+
+    FlowField(ShipTileGraph graph, int targetRoomX, int targetRoomY, int navVersion) {
+        this.graph = graph;
+        this.targetRoomX = targetRoomX;
+        this.targetRoomY = targetRoomY;
+        this.distance = new int[graph.getNodeCount()];
+        this.queue = new int[graph.getNodeCount()];
+        rebuild(navVersion);
+    }
+
+    /**
+     * Recompute the field for the given ship navigation version.
+     */
+    void rebuild(int navVersion) {
+        this.navVersion = navVersion;
+        this.occupancyVersion = graph.getOccupancyVersion();
+        Arrays.fill(distance, UNREACHABLE);
+
+        int head = 0;
+        int tail = 0;
+        for (int tileY = 0; tileY < ShipTileGraph.ROOM_TILES; tileY++) {
+            for (int tileX = 0; tileX < ShipTileGraph.ROOM_TILES; tileX++) {
+                TileNode node = graph.getNode(targetRoomX, targetRoomY, tileX, tileY);
+                if (!graph.isPassable(node) || isBlocked(node)) continue;
+                distance[node.index] = 0;
+                queue[tail++] = node.index;
+            }
+        }
+
+        while (head < tail) {
+            TileNode node = graph.getNode(queue[head++]);
+            int next = distance[node.index] + 1;
+            Array<Connection<TileNode>> connections = node.connections;
+            for (int i = 0; i < connections.size; i++) {
+                TileNode to = connections.get(i).getToNode();
+                if (distance[to.index] != UNREACHABLE || isBlocked(to)) continue;
+                distance[to.index] = next;
+                queue[tail++] = to.index;
+            }
+        }
+    }
+
+    private static boolean isBlocked(TileNode node) {
+        // Crew standing still are obstacles; crew on the move will clear the tile
+        Room room = node.getRoom();
+        return !room.isTileEmpty(node.tileX, node.tileY)
+                && !room.getCrewAtTile(node.tileX, node.tileY).isMoving();
+    }
+
+    /**
+     * Steps from a tile to the nearest free tile of the destination room, or UNREACHABLE.
+     */
+    public int getDistance(TileNode node) {
+        return node == null ? UNREACHABLE : distance[node.index];
+    }
+
+    /**
+     * The free, unclaimed neighbour that gets closest to the destination, or null if every
+     * neighbour closer than the current tile is occupied right now (wait and retry).
+     */
+    public TileNode getNextTile(TileNode from) {
+        TileNode best = null;
+        int bestDistance = distance[from.index];
+        Array<Connection<TileNode>> connections = from.connections;
+        for (int i = 0; i < connections.size; i++) {
+            TileNode to = connections.get(i).getToNode();
+            if (distance[to.index] < bestDistance && to.getRoom().isTileEmpty(to.tileX, to.tileY)
+                    && !graph.isClaimed(to)) {
+                best = to;
+                bestDistance = distance[to.index];
+            }
+        }
+        return best;
+    }
+
+    public boolean isInTargetRoom(TileNode node) {
+        return node.roomX == targetRoomX && node.roomY == targetRoomY;
+    }
+
+    public int getNavVersion() { return navVersion; }
+
+    /**
+     * Whether the field still matches the ship's navigation version and where crew stand.
+     */
+    public boolean isCurrent(int navVersion) {
+        return navVersion == this.navVersion && occupancyVersion == graph.getOccupancyVersion();
+    }
+    public int getTargetRoomX() { return targetRoomX; }
+    public int getTargetRoomY() { return targetRoomY; }
+}
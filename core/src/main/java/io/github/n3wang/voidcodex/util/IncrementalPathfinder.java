@@ -0,0 +1,364 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.util.ShipTileGraph.TileNode;
+
+import java.util.Arrays;
+
+/**
+ * D* Lite search state for one walking crew member. Distances are kept from the goal
+ * backwards, so when a tile gets blocked or freed only the distances that depended on it
+ * are repaired and the crew member's position can change freely between repairs.
+ * Blocked tiles are the ones this agent has seen occupied or claimed: the tiles of its
+ * current route are checked on every repair, and tiles it saw blocked are rechecked until
+ * they free up again. Everything else is assumed walkable until seen otherwise.
+ * Instances are pooled per ship layout by {@link TilePathfinding}; arrays are sized to the
+ * graph once and reset lazily with a stamp.
+ */
+public class IncrementalPathfinder {
+    private static final int INFINITE = Integer.MAX_VALUE / 4;
+
+    private final ShipTileGraph graph;
+    private final int[] g;
+    private final int[] rhs;
+    private final int[] seen; // Stamp of the search that last touched a node's g and rhs
+    private int stamp;
+
+    // Open list: a binary min-heap of nodes keyed by (key1, key2)
+    private final int[] heap;
+    private final int[] heapPosition; // Per node, position in the heap or -1
+    private final int[] key1;
+    private final int[] key2;
+    private int heapSize;
+
+    // Tiles this agent believes blocked
+    private final boolean[] blocked;
+    private final IntArray blockedNodes = new IntArray();
+
+    private TileNode goal;
+    private TileNode start;
+    private TileNode lastStart; // Start when km was last brought up to date
+    private int km; // Heuristic drift from the start moving between repairs
+
+    public IncrementalPathfinder(ShipTileGraph graph) {
+        this.graph = graph;
+        int nodeCount = graph.getNodeCount();
+        this.g = new int[nodeCount];
+        this.rhs = new int[nodeCount];
+        this.seen = new int[nodeCount];
+        this.heap = new int[nodeCount];
+        this.heapPosition = new int[nodeCount];
+        this.key1 = new int[nodeCount];
+        this.key2 = new int[nodeCount];
+        this.blocked = new boolean[nodeCount];
+        Arrays.fill(heapPosition, -1);
+    }
+
+    public TileNode getGoal() { return goal; }
+
+    /**
+     * Start over towards a new goal, forgetting everything seen so far.
+     */
+    public void reset(TileNode start, TileNode goal) {
+        for (int i = 0; i < heapSize; i++) {
+            heapPosition[heap[i]] = -1;
+        }
+        heapSize = 0;
+        for (int i = 0; i < blockedNodes.size; i++) {
+            blocked[blockedNodes.get(i)] = false;
+        }
+        blockedNodes.clear();
+        stamp++;
+        km = 0;
+        this.start = start;
+        this.lastStart = start;
+        this.goal = goal;
+        setRhs(goal.index, 0);
+        insert(goal.index);
+    }
+
+    /**
+     * Bring the distances up to date for a crew member standing on the given tile and write
+     * a shortest route to the goal into their path buffer, stamped with the given navigation
+     * version. Only tiles whose blocked state changed since the last repair are reprocessed.
+     * Returns false (leaving the route empty) if the goal is cut off.
+     */
+    public boolean repair(Crew crew, TileNode current, int navVersion) {
+        if (current != start) {
+            km += heuristic(lastStart, current);
+            lastStart = current;
+            start = current;
+        }
+
+        // Recheck what the agent saw blocked, then look along the route it is about to walk
+        for (int i = blockedNodes.size - 1; i >= 0; i--) {
+            sense(graph.getNode(blockedNodes.get(i)));
+        }
+        int remaining = crew.getRemainingPathSteps();
+        for (int ahead = 0; ahead < remaining; ahead++) {
+            int packed = crew.peekPathStep(ahead);
+            sense(graph.getNode(Crew.unpackRoomX(packed), Crew.unpackRoomY(packed),
+                    Crew.unpackTileX(packed), Crew.unpackTileY(packed)));
+        }
+        Array<Connection<TileNode>> connections = current.connections;
+        for (int i = 0; i < connections.size; i++) {
+            sense(connections.get(i).getToNode());
+        }
+
+        computeShortestPath();
+
+        crew.clearPath(navVersion);
+        if (getG(current.index) >= INFINITE) {
+            return false;
+        }
+        // Walk downhill from the start; g is exact, so every step gets one closer to the goal
+        TileNode node = current;
+        for (int steps = 0; node != goal; steps++) {
+            if (steps == graph.getNodeCount()) {
+                crew.clearPath(navVersion); // Distances are inconsistent; should not happen
+                return false;
+            }
+            TileNode best = null;
+            int bestCost = INFINITE;
+            connections = node.connections;
+            for (int i = 0; i < connections.size; i++) {
+                TileNode to = connections.get(i).getToNode();
+                int cost = add(cost(to), getG(to.index));
+                if (cost < bestCost) {
+                    best = to;
+                    bestCost = cost;
+                }
+            }
+            if (best == null) {
+                crew.clearPath(navVersion);
+                return false;
+            }
+            crew.addPathStep(Crew.packTile(best.roomX, best.roomY, best.tileX, best.tileY));
+            node = best;
+        }
+        return true;
+    }
+
+    /**
+     * Compare a tile against what the agent believed and repair the edges into it if it changed.
+     */
+    private void sense(TileNode node) {
+        if (node == null || node == start || node.room == null) {
+            return;
+        }
+        boolean nowBlocked = !node.room.isTileEmpty(node.tileX, node.tileY) || graph.isClaimed(node);
+        if (nowBlocked == blocked[node.index]) {
+            return;
+        }
+        int oldCost = cost(node);
+        blocked[node.index] = nowBlocked;
+        if (nowBlocked) {
+            blockedNodes.add(node.index);
+        } else {
+            blockedNodes.removeValue(node.index);
+        }
+        int newCost = cost(node);
+
+        // Every edge into the tile changed cost; the graph is undirected, so its
+        // neighbours are exactly the tiles with an edge into it
+        int gNode = getG(node.index);
+        Array<Connection<TileNode>> connections = node.connections;
+        for (int i = 0; i < connections.size; i++) {
+            TileNode from = connections.get(i).getToNode();
+            if (from == goal) continue;
+            if (oldCost > newCost) {
+                setRhs(from.index, Math.min(getRhs(from.index), add(newCost, gNode)));
+            } else if (getRhs(from.index) == add(oldCost, gNode)) {
+                setRhs(from.index, bestSuccessor(from));
+            }
+            updateVertex(from.index);
+        }
+    }
+
+    /**
+     * Cost of stepping into a tile.
+     */
+    private int cost(TileNode to) {
+        return blocked[to.index] ? INFINITE : 1;
+    }
+
+    private int bestSuccessor(TileNode node) {
+        int best = INFINITE;
+        Array<Connection<TileNode>> connections = node.connections;
+        for (int i = 0; i < connections.size; i++) {
+            TileNode to = connections.get(i).getToNode();
+            best = Math.min(best, add(cost(to), getG(to.index)));
+        }
+        return best;
+    }
+
+    private void computeShortestPath() {
+        int s = start.index;
+        while (heapSize > 0 && (compareTop(s) < 0 || getRhs(s) != getG(s))) {
+            int u = heap[0];
+            int oldKey1 = key1[u];
+            int oldKey2 = key2[u];
+            int newKey1 = calculateKey1(u);
+            int newKey2 = calculateKey2(u);
+            if (oldKey1 < newKey1 || (oldKey1 == newKey1 && oldKey2 < newKey2)) {
+                // Key went stale as the start moved - requeue with the current one
+                key1[u] = newKey1;
+                key2[u] = newKey2;
+                siftDown(0);
+            } else if (getG(u) > getRhs(u)) {
+                setG(u, getRhs(u));
+                remove(u);
+                TileNode node = graph.getNode(u);
+                Array<Connection<TileNode>> connections = node.connections;
+                for (int i = 0; i < connections.size; i++) {
+                    TileNode from = connections.get(i).getToNode();
+                    if (from == goal) continue;
+                    setRhs(from.index, Math.min(getRhs(from.index), add(cost(node), getG(u))));
+                    updateVertex(from.index);
+                }
+            } else {
+                int oldG = getG(u);
+                setG(u, INFINITE);
+                TileNode node = graph.getNode(u);
+                updateVertex(u);
+                Array<Connection<TileNode>> connections = node.connections;
+                for (int i = 0; i < connections.size; i++) {
+                    TileNode from = connections.get(i).getToNode();
+                    if (from == goal) continue;
+                    if (getRhs(from.index) == add(cost(node), oldG)) {
+                        setRhs(from.index, bestSuccessor(from));
+                    }
+                    updateVertex(from.index);
+                }
+            }
+        }
+    }
+
+    private void updateVertex(int node) {
+        boolean consistent = getG(node) == getRhs(node);
+        if (!consistent) {
+            key1[node] = calculateKey1(node);
+            key2[node] = calculateKey2(node);
+            if (heapPosition[node] >= 0) {
+                siftUp(heapPosition[node]);
+                siftDown(heapPosition[node]);
+            } else {
+                insert(node);
+            }
+        } else if (heapPosition[node] >= 0) {
+            remove(node);
+        }
+    }
+
+    private int calculateKey1(int node) {
+        return add(add(Math.min(getG(node), getRhs(node)), heuristic(start, graph.getNode(node))), km);
+    }
+
+    private int calculateKey2(int node) {
+        return Math.min(getG(node), getRhs(node));
+    }
+
+    /**
+     * Compare the top of the open list with the start's key.
+     */
+    private int compareTop(int s) {
+        int top = heap[0];
+        int startKey1 = calculateKey1(s);
+        if (key1[top] != startKey1) {
+            return key1[top] < startKey1 ? -1 : 1;
+        }
+        return Integer.compare(key2[top], calculateKey2(s));
+    }
+
+    private static int heuristic(TileNode a, TileNode b) {
+        return Math.abs(a.gx - b.gx) + Math.abs(a.gy - b.gy);
+    }
+
+    private static int add(int a, int b) {
+        return a >= INFINITE || b >= INFINITE ? INFINITE : a + b;
+    }
+
+    private int getG(int node) {
+        return seen[node] == stamp ? g[node] : INFINITE;
+    }
+
+    private int getRhs(int node) {
+        return seen[node] == stamp ? rhs[node] : INFINITE;
+    }
+
+    private void setG(int node, int value) {
+        touch(node);
+        g[node] = value;
+    }
+
+    private void setRhs(int node, int value) {
+        touch(node);
+        rhs[node] = value;
+    }
+
+    private void touch(int node) {
+        if (seen[node] != stamp) {
+            seen[node] = stamp;
+            g[node] = INFINITE;
+            rhs[node] = INFINITE;
+        }
+    }
+
+    private void insert(int node) {
+        key1[node] = calculateKey1(node);
+        key2[node] = calculateKey2(node);
+        heap[heapSize] = node;
+        heapPosition[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private void remove(int node) {
+        int position = heapPosition[node];
+        heapPosition[node] = -1;
+        int last = heap[--heapSize];
+        if (position == heapSize) {
+            return;
+        }
+        heap[position] = last;
+        heapPosition[last] = position;
+        siftUp(position);
+        siftDown(heapPosition[last]);
+    }
+
+    private boolean less(int a, int b) {
+        return key1[a] < key1[b] || (key1[a] == key1[b] && key2[a] < key2[b]);
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >> 1;
+            if (!less(node, heap[parent])) break;
+            heap[position] = heap[parent];
+            heapPosition[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = node;
+        heapPosition[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        while (true) {
+            int child = position * 2 + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], node)) break;
+            heap[position] = heap[child];
+            heapPosition[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = node;
+        heapPosition[node] = position;
+    }
+}
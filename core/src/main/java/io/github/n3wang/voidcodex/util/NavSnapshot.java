@@ -0,0 +1,66 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.util.ShipTileGraph.TileNode;
+
+/**
+ * Immutable copy of a ship's tile navigation grid, safe to search from any thread.
+ * Holds, per tile, which neighbours it connects to and whether a crew member stands
+ * still on it; crew on the move are left out, they will have walked on by the time
+ * a route computed from the snapshot is followed.
+ */
+public final class NavSnapshot {
+    // Link bits per tile, one per direction
+    static final int LINK_PLUS_X = 1;
+    static final int LINK_MINUS_X = 2;
+    static final int LINK_PLUS_Y = 4;
+    static final int LINK_MINUS_Y = 8;
+
+    private final int tilesWide;
+    private final int tilesHigh;
+    private final int navVersion;
+    private final byte[] links;
+    private final boolean[] blocked;
+
+    /**
+     * Copy the current state of a ship's navigation graph. Call from the simulation thread.
+     */
+    public NavSnapshot(Ship ship, ShipTileGraph graph) {
+        this.tilesWide = graph.getTilesWide();
+        this.tilesHigh = graph.getTilesHigh();
+        this.navVersion = ship.getNavVersion();
+        this.links = new byte[graph.getNodeCount()];
+        this.blocked = new boolean[graph.getNodeCount()];
+
+        for (int index = 0; index < links.length; index++) {
+            TileNode node = graph.getNode(index);
+            if (node.room == null) continue;
+            int bits = 0;
+            Array<Connection<TileNode>> connections = node.connections;
+            for (int i = 0; i < connections.size; i++) {
+                TileNode to = connections.get(i).getToNode();
+                if (to.gx > node.gx) bits |= LINK_PLUS_X;
+                else if (to.gx < node.gx) bits |= LINK_MINUS_X;
+                else if (to.gy > node.gy) bits |= LINK_PLUS_Y;
+                else bits |= LINK_MINUS_Y;
+            }
+            links[index] = (byte) bits;
+            Crew occupant = node.room.getCrewAtTile(node.tileX, node.tileY);
+            blocked[index] = occupant != null && !occupant.isMoving();
+        }
+    }
+
+    public int getTilesWide() { return tilesWide; }
+    public int getTilesHigh() { return tilesHigh; }
+    public int getNodeCount() { return links.length; }
+    public int getNavVersion() { return navVersion; }
+
+    int getLinks(int index) { return links[index]; }
+
+    boolean isBlocked(int index) { return blocked[index]; }
+
+    boolean isPassable(int index) { return links[index] != 0; }
+}
@@ -0,0 +1,234 @@
+package io.github.n3wang.voidcodex.util;
+
+import io.github.n3wang.voidcodex.model.Crew;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solves crew route queries on a small pool of background threads, so long searches on
+ * large ships do not stall a frame.
+ * Queries are submitted in batches against one {@link NavSnapshot}; workers run A* on the
+ * snapshot and hand finished routes back through a lock-free queue given with the batch,
+ * one per ship, which the simulation drains on its own thread. Nothing from the live ship
+ * is touched off-thread.
+ */
+public class PathService {
+    // Ships with at least this many rooms get crew routes solved in the background
+    public static final int ASYNC_MIN_ROOMS = 256;
+
+    /**
+     * A finished route for one crew member. Steps are packed tiles ({@link Crew#packTile}),
+     * excluding the start tile.
+     */
+    public static final class Result {
+        public final Crew crew;
+        public final int requestId;
+        public final int navVersion; // Of the snapshot the route was planned on
+        public final boolean found;
+        public final int[] steps;
+
+        Result(Crew crew, int requestId, int navVersion, boolean found, int[] steps) {
+            this.crew = crew;
+            this.requestId = requestId;
+            this.navVersion = navVersion;
+            this.found = found;
+            this.steps = steps;
+        }
+    }
+
+    private static final int[] NO_STEPS = new int[0];
+
+    private final ExecutorService workers;
+    private final ThreadLocal<SnapshotSearch> searches = new ThreadLocal<SnapshotSearch>() {
+        @Override
+        protected SnapshotSearch initialValue() {
+            return new SnapshotSearch();
+        }
+    };
+
+    public PathService() {
+        this(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    public PathService(int threads) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "path-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true); // Never keeps the game from exiting
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Queue route searches for crew to their current targets on a snapshot.
+     * Each crew member is routed from their current tile; their current request id
+     * ({@link Crew#getPathRequestId}) comes back in the result so superseded requests can be told apart.
+     * Finished routes are added to {@code results}. Returns false if the service has been shut down.
+     */
+    public boolean submit(final NavSnapshot snapshot, List<Crew> crew, final ConcurrentLinkedQueue<Result> results) {
+        for (int i = 0; i < crew.size(); i++) {
+            final Crew member = crew.get(i);
+            final int requestId = member.getPathRequestId();
+            // Read the crew's positions here, on the simulation thread
+            final int start = Crew.packTile(member.getCurrentRoomX(), member.getCurrentRoomY(),
+                    member.getCurrentTileX(), member.getCurrentTileY());
+            final int target = Crew.packTile(member.getTargetRoomX(), member.getTargetRoomY(),
+                    member.getTargetTileX(), member.getTargetTileY());
+            try {
+                workers.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        results.add(searches.get().solve(snapshot, member, requestId, start, target));
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * A* over a snapshot; one per worker thread, arrays grown to the largest ship seen.
+     */
+    private static final class SnapshotSearch {
+        private int[] cost = new int[0];
+        private int[] parent = new int[0];
+        private int[] visited = new int[0]; // Stamp of the search that reached a node
+        private int[] closed = new int[0]; // Stamp of the search that expanded a node
+        private int stamp;
+        // Binary min-heap of (priority, node) pairs; stale entries are skipped on pop
+        private long[] heap = new long[16];
+        private int heapSize;
+        private int[] route = new int[16];
+
+        Result solve(NavSnapshot snapshot, Crew crew, int requestId, int startPacked, int targetPacked) {
+            int wide = snapshot.getTilesWide();
+            int start = (startPacked & 0xFFFF) * wide + (startPacked >>> 16);
+            int target = (targetPacked & 0xFFFF) * wide + (targetPacked >>> 16);
+            int nodeCount = snapshot.getNodeCount();
+            if (start < 0 || start >= nodeCount || target < 0 || target >= nodeCount
+                    || !snapshot.isPassable(start) || !snapshot.isPassable(target) || snapshot.isBlocked(target)) {
+                return new Result(crew, requestId, snapshot.getNavVersion(), false, NO_STEPS);
+            }
+            if (start == target) {
+                return new Result(crew, requestId, snapshot.getNavVersion(), true, NO_STEPS);
+            }
+            ensureCapacity(nodeCount);
+            stamp++;
+            heapSize = 0;
+
+            int targetX = target % wide;
+            int targetY = target / wide;
+            visited[start] = stamp;
+            cost[start] = 0;
+            parent[start] = -1;
+            push(distance(start, wide, targetX, targetY), start);
+            while (heapSize > 0) {
+                int node = pop();
+                if (closed[node] == stamp) continue;
+                closed[node] = stamp;
+                if (node == target) {
+                    return new Result(crew, requestId, snapshot.getNavVersion(), true, buildRoute(start, target, wide));
+                }
+                int links = snapshot.getLinks(node);
+                if ((links & NavSnapshot.LINK_PLUS_X) != 0) relax(snapshot, node, node + 1, wide, targetX, targetY);
+                if ((links & NavSnapshot.LINK_MINUS_X) != 0) relax(snapshot, node, node - 1, wide, targetX, targetY);
+                if ((links & NavSnapshot.LINK_PLUS_Y) != 0) relax(snapshot, node, node + wide, wide, targetX, targetY);
+                if ((links & NavSnapshot.LINK_MINUS_Y) != 0) relax(snapshot, node, node - wide, wide, targetX, targetY);
+            }
+            return new Result(crew, requestId, snapshot.getNavVersion(), false, NO_STEPS);
+        }
+
+        private void relax(NavSnapshot snapshot, int from, int to, int wide, int targetX, int targetY) {
+            if (snapshot.isBlocked(to) || closed[to] == stamp) {
+                return;
+            }
+            int next = cost[from] + 1;
+            if (visited[to] == stamp && cost[to] <= next) {
+                return;
+            }
+            visited[to] = stamp;
+            cost[to] = next;
+            parent[to] = from;
+            push(next + distance(to, wide, targetX, targetY), to);
+        }
+
+        private static int distance(int node, int wide, int targetX, int targetY) {
+            return Math.abs(node % wide - targetX) + Math.abs(node / wide - targetY);
+        }
+
+        private int[] buildRoute(int start, int target, int wide) {
+            int length = 0;
+            for (int node = target; node != start; node = parent[node]) {
+                if (length == route.length) {
+                    route = Arrays.copyOf(route, length * 2);
+                }
+                route[length++] = node;
+            }
+            int[] steps = new int[length];
+            for (int i = 0; i < length; i++) {
+                int node = route[length - 1 - i];
+                steps[i] = ((node % wide) << 16) | (node / wide); // Same packing as Crew.packTile
+            }
+            return steps;
+        }
+
+        private void ensureCapacity(int nodeCount) {
+            if (cost.length < nodeCount) {
+                cost = new int[nodeCount];
+                parent = new int[nodeCount];
+                visited = new int[nodeCount];
+                closed = new int[nodeCount];
+                stamp = 0;
+            }
+        }
+
+        private void push(int priority, int node) {
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            long entry = ((long) priority << 32) | node;
+            int position = heapSize++;
+            while (position > 0) {
+                int parentPosition = (position - 1) >> 1;
+                if (heap[parentPosition] <= entry) break;
+                heap[position] = heap[parentPosition];
+                position = parentPosition;
+            }
+            heap[position] = entry;
+        }
+
+        private int pop() {
+            int node = (int) heap[0];
+            long last = heap[--heapSize];
+            int position = 0;
+            while (true) {
+                int child = position * 2 + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= last) break;
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = last;
+            return node;
+        }
+    }
+}
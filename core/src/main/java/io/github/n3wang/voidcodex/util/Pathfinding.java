@@ -1,114 +1,68 @@
 package io.github.n3wang.voidcodex.util;
 
-import io.github.n3wang.voidcodex.model.Room;
-import io.github.n3wang.voidcodex.model.RoomType;
+import com.badlogic.gdx.utils.IntArray;
 import io.github.n3wang.voidcodex.model.Ship;
 
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Simple pathfinding for crew movement (horizontal/vertical only).
+ * Room-level pathfinding for crew movement (horizontal/vertical only).
+ * Routes follow the ship's door graph via the cached {@link RoomGraph}, so rooms that
+ * head to the same destination share one distance field regardless of ship size.
+ * Not thread-safe - call from the simulation thread only.
  */
 public class Pathfinding {
-    
+    private static final IntArray scratch = new IntArray(); // For the List-returning findPath
+
     /**
-     * Find path from start to target using horizontal/vertical movement only (no diagonal).
-     * Returns list of room coordinates (x, y) in order.
+     * Find a shortest path from start room to target room through doors (no diagonal).
+     * Returns list of room coordinates (x, y) in order, excluding the start room;
+     * empty if already there or the target is unreachable.
+     * Allocates the result; see the IntArray overload for hot paths.
      */
     public static List<int[]> findPath(Ship ship, int startX, int startY, int targetX, int targetY) {
-        // If already at destination, return empty path
-        if (startX == targetX && startY == targetY) {
-            return new ArrayList<>();
-        }
-        
-        List<int[]> path = new ArrayList<>();
-        
-        // Simple pathfinding: move horizontally first, then vertically (no diagonal)
-        int currentX = startX;
-        int currentY = startY;
-        
-        // Move horizontally first
-        while (currentX != targetX) {
-            if (currentX < targetX) {
-                currentX++;
-            } else {
-                currentX--;
-            }
-            
-            // Check if room exists and is not empty
-            Room room = ship.getRoom(currentX, currentY);
-            if (room != null && room.getType() != RoomType.EMPTY) {
-                path.add(new int[]{currentX, currentY});
-            } else {
-                // Can't move through empty rooms, try vertical first
-                return findPathVerticalFirst(ship, startX, startY, targetX, targetY);
-            }
+        findPath(ship, startX, startY, targetX, targetY, scratch);
+        List<int[]> path = new ArrayList<>(scratch.size);
+        for (int i = 0; i < scratch.size; i++) {
+            path.add(new int[]{unpackX(scratch.get(i)), unpackY(scratch.get(i))});
         }
-        
-        // Then move vertically (no diagonal movement)
-        while (currentY != targetY) {
-            if (currentY < targetY) {
-                currentY++;
-            } else {
-                currentY--;
-            }
-            
-            // Check if room exists and is not empty
-            Room room = ship.getRoom(currentX, currentY);
-            if (room != null && room.getType() != RoomType.EMPTY) {
-                path.add(new int[]{currentX, currentY});
-            } else {
-                // Path blocked, return empty path
-                return new ArrayList<>();
-            }
-        }
-        
         return path;
     }
-    
+
     /**
-     * Alternative pathfinding: move vertically first, then horizontally.
+     * Find a shortest path from start room to target room, writing it into a caller-supplied
+     * buffer as packed room positions ({@link #pack}) in order, excluding the start room.
+     * The buffer is cleared first. Returns false (leaving it empty) if the target is
+     * unreachable; true with an empty buffer if already there. Allocates nothing once the
+     * buffer has grown.
      */
-    private static List<int[]> findPathVerticalFirst(Ship ship, int startX, int startY, int targetX, int targetY) {
-        List<int[]> path = new ArrayList<>();
-        
+    public static boolean findPath(Ship ship, int startX, int startY, int targetX, int targetY, IntArray out) {
+        out.clear();
+
+        RoomGraph rooms = TilePathfinding.getRoomGraph(ship);
         int currentX = startX;
         int currentY = startY;
-        
-        // Move vertically first
-        while (currentY != targetY) {
-            if (currentY < targetY) {
-                currentY++;
-            } else {
-                currentY--;
-            }
-            
-            Room room = ship.getRoom(currentX, currentY);
-            if (room != null && room.getType() != RoomType.EMPTY) {
-                path.add(new int[]{currentX, currentY});
-            } else {
-                return new ArrayList<>(); // Path blocked
-            }
-        }
-        
-        // Then move horizontally
-        while (currentX != targetX) {
-            if (currentX < targetX) {
-                currentX++;
-            } else {
-                currentX--;
-            }
-            
-            Room room = ship.getRoom(currentX, currentY);
-            if (room != null && room.getType() != RoomType.EMPTY) {
-                path.add(new int[]{currentX, currentY});
-            } else {
-                return new ArrayList<>(); // Path blocked
+        while (currentX != targetX || currentY != targetY) {
+            int next = rooms.getNextRoom(currentX, currentY, targetX, targetY);
+            if (next == RoomGraph.UNREACHABLE) {
+                out.clear(); // Path blocked
+                return false;
             }
+            currentX = next % rooms.getRoomsWide();
+            currentY = next / rooms.getRoomsWide();
+            out.add(pack(currentX, currentY));
         }
-        
-        return path;
+        return true;
     }
-}
 
+    /**
+     * Pack a room position into one int: x in the high 16 bits, y in the low 16 bits.
+     */
+    public static int pack(int x, int y) {
+        return (x << 16) | y;
+    }
+
+    public static int unpackX(int packed) { return packed >>> 16; }
+    public static int unpackY(int packed) { return packed & 0xFFFF; }
+}
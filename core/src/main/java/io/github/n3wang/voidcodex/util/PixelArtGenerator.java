@@ -4,26 +4,319 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import io.github.n3wang.voidcodex.model.BiomeType;
 import io.github.n3wang.voidcodex.model.CrewRole;
 import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Skill;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 
 /**
  * Generates simple pixel art assets programmatically.
+ * Every sprite is packed into a shared texture atlas and returned as a region of it, so
+ * a screen full of sprites draws from one or two textures instead of switching (and
+ * flushing the batch) per sprite. {@link #packAll} packs everything up front; a sprite
+ * asked for later is added to the atlas on first use.
+ * Widgets that hold a sprite past a frame {@link #retain} it for as long as they show it.
+ * PixelLab art comes pre-packed from the build ({@link #findPixellabRegion}), and
+ * generated sprites are kept on disk between runs ({@link SpriteDiskCache}).
+ * The atlas is kept within a texture memory budget: once it outgrows it, the least
+ * recently used sprites nothing holds ({@link #retain}) are evicted and the atlas is
+ * rebuilt without them ({@link #trimToBudget}); an evicted sprite is packed again, from
+ * disk, when next asked for.
  */
 public class PixelArtGenerator {
     private static final int TILE_SIZE = 64;
-    private static Map<String, Texture> cachedTextures = new HashMap<>();
+    private static final int CREW_SPRITES = 4; // Distinct crew colours
+    private static final int PAGE_SIZE = 1024; // Atlas page size; everything fits on one page
+    private static final long PAGE_BYTES = PAGE_SIZE * PAGE_SIZE * 4L; // RGBA8888
+    private static final long DEFAULT_BUDGET_BYTES = 4 * PAGE_BYTES;
+    // Access ordered, so iteration starts at the least recently used sprite
+    private static final LinkedHashMap<String, CachedRegion> cachedRegions = new LinkedHashMap<>(64, 0.75f, true);
+    private static final List<CachedRegion> unplaced = new ArrayList<>(); // Packed, not yet pointed at the atlas
+    private static PixmapPacker packer;
+    private static TextureAtlas atlas;
+    private static boolean packingAll;
+    private static boolean pinning; // Inside packAll, packing the sprites the first frame draws
+    private static long budgetBytes = DEFAULT_BUDGET_BYTES;
+    private static long spriteBytes; // Pixels of the cached sprites, without padding
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+    private static boolean overBudgetLogged;
+    private static final String PIXELLAB_ATLAS = "atlases/pixellab/pixellab.atlas"; // Built by lwjgl3's packPixellab task
+    private static TextureAtlas pixellabAtlas;
+    private static boolean pixellabAtlasLoaded;
+
+    /**
+     * A cached sprite's region. It stays the same object for as long as the sprite is cached,
+     * and is pointed at the new atlas when the atlas is rebuilt, so holding on to it is safe
+     * while it is retained.
+     */
+    private static final class CachedRegion extends TextureRegion {
+        final String key;
+        final int bytes;
+        int references;
+        boolean pinned; // Drawn by the ship view's first frame (packAll), never evicted
+
+        CachedRegion(String key, int bytes) {
+            this.key = key;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Generate and pack every sprite, creating the atlas texture once. Call at startup.
+     * Only what the tile map draws from the ship view's first frame on (rooms, system icons,
+     * crew, fire and breaches) is pinned; the rest is evicted under budget pressure unless
+     * a widget retains it.
+     */
+    public static void packAll() {
+        packingAll = true;
+        try {
+            pinning = true;
+            for (RoomType type : RoomType.values()) {
+                generateRoomSprite(type);
+                generateSystemIcon(type);
+            }
+            for (int i = 0; i < CREW_SPRITES; i++) {
+                generateCrewSprite(i);
+            }
+            generateFireSprite();
+            generateBreachSprite();
+            pinning = false;
+
+            for (CrewRole role : CrewRole.values()) {
+                generateCrewProfile(role);
+            }
+            for (BiomeType type : BiomeType.values()) {
+                generateBiomeIcon(type);
+            }
+            for (Skill skill : Skill.values()) {
+                generateSkillIcon(skill);
+            }
+            generateWeaponIcon();
+            generateShieldSprite();
+            generatePowerBoxSprite(true);
+            generatePowerBoxSprite(false);
+            generateShipHullSprite();
+            generateEnemyShipSprite();
+            generateProjectileSprite();
+        } finally {
+            packingAll = false;
+            pinning = false;
+            if (packer != null) {
+                updateAtlas();
+            }
+        }
+    }
+
+    /**
+     * Keep a sprite cached while it is held past the current frame, e.g. by a widget.
+     * Sprites only drawn (asked for every frame) need not be retained.
+     */
+    public static void retain(TextureRegion region) {
+        if (region instanceof CachedRegion) {
+            ((CachedRegion) region).references++;
+        }
+    }
+
+    /**
+     * Give back a sprite taken with {@link #retain}; once nothing holds it, it may be evicted.
+     */
+    public static void release(TextureRegion region) {
+        if (region instanceof CachedRegion && ((CachedRegion) region).references > 0) {
+            ((CachedRegion) region).references--;
+        }
+    }
+
+    /**
+     * Set how much texture memory the generated sprites' atlas may take.
+     */
+    public static void setBudgetBytes(long bytes) {
+        budgetBytes = bytes;
+        overBudgetLogged = false;
+    }
+
+    public static long getBudgetBytes() { return budgetBytes; }
+    public static long getHits() { return hits; }
+    public static long getMisses() { return misses; }
+    public static long getEvictions() { return evictions; }
+
+    /**
+     * Texture memory held by the generated sprites' atlas pages (PixelLab art not included).
+     */
+    public static long getResidentBytes() {
+        return packer != null ? packer.getPages().size * PAGE_BYTES : 0;
+    }
+
+    /**
+     * If the atlas has outgrown the budget, evict the least recently used sprites that are
+     * neither retained nor pinned by packAll, and rebuild the atlas from the rest. Call
+     * between frames: a rebuild moves every sprite to a new texture.
+     */
+    public static void trimToBudget() {
+        if (getResidentBytes() <= budgetBytes) {
+            return;
+        }
+        long target = budgetBytes / 2; // Room for packing waste, so the rebuilt atlas fits
+        boolean evicted = false;
+        Iterator<CachedRegion> regions = cachedRegions.values().iterator();
+        while (spriteBytes > target && regions.hasNext()) {
+            CachedRegion region = regions.next();
+            if (!region.pinned && region.references == 0) {
+                regions.remove();
+                spriteBytes -= region.bytes;
+                evictions++;
+                evicted = true;
+            }
+        }
+        if (evicted) {
+            rebuildAtlas();
+        }
+        if (getResidentBytes() > budgetBytes && !overBudgetLogged) {
+            overBudgetLogged = true;
+            Gdx.app.log("PixelArtGenerator", "Sprites in use need " + getResidentBytes() + " bytes, over the budget of " + budgetBytes);
+        }
+    }
+
+    /**
+     * Region of the packed PixelLab art, e.g. "profiles/captain" or "rooms/bridge"
+     * (see the lwjgl3 tools' PixellabPacker), or null if there is no such region or the
+     * atlas has not been built.
+     */
+    public static TextureRegion findPixellabRegion(String name) {
+        if (!pixellabAtlasLoaded) {
+            pixellabAtlasLoaded = true;
+            FileHandle file = Gdx.files.internal(PIXELLAB_ATLAS);
+            if (file.exists()) {
+                pixellabAtlas = new TextureAtlas(file);
+            }
+        }
+        return pixellabAtlas != null ? pixellabAtlas.findRegion(name) : null;
+    }
+
+    /**
+     * A cached sprite's region, or null if it is not cached (in memory).
+     */
+    private static TextureRegion cached(String key) {
+        CachedRegion region = cachedRegions.get(key);
+        if (region == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return region;
+    }
+
+    /**
+     * A sprite's region from the memory cache or, failing that, from the disk cache; null if
+     * it has to be generated.
+     */
+    private static TextureRegion lookup(String key) {
+        TextureRegion region = cached(key);
+        if (region != null) {
+            return region;
+        }
+        Pixmap stored = SpriteDiskCache.load(key);
+        return stored != null ? packPixmap(key, stored) : null;
+    }
+
+    /**
+     * Pack a freshly generated sprite, keeping it on disk for later runs. Returns its region.
+     * The pixmap is disposed.
+     */
+    private static TextureRegion pack(String key, Pixmap pixmap) {
+        SpriteDiskCache.store(key, pixmap);
+        return packPixmap(key, pixmap);
+    }
+
+    /**
+     * Pack a sprite under its cache key and return its region; inside packAll the region is
+     * only usable once packAll is done. The pixmap is disposed.
+     */
+    private static TextureRegion packPixmap(String key, Pixmap pixmap) {
+        if (packer == null) {
+            packer = newPacker();
+        }
+        CachedRegion region = new CachedRegion(key, pixmap.getWidth() * pixmap.getHeight() * 4);
+        region.pinned = pinning;
+        packer.pack(key, pixmap);
+        pixmap.dispose();
+        cachedRegions.put(key, region);
+        spriteBytes += region.bytes;
+        unplaced.add(region);
+        if (!packingAll) {
+            updateAtlas();
+        }
+        return region;
+    }
+
+    private static PixmapPacker newPacker() {
+        // Padding with duplicated edges keeps neighbours from bleeding into scaled sprites
+        return new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 2, true);
+    }
+
+    private static void updateAtlas() {
+        if (atlas == null) {
+            atlas = packer.generateTextureAtlas(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+        } else {
+            packer.updateTextureAtlas(atlas, Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+        }
+        for (CachedRegion region : unplaced) {
+            region.setRegion(atlas.findRegion(region.key));
+        }
+        unplaced.clear();
+    }
+
+    /**
+     * Repack the cached sprites, copied out of the old atlas pages, into a new atlas, and
+     * dispose the old one.
+     */
+    private static void rebuildAtlas() {
+        PixmapPacker oldPacker = packer;
+        TextureAtlas oldAtlas = atlas;
+        packer = newPacker();
+        atlas = null;
+        for (CachedRegion region : cachedRegions.values()) {
+            Pixmap pixels = copyPacked(oldPacker, region);
+            packer.pack(region.key, pixels);
+            pixels.dispose();
+        }
+        unplaced.addAll(cachedRegions.values());
+        updateAtlas();
+        oldAtlas.dispose();
+        oldPacker.dispose();
+    }
+
+    private static Pixmap copyPacked(PixmapPacker from, TextureRegion region) {
+        for (PixmapPacker.Page page : from.getPages()) {
+            if (page.getTexture() == region.getTexture()) {
+                int width = region.getRegionWidth();
+                int height = region.getRegionHeight();
+                Pixmap pixels = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+                pixels.setBlending(Pixmap.Blending.None); // Copy alpha as is
+                pixels.drawPixmap(page.getPixmap(), 0, 0, region.getRegionX(), region.getRegionY(), width, height);
+                return pixels;
+            }
+        }
+        throw new IllegalStateException("No atlas page holds the sprite");
+    }
 
     /**
      * Generate a simple room sprite based on room type.
      */
-    public static Texture generateRoomSprite(RoomType type) {
+    public static TextureRegion generateRoomSprite(RoomType type) {
         String key = "room_" + type.name();
-        if (cachedTextures.containsKey(key)) {
-            return cachedTextures.get(key);
+        TextureRegion cached = lookup(key);
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(TILE_SIZE, TILE_SIZE, Pixmap.Format.RGBA8888);
@@ -40,10 +333,7 @@ public class PixelArtGenerator {
         // Add simple pattern based on type
         addRoomPattern(pixmap, type, baseColor);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put(key, texture);
-        return texture;
+        return pack(key, pixmap);
     }
 
     private static void addRoomPattern(Pixmap pixmap, RoomType type, com.badlogic.gdx.graphics.Color baseColor) {
@@ -113,17 +403,18 @@ public class PixelArtGenerator {
     /**
      * Generate a simple crew member sprite (full body for map view).
      */
-    public static Texture generateCrewSprite(int index) {
-        String key = "crew_" + index;
-        if (cachedTextures.containsKey(key)) {
-            return cachedTextures.get(key);
+    public static TextureRegion generateCrewSprite(int index) {
+        String key = "crew_" + (index % CREW_SPRITES); // Sprites only differ by colour
+        TextureRegion cached = lookup(key);
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
         
         // Body color (vary by index) - use simple color variation
         com.badlogic.gdx.graphics.Color bodyColor;
-        switch (index % 4) {
+        switch (index % CREW_SPRITES) {
             case 0: bodyColor = new com.badlogic.gdx.graphics.Color(0.8f, 0.6f, 0.4f, 1f); break; // Tan
             case 1: bodyColor = new com.badlogic.gdx.graphics.Color(0.4f, 0.6f, 0.8f, 1f); break; // Blue
             case 2: bodyColor = new com.badlogic.gdx.graphics.Color(0.6f, 0.8f, 0.4f, 1f); break; // Green
@@ -145,24 +436,29 @@ public class PixelArtGenerator {
         pixmap.fillRectangle(13, 28, 3, 4);
         pixmap.fillRectangle(16, 28, 3, 4);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put(key, texture);
-        return texture;
+        return pack(key, pixmap);
     }
     
     /**
      * Generate a crew profile picture (headshot) based on role.
      * Uses PixelLab assets if available, otherwise falls back to generated sprite.
      */
-    public static Texture generateCrewProfile(CrewRole role) {
+    public static TextureRegion generateCrewProfile(CrewRole role) {
+        // Use the headshot cropped at build time, if the PixelLab atlas was built
+        String roleName = role.name().toLowerCase();
+        TextureRegion packed = findPixellabRegion("profiles/" + roleName);
+        if (packed != null) {
+            return packed;
+        }
+
         String key = "profile_" + role.name();
-        if (cachedTextures.containsKey(key)) {
-            return cachedTextures.get(key);
+        TextureRegion cached = cached(key);
+        if (cached != null) {
+            return cached;
         }
-        
-        // Try to load PixelLab character asset
-        String roleName = role.name().toLowerCase();
+        // Not kept on disk: it comes from an asset, which may change without the generator changing
+
+        // Otherwise crop it from the PixelLab character asset
         FileHandle characterFile = Gdx.files.internal("pixellab/characters/" + roleName + "/rotations/south.png");
         
         if (characterFile.exists()) {
@@ -189,23 +485,12 @@ public class PixelArtGenerator {
                 int copyHeight = Math.min(headHeight, fullSprite.getHeight() - srcY);
                 
                 // Draw the head/upper body area
-                for (int y = 0; y < copyHeight && y < profileSize; y++) {
-                    for (int x = 0; x < copyWidth && x < profileSize; x++) {
-                        int srcPixelX = srcX + x;
-                        int srcPixelY = srcY + y;
-                        if (srcPixelX < fullSprite.getWidth() && srcPixelY < fullSprite.getHeight()) {
-                            int pixel = fullSprite.getPixel(srcPixelX, srcPixelY);
-                            int offsetX = (profileSize - copyWidth) / 2;
-                            profilePixmap.drawPixel(offsetX + x, y, pixel);
-                        }
-                    }
-                }
+                int offsetX = (profileSize - copyWidth) / 2;
+                profilePixmap.drawPixmap(fullSprite, offsetX, 0, srcX, srcY,
+                        Math.min(copyWidth, profileSize), Math.min(copyHeight, profileSize));
                 
-                Texture texture = new Texture(profilePixmap);
-                profilePixmap.dispose();
                 fullSprite.dispose();
-                cachedTextures.put(key, texture);
-                return texture;
+                return packPixmap(key, profilePixmap);
             } catch (Exception e) {
                 Gdx.app.error("PixelArtGenerator", "Failed to load PixelLab character for " + roleName + ": " + e.getMessage());
                 // Fall through to fallback
@@ -228,10 +513,7 @@ public class PixelArtGenerator {
         pixmap.fillCircle(20, 18, 2); // Right eye
         pixmap.drawLine(14, 22, 18, 22); // Mouth
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put(key, texture);
-        return texture;
+        return packPixmap(key, pixmap);
     }
     
     private static com.badlogic.gdx.graphics.Color getRoleColor(CrewRole role) {
@@ -249,9 +531,10 @@ public class PixelArtGenerator {
     /**
      * Generate a weapon icon.
      */
-    public static Texture generateWeaponIcon() {
-        if (cachedTextures.containsKey("weapon_icon")) {
-            return cachedTextures.get("weapon_icon");
+    public static TextureRegion generateWeaponIcon() {
+        TextureRegion cached = lookup("weapon_icon");
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
@@ -268,18 +551,16 @@ public class PixelArtGenerator {
         pixmap.setColor(1f, 1f, 0.3f, 1f);
         pixmap.fillRectangle(30, 13, 2, 6);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put("weapon_icon", texture);
-        return texture;
+        return pack("weapon_icon", pixmap);
     }
 
     /**
      * Generate a fire effect sprite.
      */
-    public static Texture generateFireSprite() {
-        if (cachedTextures.containsKey("fire")) {
-            return cachedTextures.get("fire");
+    public static TextureRegion generateFireSprite() {
+        TextureRegion cached = lookup("fire");
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
@@ -296,18 +577,16 @@ public class PixelArtGenerator {
         pixmap.setColor(1f, 1f, 0.5f, 1f);
         pixmap.fillRectangle(14, 12, 4, 4);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put("fire", texture);
-        return texture;
+        return pack("fire", pixmap);
     }
 
     /**
      * Generate a breach/hull damage sprite.
      */
-    public static Texture generateBreachSprite() {
-        if (cachedTextures.containsKey("breach")) {
-            return cachedTextures.get("breach");
+    public static TextureRegion generateBreachSprite() {
+        TextureRegion cached = lookup("breach");
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
@@ -321,18 +600,16 @@ public class PixelArtGenerator {
         pixmap.drawLine(8, 8, 24, 24);
         pixmap.drawLine(24, 8, 8, 24);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put("breach", texture);
-        return texture;
+        return pack("breach", pixmap);
     }
 
     /**
      * Generate a shield bubble sprite.
      */
-    public static Texture generateShieldSprite() {
-        if (cachedTextures.containsKey("shield")) {
-            return cachedTextures.get("shield");
+    public static TextureRegion generateShieldSprite() {
+        TextureRegion cached = lookup("shield");
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
@@ -345,19 +622,17 @@ public class PixelArtGenerator {
         pixmap.setColor(0.5f, 0.8f, 1f, 0.8f);
         pixmap.drawCircle(16, 16, 14);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put("shield", texture);
-        return texture;
+        return pack("shield", pixmap);
     }
 
     /**
      * Generate a power box sprite.
      */
-    public static Texture generatePowerBoxSprite(boolean powered) {
+    public static TextureRegion generatePowerBoxSprite(boolean powered) {
         String key = "powerbox_" + (powered ? "on" : "off");
-        if (cachedTextures.containsKey(key)) {
-            return cachedTextures.get(key);
+        TextureRegion cached = lookup(key);
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(18, 18, Pixmap.Format.RGBA8888);
@@ -379,18 +654,16 @@ public class PixelArtGenerator {
             pixmap.fillRectangle(0, 0, 18, 18);
         }
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put(key, texture);
-        return texture;
+        return pack(key, pixmap);
     }
 
     /**
      * Generate a simple ship hull sprite.
      */
-    public static Texture generateShipHullSprite() {
-        if (cachedTextures.containsKey("hull")) {
-            return cachedTextures.get("hull");
+    public static TextureRegion generateShipHullSprite() {
+        TextureRegion cached = lookup("hull");
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
@@ -406,19 +679,17 @@ public class PixelArtGenerator {
             pixmap.drawLine(0, i, 64, i);
         }
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put("hull", texture);
-        return texture;
+        return pack("hull", pixmap);
     }
 
     /**
      * Generate a biome icon.
      */
-    public static Texture generateBiomeIcon(io.github.n3wang.voidcodex.model.BiomeType type) {
+    public static TextureRegion generateBiomeIcon(BiomeType type) {
         String key = "biome_" + type.name();
-        if (cachedTextures.containsKey(key)) {
-            return cachedTextures.get(key);
+        TextureRegion cached = lookup(key);
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(32, 32, Pixmap.Format.RGBA8888);
@@ -466,18 +737,16 @@ public class PixelArtGenerator {
                 pixmap.fillCircle(16, 16, 12);
         }
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put(key, texture);
-        return texture;
+        return pack(key, pixmap);
     }
 
     /**
      * Generate an enemy ship sprite.
      */
-    public static Texture generateEnemyShipSprite() {
-        if (cachedTextures.containsKey("enemy_ship")) {
-            return cachedTextures.get("enemy_ship");
+    public static TextureRegion generateEnemyShipSprite() {
+        TextureRegion cached = lookup("enemy_ship");
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(64, 64, Pixmap.Format.RGBA8888);
@@ -495,18 +764,16 @@ public class PixelArtGenerator {
         pixmap.fillCircle(20, 32, 3);
         pixmap.fillCircle(44, 32, 3);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put("enemy_ship", texture);
-        return texture;
+        return pack("enemy_ship", pixmap);
     }
 
     /**
      * Generate a weapon projectile sprite.
      */
-    public static Texture generateProjectileSprite() {
-        if (cachedTextures.containsKey("projectile")) {
-            return cachedTextures.get("projectile");
+    public static TextureRegion generateProjectileSprite() {
+        TextureRegion cached = lookup("projectile");
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(16, 16, Pixmap.Format.RGBA8888);
@@ -519,19 +786,17 @@ public class PixelArtGenerator {
         pixmap.setColor(1f, 1f, 1f, 1f); // White
         pixmap.fillCircle(8, 8, 3);
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put("projectile", texture);
-        return texture;
+        return pack("projectile", pixmap);
     }
 
     /**
      * Generate a skill icon.
      */
-    public static Texture generateSkillIcon(io.github.n3wang.voidcodex.model.Skill skill) {
+    public static TextureRegion generateSkillIcon(Skill skill) {
         String key = "skill_" + skill.name();
-        if (cachedTextures.containsKey(key)) {
-            return cachedTextures.get(key);
+        TextureRegion cached = lookup(key);
+        if (cached != null) {
+            return cached;
         }
 
         Pixmap pixmap = new Pixmap(24, 24, Pixmap.Format.RGBA8888);
@@ -574,30 +839,40 @@ public class PixelArtGenerator {
                 pixmap.fillCircle(12, 12, 8);
         }
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put(key, texture);
-        return texture;
+        return pack(key, pixmap);
     }
 
     /**
-     * Clean up all generated textures.
+     * Clean up the atlas and everything packed into it.
      */
     public static void dispose() {
-        for (Texture texture : cachedTextures.values()) {
-            texture.dispose();
+        if (atlas != null) {
+            atlas.dispose();
+            atlas = null;
         }
-        cachedTextures.clear();
+        if (packer != null) {
+            packer.dispose();
+            packer = null;
+        }
+        if (pixellabAtlas != null) {
+            pixellabAtlas.dispose();
+            pixellabAtlas = null;
+        }
+        pixellabAtlasLoaded = false;
+        cachedRegions.clear();
+        unplaced.clear();
+        spriteBytes = 0;
     }
     
     /**
      * Generate an icon for a room/system type.
      * Returns a small icon (16x16 or 24x24) representing the system.
      */
-    public static Texture generateSystemIcon(RoomType type) {
+    public static TextureRegion generateSystemIcon(RoomType type) {
         String key = "icon_" + type.name();
-        if (cachedTextures.containsKey(key)) {
-            return cachedTextures.get(key);
+        TextureRegion cached = lookup(key);
+        if (cached != null) {
+            return cached;
         }
         
         int iconSize = 24;
@@ -675,10 +950,7 @@ public class PixelArtGenerator {
                 break;
         }
         
-        Texture texture = new Texture(pixmap);
-        pixmap.dispose();
-        cachedTextures.put(key, texture);
-        return texture;
+        return pack(key, pixmap);
     }
 }
 
@@ -0,0 +1,122 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Space-time reservations for cooperative crew planning: which agent stands on which
+ * tile at which step. Steps count tile moves from the moment the batch was planned.
+ * An agent that reaches its goal is parked there for good.
+ * Reservations are held in a dense array over a fixed number of steps, a node's steps
+ * side by side, so a lookup is one array read and the steps around it are in the same
+ * cache line; steps past the last are never reserved.
+ * Cleared and refilled for every batch; storage is kept between batches.
+ */
+public class ReservationTable {
+    public static final int NONE = -1;
+
+    private final int steps;
+    private final int[] reserved; // Per node * steps + step, agent or NONE
+    private final IntArray reservedKeys = new IntArray(); // Entries to reset on clear
+    private final int[] parkedAgent; // Per node, agent parked there for good, or NONE
+    private final int[] parkedFrom; // Step from which the parked agent stays
+    private final int[] lastReserved; // Per node, last step anyone reserved it, or -1
+    private final IntArray touchedNodes = new IntArray(); // Nodes to reset on clear
+
+    public ReservationTable(int nodeCount, int steps) {
+        this.steps = steps;
+        this.reserved = new int[nodeCount * steps];
+        Arrays.fill(reserved, NONE);
+        this.parkedAgent = new int[nodeCount];
+        this.parkedFrom = new int[nodeCount];
+        this.lastReserved = new int[nodeCount];
+        Arrays.fill(parkedAgent, NONE);
+        Arrays.fill(lastReserved, -1);
+    }
+
+    public void clear() {
+        for (int i = 0; i < reservedKeys.size; i++) {
+            reserved[reservedKeys.get(i)] = NONE;
+        }
+        reservedKeys.clear();
+        for (int i = 0; i < touchedNodes.size; i++) {
+            int node = touchedNodes.get(i);
+            parkedAgent[node] = NONE;
+            lastReserved[node] = -1;
+        }
+        touchedNodes.clear();
+    }
+
+    public void reserve(int node, int step, int agent) {
+        if (step >= steps) {
+            return;
+        }
+        int key = node * steps + step;
+        if (reserved[key] == NONE) {
+            reservedKeys.add(key);
+        }
+        reserved[key] = agent;
+        touch(node, step);
+    }
+
+    /**
+     * Keep a node for an agent from the given step on.
+     */
+    public void park(int node, int fromStep, int agent) {
+        touch(node, Integer.MAX_VALUE);
+        parkedAgent[node] = agent;
+        parkedFrom[node] = fromStep;
+    }
+
+    private void touch(int node, int step) {
+        if (lastReserved[node] == -1 && parkedAgent[node] == NONE) {
+            touchedNodes.add(node);
+        }
+        lastReserved[node] = Math.max(lastReserved[node], step);
+    }
+
+    /**
+     * The agent holding a node at a step, or NONE.
+     */
+    public int getAgent(int node, int step) {
+        if (parkedAgent[node] != NONE && step >= parkedFrom[node]) {
+            return parkedAgent[node];
+        }
+        return step < steps ? reserved[node * steps + step] : NONE;
+    }
+
+    public boolean isFree(int node, int step, int agent) {
+        int holder = getAgent(node, step);
+        return holder == NONE || holder == agent;
+    }
+
+    /**
+     * Whether an agent can be on a node at a step and the step after, and, when entering
+     * it, the step before: crew register on a tile only once they reach it, so this keeps
+     * them from following, swapping with or being followed by another agent.
+     */
+    public boolean isFreeAround(int node, int step, int agent, boolean entering) {
+        int parked = parkedAgent[node];
+        if (parked != NONE && parked != agent && step + 1 >= parkedFrom[node]) {
+            return false;
+        }
+        int first = entering ? step - 1 : step;
+        int last = Math.min(step + 1, steps - 1);
+        int base = node * steps;
+        for (int i = first; i <= last; i++) {
+            int holder = reserved[base + i];
+            if (holder != NONE && holder != agent) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether nobody needs the node at any step after the given one.
+     */
+    public boolean isFreeAfter(int node, int step) {
+        return lastReserved[node] <= step;
+    }
+}
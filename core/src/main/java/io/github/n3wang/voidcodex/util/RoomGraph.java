@@ -0,0 +1,149 @@
+package io.github.n3wang.voidcodex.util;
+
+import java.util.Arrays;
+
+/**
+ * Abstract room-level navigation graph: one node per passable room, one edge per door.
+ * Hop distances to a destination room are computed once per destination with a
+ * breadth-first search and cached, so every crew member heading to the same room
+ * shares the same distance field and the next room on a route is an O(door count) lookup.
+ * At most {@link #CACHED_TARGETS} fields are kept, the least recently used one being
+ * recomputed for a new destination, so memory stays linear in the room count on big grids.
+ * Rooms are addressed by grid cell index (roomY * roomsWide + roomX).
+ */
+public class RoomGraph {
+    public static final int UNREACHABLE = -1;
+    public static final int CACHED_TARGETS = 32; // Distance fields kept at once
+
+    private final int roomsWide;
+    private final int roomsHigh;
+    private final int[] doors; // Door bits per cell (ShipTileGraph.DOOR_*), 0 if impassable
+    private final boolean[] passable;
+    private final int[][] fields; // Hop distances, per slot
+    private final int[] slotTarget; // Destination cell of each slot, -1 if unused
+    private final long[] slotUsed; // When each slot was last used, for LRU reuse
+    private final int[] targetSlot; // Slot per destination cell, -1 if not cached
+    private long useCount;
+    private final int[] queue; // Reused BFS queue
+    private int roomCount;
+
+    public RoomGraph(ShipTileGraph tileGraph) {
+        this.roomsWide = tileGraph.getRoomsWide();
+        this.roomsHigh = tileGraph.getRoomsHigh();
+        int cells = roomsWide * roomsHigh;
+        this.doors = new int[cells];
+        this.passable = new boolean[cells];
+        int slots = Math.min(CACHED_TARGETS, cells);
+        this.fields = new int[slots][];
+        this.slotTarget = new int[slots];
+        this.slotUsed = new long[slots];
+        this.targetSlot = new int[cells];
+        Arrays.fill(slotTarget, -1);
+        Arrays.fill(targetSlot, -1);
+        this.queue = new int[cells];
+
+        for (int roomY = 0; roomY < roomsHigh; roomY++) {
+            for (int roomX = 0; roomX < roomsWide; roomX++) {
+                int cell = roomY * roomsWide + roomX;
+                passable[cell] = tileGraph.isRoomPassable(roomX, roomY);
+                doors[cell] = tileGraph.getRoomDoors(roomX, roomY);
+                if (passable[cell]) {
+                    roomCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hop distance between two rooms, or UNREACHABLE.
+     */
+    public int getDistance(int fromX, int fromY, int toX, int toY) {
+        if (!isPassable(fromX, fromY) || !isPassable(toX, toY)) {
+            return UNREACHABLE;
+        }
+        return distancesTo(toY * roomsWide + toX)[fromY * roomsWide + fromX];
+    }
+
+    /**
+     * Cell index of the next room on a shortest route, or UNREACHABLE.
+     * Returns the destination cell itself when the rooms are neighbours.
+     */
+    public int getNextRoom(int fromX, int fromY, int toX, int toY) {
+        int distance = getDistance(fromX, fromY, toX, toY);
+        if (distance == UNREACHABLE || distance == 0) {
+            return UNREACHABLE;
+        }
+        int[] field = distancesTo(toY * roomsWide + toX);
+        int from = fromY * roomsWide + fromX;
+        int door = doors[from];
+        if ((door & ShipTileGraph.DOOR_PLUS_X) != 0 && field[from + 1] == distance - 1) return from + 1;
+        if ((door & ShipTileGraph.DOOR_MINUS_X) != 0 && field[from - 1] == distance - 1) return from - 1;
+        if ((door & ShipTileGraph.DOOR_PLUS_Y) != 0 && field[from + roomsWide] == distance - 1) return from + roomsWide;
+        if ((door & ShipTileGraph.DOOR_MINUS_Y) != 0 && field[from - roomsWide] == distance - 1) return from - roomsWide;
+        return UNREACHABLE;
+    }
+
+    private int[] distancesTo(int target) {
+        int slot = targetSlot[target];
+        if (slot >= 0) {
+            slotUsed[slot] = ++useCount;
+            return fields[slot];
+        }
+
+        // Take an unused slot, or the least recently used one
+        slot = 0;
+        for (int i = 1; i < slotTarget.length && slotTarget[slot] >= 0; i++) {
+            if (slotTarget[i] < 0 || slotUsed[i] < slotUsed[slot]) {
+                slot = i;
+            }
+        }
+        if (slotTarget[slot] >= 0) {
+            targetSlot[slotTarget[slot]] = -1;
+        }
+        if (fields[slot] == null) {
+            fields[slot] = new int[passable.length];
+        }
+        slotTarget[slot] = target;
+        slotUsed[slot] = ++useCount;
+        targetSlot[target] = slot;
+
+        // Doors are symmetric, so a BFS outward from the destination gives every room's distance to it
+        int[] field = fields[slot];
+        Arrays.fill(field, UNREACHABLE);
+        field[target] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = field[cell] + 1;
+            int door = doors[cell];
+            if ((door & ShipTileGraph.DOOR_PLUS_X) != 0 && field[cell + 1] == UNREACHABLE) {
+                field[cell + 1] = next;
+                queue[tail++] = cell + 1;
+            }
+            if ((door & ShipTileGraph.DOOR_MINUS_X) != 0 && field[cell - 1] == UNREACHABLE) {
+                field[cell - 1] = next;
+                queue[tail++] = cell - 1;
+            }
+            if ((door & ShipTileGraph.DOOR_PLUS_Y) != 0 && field[cell + roomsWide] == UNREACHABLE) {
+                field[cell + roomsWide] = next;
+                queue[tail++] = cell + roomsWide;
+            }
+            if ((door & ShipTileGraph.DOOR_MINUS_Y) != 0 && field[cell - roomsWide] == UNREACHABLE) {
+                field[cell - roomsWide] = next;
+                queue[tail++] = cell - roomsWide;
+            }
+        }
+        return field;
+    }
+
+    public boolean isPassable(int roomX, int roomY) {
+        return roomX >= 0 && roomX < roomsWide && roomY >= 0 && roomY < roomsHigh
+                && passable[roomY * roomsWide + roomX];
+    }
+
+    public int getRoomCount() { return roomCount; }
+    public int getRoomsWide() { return roomsWide; }
+    public int getRoomsHigh() { return roomsHigh; }
+}
@@ -0,0 +1,270 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultConnection;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.utils.Array;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Ship;
+
+/**
+ * Navigation graph over every tile of a ship, for gdx-ai's indexed pathfinders.
+ * Tiles are numbered globally: tile (gx, gy) = (roomX * 2 + tileX, roomY * 2 + tileY)
+ * has index gy * tilesWide + gx. Tiles inside a room connect to their horizontal and
+ * vertical neighbours; facing edge tiles of two adjacent non-empty rooms connect
+ * through the door between them.
+ * The graph is built once per ship layout; crew occupancy is applied at query time.
+ */
+public class ShipTileGraph implements IndexedGraph<ShipTileGraph.TileNode> {
+    public static final int ROOM_TILES = 2; // Each room is 2x2 tiles
+
+    // Door bits per room, one per side
+    public static final int DOOR_PLUS_X = 1;
+    public static final int DOOR_MINUS_X = 2;
+    public static final int DOOR_PLUS_Y = 4;
+    public static final int DOOR_MINUS_Y = 8;
+
+    /**
+     * Manhattan distance between tiles - admissible since movement is horizontal/vertical only.
+     */
+    public static final Heuristic<TileNode> MANHATTAN = new Heuristic<TileNode>() {
+        @Override
+        public float estimate(TileNode node, TileNode endNode) {
+            return Math.abs(node.gx - endNode.gx) + Math.abs(node.gy - endNode.gy);
+        }
+    };
+
+    /**
+     * A single tile. Impassable tiles (no room or EMPTY room) exist but have no connections.
+     */
+    public static class TileNode {
+        public final int index;
+        public final int gx, gy; // Global tile coordinates
+        public final int roomX, roomY;
+        public final int tileX, tileY;
+        final Room room;
+        final Array<Connection<TileNode>> connections = new Array<>(4);
+
+        TileNode(int index, int gx, int gy, Room room) {
+            this.index = index;
+            this.gx = gx;
+            this.gy = gy;
+            this.roomX = gx / ROOM_TILES;
+            this.roomY = gy / ROOM_TILES;
+            this.tileX = gx % ROOM_TILES;
+            this.tileY = gy % ROOM_TILES;
+            this.room = room;
+        }
+
+        public Room getRoom() { return room; }
+    }
+
+    private final int layoutVersion;
+    private final int roomsWide;
+    private final int roomsHigh;
+    private final int tilesWide;
+    private final int tilesHigh;
+    private final TileNode[] nodes;
+    private final int[] roomDoors; // Door bits per room cell (roomY * roomsWide + roomX)
+    private final boolean[] claimed; // Tiles a crew member is stepping into but not yet standing on
+    private int occupancyVersion; // Bumped whenever crew settle on or step off a tile
+
+    // Reused by getConnections so a search allocates nothing
+    private final Array<Connection<TileNode>> openConnections = new Array<>(4);
+    private boolean respectOccupancy = true;
+    private Room allowedRoomA; // When set, searches stay inside these two rooms
+    private Room allowedRoomB;
+
+    public ShipTileGraph(Ship ship) {
+        this.layoutVersion = ship.getLayoutVersion();
+        this.roomsWide = ship.getGridWidth();
+        this.roomsHigh = ship.getGridHeight();
+        this.tilesWide = roomsWide * ROOM_TILES;
+        this.tilesHigh = roomsHigh * ROOM_TILES;
+        this.nodes = new TileNode[tilesWide * tilesHigh];
+        this.roomDoors = new int[roomsWide * roomsHigh];
+        this.claimed = new boolean[nodes.length];
+
+        for (int gy = 0; gy < tilesHigh; gy++) {
+            for (int gx = 0; gx < tilesWide; gx++) {
+                Room room = ship.getRoom(gx / ROOM_TILES, gy / ROOM_TILES);
+                int index = gy * tilesWide + gx;
+                nodes[index] = new TileNode(index, gx, gy, isPassable(room) ? room : null);
+            }
+        }
+
+        buildDoors(ship);
+
+        // Connect each passable tile to its passable neighbours. Neighbours in the same
+        // room are always connected; across rooms only through a door.
+        for (TileNode node : nodes) {
+            if (node.room == null) continue;
+            connect(node, node.gx + 1, node.gy, DOOR_PLUS_X);
+            connect(node, node.gx - 1, node.gy, DOOR_MINUS_X);
+            connect(node, node.gx, node.gy + 1, DOOR_PLUS_Y);
+            connect(node, node.gx, node.gy - 1, DOOR_MINUS_Y);
+        }
+    }
+
+    /**
+     * Precompute the room adjacency (door) graph: every pair of neighbouring
+     * non-empty rooms shares a door.
+     */
+    private void buildDoors(Ship ship) {
+        for (int roomY = 0; roomY < roomsHigh; roomY++) {
+            for (int roomX = 0; roomX < roomsWide; roomX++) {
+                if (!isPassable(ship.getRoom(roomX, roomY))) continue;
+                int doors = 0;
+                if (isPassable(ship.getRoom(roomX + 1, roomY))) doors |= DOOR_PLUS_X;
+                if (isPassable(ship.getRoom(roomX - 1, roomY))) doors |= DOOR_MINUS_X;
+                if (isPassable(ship.getRoom(roomX, roomY + 1))) doors |= DOOR_PLUS_Y;
+                if (isPassable(ship.getRoom(roomX, roomY - 1))) doors |= DOOR_MINUS_Y;
+                roomDoors[roomY * roomsWide + roomX] = doors;
+            }
+        }
+    }
+
+    private void connect(TileNode from, int gx, int gy, int doorBit) {
+        TileNode to = getNodeAt(gx, gy);
+        if (to == null || to.room == null) return;
+        if (to.room != from.room && (getRoomDoors(from.roomX, from.roomY) & doorBit) == 0) return;
+        from.connections.add(new DefaultConnection<>(from, to));
+    }
+
+    private static boolean isPassable(Room room) {
+        return room != null && room.getType() != RoomType.EMPTY;
+    }
+
+    /**
+     * Connections out of a tile, skipping tiles currently occupied or claimed by crew and rooms
+     * outside the current room restriction. The returned array is reused between calls.
+     */
+    @Override
+    public Array<Connection<TileNode>> getConnections(TileNode fromNode) {
+        if (!respectOccupancy && allowedRoomA == null) {
+            return fromNode.connections;
+        }
+        openConnections.clear();
+        Array<Connection<TileNode>> all = fromNode.connections;
+        for (int i = 0; i < all.size; i++) {
+            Connection<TileNode> connection = all.get(i);
+            TileNode to = connection.getToNode();
+            if (allowedRoomA != null && to.room != allowedRoomA && to.room != allowedRoomB) continue;
+            if (respectOccupancy && (!to.room.isTileEmpty(to.tileX, to.tileY) || claimed[to.index])) continue;
+            openConnections.add(connection);
+        }
+        return openConnections;
+    }
+
+    /**
+     * Restrict searches to two rooms (used to refine one hop of a room-level route).
+     * Pass nulls to lift the restriction.
+     */
+    public void restrictToRooms(Room roomA, Room roomB) {
+        this.allowedRoomA = roomA;
+        this.allowedRoomB = roomB;
+    }
+
+    @Override
+    public int getIndex(TileNode node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * Get a tile by room and in-room tile coordinates, or null if out of range.
+     */
+    public TileNode getNode(int roomX, int roomY, int tileX, int tileY) {
+        if (tileX < 0 || tileX >= ROOM_TILES || tileY < 0 || tileY >= ROOM_TILES) {
+            return null;
+        }
+        return getNodeAt(roomX * ROOM_TILES + tileX, roomY * ROOM_TILES + tileY);
+    }
+
+    /**
+     * Get a tile by global tile coordinates, or null if out of range.
+     */
+    public TileNode getNodeAt(int gx, int gy) {
+        if (gx < 0 || gx >= tilesWide || gy < 0 || gy >= tilesHigh) {
+            return null;
+        }
+        return nodes[gy * tilesWide + gx];
+    }
+
+    public TileNode getNode(int index) {
+        return nodes[index];
+    }
+
+    public boolean isPassable(TileNode node) {
+        return node != null && node.room != null;
+    }
+
+    public boolean isRoomPassable(int roomX, int roomY) {
+        return isPassable(getNode(roomX, roomY, 0, 0));
+    }
+
+    /**
+     * Door bits (DOOR_*) of a room, or 0 if the room is impassable or out of range.
+     */
+    public int getRoomDoors(int roomX, int roomY) {
+        if (roomX < 0 || roomX >= roomsWide || roomY < 0 || roomY >= roomsHigh) {
+            return 0;
+        }
+        return roomDoors[roomY * roomsWide + roomX];
+    }
+
+    /**
+     * Mark a tile as the one a crew member is stepping into, so nobody else picks it
+     * before they arrive. Release it once they stand on it.
+     */
+    public void claim(TileNode node) {
+        claimed[node.index] = true;
+    }
+
+    public void release(TileNode node) {
+        claimed[node.index] = false;
+    }
+
+    public boolean isClaimed(TileNode node) {
+        return claimed[node.index];
+    }
+
+    /**
+     * Note that crew settled on or stepped off a tile, for caches that treat crew standing
+     * still as obstacles.
+     */
+    public void markOccupancyChanged() {
+        occupancyVersion++;
+    }
+
+    public int getOccupancyVersion() {
+        return occupancyVersion;
+    }
+
+    /**
+     * Whether this graph still matches the ship's room layout.
+     */
+    public boolean isCurrent(Ship ship) {
+        return ship.getLayoutVersion() == layoutVersion
+                && ship.getGridWidth() == roomsWide
+                && ship.getGridHeight() == roomsHigh;
+    }
+
+    /**
+     * When false, occupied tiles are treated as walkable (e.g. for planning ahead).
+     */
+    public void setRespectOccupancy(boolean respectOccupancy) {
+        this.respectOccupancy = respectOccupancy;
+    }
+
+    public int getTilesWide() { return tilesWide; }
+    public int getTilesHigh() { return tilesHigh; }
+    public int getRoomsWide() { return roomsWide; }
+    public int getRoomsHigh() { return roomsHigh; }
+}
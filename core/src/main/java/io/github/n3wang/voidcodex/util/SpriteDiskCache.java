@@ -0,0 +1,97 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Local disk cache of the sprites {@link PixelArtGenerator} draws, so each one is drawn
+ * once rather than on every launch. Pixmaps are stored as CIM files (zlib-compressed raw
+ * pixels, much quicker to read back than PNG) under cache/sprites/&lt;version&gt;/&lt;key&gt;.cim.
+ * The version is a checksum of the generator's class file, so changing the generator
+ * code starts a fresh directory and the old ones are deleted.
+ * Any I/O failure just means the sprite is generated as before.
+ */
+final class SpriteDiskCache {
+    private static final String CACHE_DIR = "cache/sprites/";
+
+    private static FileHandle versionDir; // Resolved on first use
+    private static boolean disabled;
+
+    private SpriteDiskCache() {
+    }
+
+    /**
+     * The stored sprite for a cache key, or null if there is none (or it could not be read).
+     */
+    static Pixmap load(String key) {
+        FileHandle dir = versionDir();
+        if (dir == null) return null;
+        FileHandle file = dir.child(key + ".cim");
+        if (!file.exists()) return null;
+        try {
+            return PixmapIO.readCIM(file);
+        } catch (Exception e) {
+            Gdx.app.error("SpriteDiskCache", "Discarding unreadable sprite " + file.path() + ": " + e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Store a freshly generated sprite.
+     */
+    static void store(String key, Pixmap pixmap) {
+        FileHandle dir = versionDir();
+        if (dir == null) return;
+        try {
+            PixmapIO.writeCIM(dir.child(key + ".cim"), pixmap);
+        } catch (Exception e) {
+            Gdx.app.error("SpriteDiskCache", "Could not cache sprite " + key + ", caching off: " + e.getMessage());
+            disabled = true;
+        }
+    }
+
+    private static FileHandle versionDir() {
+        if (disabled) return null;
+        if (versionDir == null) {
+            String version = generatorVersion();
+            if (version == null) {
+                disabled = true;
+                return null;
+            }
+            FileHandle root = Gdx.files.local(CACHE_DIR);
+            for (FileHandle stale : root.list()) {
+                if (!stale.name().equals(version)) {
+                    stale.deleteDirectory(); // Drawn by an older generator
+                }
+            }
+            versionDir = root.child(version);
+            versionDir.mkdirs();
+        }
+        return versionDir;
+    }
+
+    /**
+     * Checksum of PixelArtGenerator's bytecode, or null if it can't be read.
+     */
+    private static String generatorVersion() {
+        try (InputStream in = PixelArtGenerator.class.getResourceAsStream("PixelArtGenerator.class")) {
+            if (in == null) return null;
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+            return Long.toHexString(crc.getValue());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
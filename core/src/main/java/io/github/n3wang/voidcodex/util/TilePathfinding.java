@@ -1,233 +1,380 @@
 package io.github.n3wang.voidcodex.util;
 
-import io.github.n3wang.voidcodex.model.Room;
-import io.github.n3wang.voidcodex.model.RoomType;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import io.github.n3wang.voidcodex.model.Crew;
 import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.util.ShipTileGraph.TileNode;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Pathfinding for tile-based movement within and between rooms.
  * Each room is 2x2 tiles, and movement is tile-to-tile (horizontal/vertical only).
+ * Uses A* over a per-ship {@link ShipTileGraph}; the graph, node records and open list
+ * are kept per ship and reused, so a search itself allocates nothing. Queries that write
+ * packed tiles into a caller's buffer (and crew routes, which go into the crew's own path
+ * buffer) produce no garbage once warm.
+ * On large ships crew routes are planned hierarchically: the next room comes from the
+ * shared {@link RoomGraph} and A* only refines the hop through the current and next room.
+ * Routes that go stale mid-walk are repaired incrementally with {@link IncrementalPathfinder}.
+ * A ship's search state is not thread-safe: query each ship from one thread at a time
+ * (the simulation ticks each ship on a single thread). Different ships may be queried
+ * concurrently.
  */
 public class TilePathfinding {
-    
+    // Ships with at least this many rooms plan crew routes hierarchically
+    public static final int HIERARCHICAL_MIN_ROOMS = 64;
+
+    private static final Map<Ship, Search> searches = Collections.synchronizedMap(new WeakHashMap<Ship, Search>());
+
+    /**
+     * Reusable search state for one ship layout.
+     */
+    private static final class Search {
+        final ShipTileGraph graph;
+        final IndexedAStarPathFinder<TileNode> finder;
+        final DefaultGraphPath<TileNode> nodePath = new DefaultGraphPath<>();
+        final IntArray packedPath = new IntArray(); // Scratch for the List-returning findPath
+        RoomGraph roomGraph; // Built on first use
+        CooperativePathfinder cooperative; // Built on first use
+        final FlowField[] flowFields; // Per destination room cell, built on first use
+        final ObjectMap<Crew, IncrementalPathfinder> incremental = new ObjectMap<>(); // Per walking crew member
+        final Array<IncrementalPathfinder> spareIncremental = new Array<>(); // Released, ready for reuse
+
+        Search(ShipTileGraph graph) {
+            this.graph = graph;
+            this.finder = new IndexedAStarPathFinder<>(graph);
+            this.flowFields = new FlowField[graph.getRoomsWide() * graph.getRoomsHigh()];
+        }
+
+        RoomGraph getRoomGraph() {
+            if (roomGraph == null) {
+                roomGraph = new RoomGraph(graph);
+            }
+            return roomGraph;
+        }
+
+        CooperativePathfinder getCooperative() {
+            if (cooperative == null) {
+                cooperative = new CooperativePathfinder(graph);
+            }
+            return cooperative;
+        }
+    }
+
+    private static Search searchFor(Ship ship) {
+        Search search = searches.get(ship);
+        if (search == null || !search.graph.isCurrent(ship)) {
+            // First query or the room layout changed - rebuild the graph
+            search = new Search(new ShipTileGraph(ship));
+            searches.put(ship, search);
+        }
+        return search;
+    }
+
+    /**
+     * Get the navigation graph for a ship's current layout.
+     */
+    public static ShipTileGraph getGraph(Ship ship) {
+        return searchFor(ship).graph;
+    }
+
+    /**
+     * Get the room-level navigation graph for a ship's current layout.
+     */
+    public static RoomGraph getRoomGraph(Ship ship) {
+        return searchFor(ship).getRoomGraph();
+    }
+
+    /**
+     * Get the flow field towards a room, shared by every crew member heading there.
+     * Cached per ship and room; recomputed only when the ship's navigation version changed or
+     * crew settled on or stepped off a tile.
+     * Returns null if the room is impassable.
+     */
+    public static FlowField getFlowField(Ship ship, int roomX, int roomY) {
+        Search search = searchFor(ship);
+        if (!search.graph.isRoomPassable(roomX, roomY)) {
+            return null;
+        }
+        int cell = roomY * search.graph.getRoomsWide() + roomX;
+        FlowField field = search.flowFields[cell];
+        if (field == null) {
+            field = new FlowField(search.graph, roomX, roomY, ship.getNavVersion());
+            search.flowFields[cell] = field;
+        } else if (!field.isCurrent(ship.getNavVersion())) {
+            field.rebuild(ship.getNavVersion());
+        }
+        return field;
+    }
+
+    /**
+     * Plan routes for a group of crew to the free tiles nearest a clicked tile in one batch,
+     * with collisions between them resolved by cooperative space-time planning.
+     * See {@link CooperativePathfinder#planGroup}. Returns the number of crew given a cooperative route.
+     */
+    public static int planGroupRoutes(Ship ship, List<Crew> group, int roomX, int roomY, int tileX, int tileY) {
+        return searchFor(ship).getCooperative().planGroup(ship, group, roomX, roomY, tileX, tileY);
+    }
+
+    /**
+     * Plan the next window of cooperative routes for crew that walked their current one.
+     * See {@link CooperativePathfinder#replanGroup}.
+     */
+    public static int replanGroupRoutes(Ship ship, List<Crew> group) {
+        return searchFor(ship).getCooperative().replanGroup(ship, group);
+    }
+
     /**
      * Find path from start tile to target tile.
      * Coordinates: (roomX, roomY, tileX, tileY) where tileX and tileY are 0-1.
-     * Returns list of tile coordinates (roomX, roomY, tileX, tileY) in order.
+     * Returns list of tile coordinates (roomX, roomY, tileX, tileY) in order, excluding the
+     * start tile. Tiles occupied by crew are routed around; returns an empty list if the
+     * target is unreachable. Allocates the result; see the IntArray overload for hot paths.
      */
-    public static List<int[]> findPath(Ship ship, 
+    public static List<int[]> findPath(Ship ship,
             int startRoomX, int startRoomY, int startTileX, int startTileY,
             int targetRoomX, int targetRoomY, int targetTileX, int targetTileY) {
-        
-        List<int[]> path = new ArrayList<>();
-        
-        // If already at destination, return empty path
-        if (startRoomX == targetRoomX && startRoomY == targetRoomY && 
-            startTileX == targetTileX && startTileY == targetTileY) {
-            return path;
-        }
-        
-        // If same room, find path within room
-        if (startRoomX == targetRoomX && startRoomY == targetRoomY) {
-            return findPathWithinRoom(ship, startRoomX, startRoomY, startTileX, startTileY, targetTileX, targetTileY);
-        }
-        
-        // Different rooms - need to move between rooms
-        // Strategy: Move to exit tile of current room, then move room-to-room, then to target tile
-        
-        Room startRoom = ship.getRoom(startRoomX, startRoomY);
-        Room targetRoom = ship.getRoom(targetRoomX, targetRoomY);
-        
-        if (startRoom == null || startRoom.getType() == RoomType.EMPTY ||
-            targetRoom == null || targetRoom.getType() == RoomType.EMPTY) {
-            return path; // Invalid rooms
-        }
-        
-        // Find path to adjacent room first (simple: move horizontally/vertically between rooms)
-        // For now, use simple pathfinding: move to room edge, then to next room
-        
-        // Move within start room to edge closest to target room
-        int exitTileX = startTileX;
-        int exitTileY = startTileY;
-        
-        // Determine which edge to exit from based on target room direction
-        if (targetRoomX > startRoomX) {
-            // Target is to the right, exit from right edge
-            exitTileX = 1;
-        } else if (targetRoomX < startRoomX) {
-            // Target is to the left, exit from left edge
-            exitTileX = 0;
-        }
-        
-        if (targetRoomY > startRoomY) {
-            // Target is below, exit from bottom edge
-            exitTileY = 1;
-        } else if (targetRoomY < startRoomY) {
-            // Target is above, exit from top edge
-            exitTileY = 0;
-        }
-        
-        // Path within start room to exit
-        if (startTileX != exitTileX || startTileY != exitTileY) {
-            List<int[]> pathToExit = findPathWithinRoom(ship, startRoomX, startRoomY, startTileX, startTileY, exitTileX, exitTileY);
-            path.addAll(pathToExit);
-        }
-        
-        // Move room-to-room (horizontal/vertical only)
-        int currentRoomX = startRoomX;
-        int currentRoomY = startRoomY;
-        int currentTileX = exitTileX;
-        int currentTileY = exitTileY;
-        
-        // Move horizontally first
-        while (currentRoomX != targetRoomX) {
-            if (currentRoomX < targetRoomX) {
-                currentRoomX++;
-            } else {
-                currentRoomX--;
-            }
-            
-            Room nextRoom = ship.getRoom(currentRoomX, currentRoomY);
-            if (nextRoom == null || nextRoom.getType() == RoomType.EMPTY) {
-                return new ArrayList<>(); // Path blocked
-            }
-            
-            // Enter next room from opposite side
-            int enterTileX = (currentRoomX > startRoomX) ? 0 : 1;
-            path.add(new int[]{currentRoomX, currentRoomY, enterTileX, currentTileY});
-            currentTileX = enterTileX;
-        }
-        
-        // Then move vertically
-        while (currentRoomY != targetRoomY) {
-            if (currentRoomY < targetRoomY) {
-                currentRoomY++;
-            } else {
-                currentRoomY--;
-            }
-            
-            Room nextRoom = ship.getRoom(currentRoomX, currentRoomY);
-            if (nextRoom == null || nextRoom.getType() == RoomType.EMPTY) {
-                return new ArrayList<>(); // Path blocked
-            }
-            
-            // Enter next room from opposite side
-            int enterTileY = (currentRoomY > startRoomY) ? 0 : 1;
-            path.add(new int[]{currentRoomX, currentRoomY, currentTileX, enterTileY});
-            currentTileY = enterTileY;
-        }
-        
-        // Now move within target room to target tile
-        if (currentTileX != targetTileX || currentTileY != targetTileY) {
-            List<int[]> pathToTarget = findPathWithinRoom(ship, targetRoomX, targetRoomY, currentTileX, currentTileY, targetTileX, targetTileY);
-            path.addAll(pathToTarget);
-        }
-        
+
+        IntArray packed = searchFor(ship).packedPath;
+        findPath(ship, startRoomX, startRoomY, startTileX, startTileY,
+                targetRoomX, targetRoomY, targetTileX, targetTileY, packed);
+        List<int[]> path = new ArrayList<>(packed.size);
+        for (int i = 0; i < packed.size; i++) {
+            int tile = packed.get(i);
+            path.add(new int[]{Crew.unpackRoomX(tile), Crew.unpackRoomY(tile),
+                    Crew.unpackTileX(tile), Crew.unpackTileY(tile)});
+        }
         return path;
     }
-    
+
     /**
-     * Find path within a single room (2x2 grid).
+     * Find path from start tile to target tile, writing it into a caller-supplied buffer as
+     * packed tiles ({@link Crew#packTile}) in order, excluding the start tile. The buffer is
+     * cleared first. Returns false (leaving it empty) if the target is unreachable; true with
+     * an empty buffer if already there. Allocates nothing once the buffer has grown.
      */
-    private static List<int[]> findPathWithinRoom(Ship ship, int roomX, int roomY, 
-            int startTileX, int startTileY, int targetTileX, int targetTileY) {
-        List<int[]> path = new ArrayList<>();
-        
-        Room room = ship.getRoom(roomX, roomY);
-        if (room == null) {
-            return path;
-        }
-        
-        int currentTileX = startTileX;
-        int currentTileY = startTileY;
-        
-        // Move horizontally first
-        while (currentTileX != targetTileX) {
-            if (currentTileX < targetTileX) {
-                currentTileX++;
-            } else {
-                currentTileX--;
-            }
-            
-            // Check if tile is occupied
-            if (!room.isTileEmpty(currentTileX, currentTileY)) {
-                // Try alternative path (move vertically first)
-                return findPathWithinRoomVerticalFirst(ship, roomX, roomY, startTileX, startTileY, targetTileX, targetTileY);
-            }
-            
-            path.add(new int[]{roomX, roomY, currentTileX, currentTileY});
-        }
-        
-        // Then move vertically
-        while (currentTileY != targetTileY) {
-            if (currentTileY < targetTileY) {
-                currentTileY++;
-            } else {
-                currentTileY--;
-            }
-            
-            // Check if tile is occupied
-            if (!room.isTileEmpty(currentTileX, currentTileY)) {
-                return new ArrayList<>(); // Path blocked
+    public static boolean findPath(Ship ship,
+            int startRoomX, int startRoomY, int startTileX, int startTileY,
+            int targetRoomX, int targetRoomY, int targetTileX, int targetTileY, IntArray out) {
+
+        out.clear();
+
+        // If already at destination, nothing to walk
+        if (startRoomX == targetRoomX && startRoomY == targetRoomY &&
+            startTileX == targetTileX && startTileY == targetTileY) {
+            return true;
+        }
+
+        Search search = searchFor(ship);
+        TileNode start = search.graph.getNode(startRoomX, startRoomY, startTileX, startTileY);
+        TileNode target = search.graph.getNode(targetRoomX, targetRoomY, targetTileX, targetTileY);
+        if (!search.graph.isPassable(start) || !search.graph.isPassable(target)) {
+            return false; // Invalid rooms
+        }
+
+        search.nodePath.clear();
+        if (!search.finder.searchNodePath(start, target, ShipTileGraph.MANHATTAN, search.nodePath)) {
+            return false; // Path blocked
+        }
+
+        // The node path starts with the start tile itself
+        for (int i = 1; i < search.nodePath.getCount(); i++) {
+            TileNode node = search.nodePath.get(i);
+            out.add(Crew.packTile(node.roomX, node.roomY, node.tileX, node.tileY));
+        }
+        return true;
+    }
+
+    /**
+     * Plan a crew member's route from their current tile to their target tile and store it
+     * in the crew's path buffer, stamped with the ship's navigation version.
+     * On large ships only the hop into the next room is planned; the crew replans when the
+     * buffer runs out. Returns false (leaving the route empty) if the target is unreachable.
+     */
+    public static boolean planRoute(Ship ship, Crew crew) {
+        crew.clearPath(ship.getNavVersion());
+
+        Search search = searchFor(ship);
+        TileNode start = search.graph.getNode(crew.getCurrentRoomX(), crew.getCurrentRoomY(),
+                crew.getCurrentTileX(), crew.getCurrentTileY());
+        TileNode target = search.graph.getNode(crew.getTargetRoomX(), crew.getTargetRoomY(),
+                crew.getTargetTileX(), crew.getTargetTileY());
+        if (!search.graph.isPassable(start) || !search.graph.isPassable(target) || start == target) {
+            return false;
+        }
+
+        if (start.room != target.room && search.getRoomGraph().getRoomCount() >= HIERARCHICAL_MIN_ROOMS) {
+            if (planNextRoomHop(search, crew, start, target)) {
+                return true;
             }
-            
-            path.add(new int[]{roomX, roomY, currentTileX, currentTileY});
+            // The two-room refinement can be blocked by crew; fall back to a full search
         }
-        
-        return path;
+
+        search.nodePath.clear();
+        if (!search.finder.searchNodePath(start, target, ShipTileGraph.MANHATTAN, search.nodePath)) {
+            return false;
+        }
+        appendNodePath(search, crew);
+        return true;
+    }
+
+    /**
+     * Repair a walking crew member's route after it went stale (the ship's navigation version
+     * changed or a tile on it got occupied) and store it in their path buffer.
+     * The crew member keeps D* Lite search state between calls, so only the part of the search
+     * affected by tiles that changed since the last repair is redone; the first call towards
+     * a target does a full search. Returns false (leaving the route empty) if the target is
+     * unreachable. Call {@link #releaseRoute} once the crew member stops.
+     */
+    public static boolean repairRoute(Ship ship, Crew crew) {
+        Search search = searchFor(ship);
+        TileNode current = search.graph.getNode(crew.getCurrentRoomX(), crew.getCurrentRoomY(),
+                crew.getCurrentTileX(), crew.getCurrentTileY());
+        TileNode target = search.graph.getNode(crew.getTargetRoomX(), crew.getTargetRoomY(),
+                crew.getTargetTileX(), crew.getTargetTileY());
+        if (!search.graph.isPassable(current) || !search.graph.isPassable(target) || current == target) {
+            crew.clearPath(ship.getNavVersion());
+            return false;
+        }
+
+        IncrementalPathfinder planner = search.incremental.get(crew);
+        if (planner == null) {
+            planner = search.spareIncremental.size > 0 ? search.spareIncremental.pop()
+                    : new IncrementalPathfinder(search.graph);
+            search.incremental.put(crew, planner);
+        }
+        if (planner.getGoal() != target) {
+            planner.reset(current, target);
+        }
+        return planner.repair(crew, current, ship.getNavVersion());
     }
-    
+
     /**
-     * Alternative pathfinding within room: move vertically first, then horizontally.
+     * Whether a crew member keeps incremental search state from {@link #repairRoute}.
      */
-    private static List<int[]> findPathWithinRoomVerticalFirst(Ship ship, int roomX, int roomY,
-            int startTileX, int startTileY, int targetTileX, int targetTileY) {
-        List<int[]> path = new ArrayList<>();
-        
-        Room room = ship.getRoom(roomX, roomY);
-        if (room == null) {
-            return path;
-        }
-        
-        int currentTileX = startTileX;
-        int currentTileY = startTileY;
-        
-        // Move vertically first
-        while (currentTileY != targetTileY) {
-            if (currentTileY < targetTileY) {
-                currentTileY++;
-            } else {
-                currentTileY--;
+    public static boolean hasIncrementalRoute(Ship ship, Crew crew) {
+        Search search = searches.get(ship);
+        return search != null && search.incremental.containsKey(crew);
+    }
+
+    /**
+     * A crew member settled on their current tile. Only the routes through that tile go
+     * stale: their crew repair them at their next tile, and D* Lite sees just that tile
+     * blocked. Routes of cooperative and flow-field crew are left alone, as they look at
+     * tiles one step at a time.
+     */
+    public static void tileOccupied(Ship ship, Crew settled) {
+        Search search = searchFor(ship);
+        TileNode node = search.graph.getNode(settled.getCurrentRoomX(), settled.getCurrentRoomY(),
+                settled.getCurrentTileX(), settled.getCurrentTileY());
+        if (node == null) {
+            return;
+        }
+        search.graph.markOccupancyChanged();
+        int packed = Crew.packTile(node.roomX, node.roomY, node.tileX, node.tileY);
+        List<Crew> crewList = ship.getCrew();
+        for (int i = 0; i < crewList.size(); i++) {
+            Crew crew = crewList.get(i);
+            if (crew == settled || !crew.isMoving() || crew.isCooperativeRoute() || crew.isFollowingFlowField()) {
+                continue;
             }
-            
-            // Check if tile is occupied
-            if (!room.isTileEmpty(currentTileX, currentTileY)) {
-                return new ArrayList<>(); // Path blocked
+            int remaining = crew.getRemainingPathSteps();
+            for (int ahead = 0; ahead < remaining; ahead++) {
+                if (crew.peekPathStep(ahead) == packed) {
+                    crew.invalidatePath();
+                    break;
+                }
             }
-            
-            path.add(new int[]{roomX, roomY, currentTileX, currentTileY});
-        }
-        
-        // Then move horizontally
-        while (currentTileX != targetTileX) {
-            if (currentTileX < targetTileX) {
-                currentTileX++;
-            } else {
-                currentTileX--;
+        }
+    }
+
+    /**
+     * Drop a crew member's incremental search state, e.g. when they stop walking.
+     */
+    public static void releaseRoute(Ship ship, Crew crew) {
+        Search search = searches.get(ship);
+        if (search == null) {
+            return;
+        }
+        IncrementalPathfinder planner = search.incremental.remove(crew);
+        if (planner != null) {
+            search.spareIncremental.add(planner);
+        }
+    }
+
+    /**
+     * Plan only the tile steps from the start tile into the next room of the room-level route.
+     */
+    private static boolean planNextRoomHop(Search search, Crew crew, TileNode start, TileNode target) {
+        RoomGraph rooms = search.getRoomGraph();
+        int nextCell = rooms.getNextRoom(start.roomX, start.roomY, target.roomX, target.roomY);
+        if (nextCell == RoomGraph.UNREACHABLE) {
+            return false;
+        }
+        int nextRoomX = nextCell % rooms.getRoomsWide();
+        int nextRoomY = nextCell / rooms.getRoomsWide();
+
+        TileNode goal;
+        if (nextRoomX == target.roomX && nextRoomY == target.roomY) {
+            goal = target;
+        } else {
+            goal = pickEntryTile(search.graph, start, target, nextRoomX, nextRoomY);
+            if (goal == null) {
+                return false;
             }
-            
-            // Check if tile is occupied
-            if (!room.isTileEmpty(currentTileX, currentTileY)) {
-                return new ArrayList<>(); // Path blocked
+        }
+
+        search.nodePath.clear();
+        search.graph.restrictToRooms(start.room, goal.room);
+        boolean found = search.finder.searchNodePath(start, goal, ShipTileGraph.MANHATTAN, search.nodePath);
+        search.graph.restrictToRooms(null, null);
+        if (!found) {
+            return false;
+        }
+        appendNodePath(search, crew);
+        return true;
+    }
+
+    /**
+     * Pick the free tile of the next room just inside the door from the start room,
+     * preferring the one that keeps the detour towards the target shortest.
+     */
+    private static TileNode pickEntryTile(ShipTileGraph graph, TileNode start, TileNode target,
+            int nextRoomX, int nextRoomY) {
+        int dx = nextRoomX - start.roomX;
+        int dy = nextRoomY - start.roomY;
+        TileNode best = null;
+        int bestCost = Integer.MAX_VALUE;
+        for (int i = 0; i < ShipTileGraph.ROOM_TILES; i++) {
+            // Entry tiles are the edge of the next room facing the start room
+            int tileX = dx > 0 ? 0 : dx < 0 ? 1 : i;
+            int tileY = dy > 0 ? 0 : dy < 0 ? 1 : i;
+            TileNode candidate = graph.getNode(nextRoomX, nextRoomY, tileX, tileY);
+            if (!graph.isPassable(candidate) || !candidate.room.isTileEmpty(tileX, tileY)) continue;
+            int cost = Math.abs(candidate.gx - start.gx) + Math.abs(candidate.gy - start.gy)
+                    + Math.abs(candidate.gx - target.gx) + Math.abs(candidate.gy - target.gy);
+            if (cost < bestCost) {
+                best = candidate;
+                bestCost = cost;
             }
-            
-            path.add(new int[]{roomX, roomY, currentTileX, currentTileY});
         }
-        
-        return path;
+        return best;
     }
-}
 
+    private static void appendNodePath(Search search, Crew crew) {
+        // The node path starts with the start tile itself
+        for (int i = 1; i < search.nodePath.getCount(); i++) {
+            TileNode node = search.nodePath.get(i);
+            crew.addPathStep(Crew.packTile(node.roomX, node.roomY, node.tileX, node.tileY));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.n3wang.voidcodex;
+
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.sim.RenderSnapshot;
+import io.github.n3wang.voidcodex.sim.SnapshotExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Checks both ways of running the simulation: on the render thread, where commands run at
+ * once and show in the next snapshot straight away, and on its own thread
+ * (voidcodex.simulationThread), where it ticks by itself, runs commands there and publishes
+ * what they did.
+ */
+class GameStateTest {
+
+    private static final long TIMEOUT_NANOS = 5_000_000_000L;
+
+    private GameState gameState;
+    private Ship ship;
+    private SnapshotExchange snapshots;
+
+    @BeforeEach
+    void setUp() {
+        gameState = new GameState();
+        ship = Ship.createStarterShip();
+        gameState.setCurrentShip(ship);
+        snapshots = gameState.getSimulation().getSnapshots(ship);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gameState.dispose();
+    }
+
+    @Test
+    void commandsOnTheRenderThreadShowInTheSnapshotAtOnce() {
+        assertFalse(gameState.isSimulationThreaded());
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+
+        gameState.runOnSimulation(() -> {
+            ranOn.set(Thread.currentThread());
+            ship.setScrap(42);
+        });
+
+        assertSame(caller, ranOn.get());
+        RenderSnapshot snapshot = snapshots.acquire();
+        assertNotNull(snapshot);
+        assertEquals(42, snapshot.getScrap());
+    }
+
+    @Test
+    void combatShowsInThePlayerShipsSnapshot() {
+        Ship enemy = new Ship("Enemy", 20, 10, 2, 2);
+        gameState.runOnSimulation(() -> {
+            gameState.getCombatState().startCombat(ship, enemy);
+            gameState.getCombatState().setMaxEnemyShields(4);
+            gameState.getCombatState().setEnemyShields(3);
+            enemy.setCurrentHull(15);
+        });
+
+        RenderSnapshot snapshot = snapshots.acquire();
+        assertTrue(snapshot.isInCombat());
+        assertSame(enemy, snapshot.getEnemyShip());
+        assertEquals(15, snapshot.getEnemyHull());
+        assertEquals(3, snapshot.getEnemyCombatShields());
+        assertEquals(gameState.getCombatState().getVersion(), snapshot.getCombatVersion());
+    }
+
+    @Test
+    void threadedSimulationTicksAndRunsCommandsOnItsOwnThread() throws InterruptedException {
+        gameState.setSimulationThreaded(true);
+        assertTrue(gameState.isSimulationThreaded());
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        gameState.runOnSimulation(() -> {
+            ranOn.set(Thread.currentThread());
+            ship.setScrap(42);
+        });
+
+        RenderSnapshot snapshot = awaitSnapshot(s -> s.getScrap() == 42 && s.getTick() > 0);
+        assertNotNull(ranOn.get());
+        assertNotSame(Thread.currentThread(), ranOn.get());
+        long tick = snapshot.getTick();
+        awaitSnapshot(s -> s.getTick() > tick); // Keeps ticking with no frames driving it
+
+        // Back on the render thread: ticking stops until frames drive it again
+        gameState.setSimulationThreaded(false);
+        assertFalse(gameState.isSimulationThreaded());
+        long stoppedAt = gameState.getSimulation().getTickCount();
+        Thread.sleep(50);
+        assertEquals(stoppedAt, gameState.getSimulation().getTickCount());
+
+        gameState.runOnSimulation(() -> ship.setFuel(7));
+        assertEquals(7, snapshots.acquire().getFuel());
+    }
+
+    /**
+     * Acquire snapshots as frames would until one matches, rethrowing whatever stopped the
+     * simulation thread.
+     */
+    private RenderSnapshot awaitSnapshot(Predicate<RenderSnapshot> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (System.nanoTime() < deadline) {
+            gameState.updateSimulation(0.0f);
+            RenderSnapshot snapshot = snapshots.acquire();
+            if (snapshot != null && condition.test(snapshot)) {
+                return snapshot;
+            }
+            Thread.sleep(1);
+        }
+        fail("no matching snapshot within the timeout");
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.n3wang.voidcodex.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that crew ids in the tile store are freed once a crew member holds no tile.
+ */
+class TileStateStoreTest {
+
+    @Test
+    void walkingKeepsOneIdAndFreesItOnLeavingTheTiles() {
+        TileStateStore store = new TileStateStore(4, 4);
+        Crew crew = new Crew("A", CrewRole.ENGINEER);
+
+        store.setCrew(0, crew);
+        store.setCrew(1, crew); // Holds the next tile while stepping onto it
+        store.setCrew(0, null);
+        assertSame(crew, store.getCrew(1));
+        assertEquals(1, store.getCrewIdsInUse());
+
+        store.setCrew(1, null);
+        assertTrue(store.isEmpty(1));
+        assertEquals(0, store.getCrewIdsInUse());
+    }
+
+    @Test
+    void removedCrewFreeEveryTileTheyHeld() {
+        TileStateStore store = new TileStateStore(4, 4);
+        Crew leaving = new Crew("A", CrewRole.ENGINEER);
+        Crew staying = new Crew("B", CrewRole.PILOT);
+        store.setCrew(2, leaving);
+        store.setCrew(3, leaving);
+        store.setCrew(5, staying);
+
+        store.removeCrew(leaving);
+
+        assertNull(store.getCrew(2));
+        assertNull(store.getCrew(3));
+        assertSame(staying, store.getCrew(5));
+        assertEquals(1, store.getCrewIdsInUse());
+    }
+
+    @Test
+    void idsAreReusedAcrossALongSession() {
+        TileStateStore store = new TileStateStore(4, 4);
+        // Far more crew than a short can number, placed and taken off one after another
+        for (int i = 0; i < Short.MAX_VALUE * 2; i++) {
+            Crew crew = new Crew("Crew " + i, CrewRole.ENGINEER);
+            store.setCrew(i % 16, crew);
+            store.setCrew(i % 16, null);
+        }
+        assertEquals(0, store.getCrewIdsInUse());
+    }
+}
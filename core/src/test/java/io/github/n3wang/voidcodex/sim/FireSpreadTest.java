@@ -0,0 +1,108 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.Crew;
+import io.github.n3wang.voidcodex.model.CrewRole;
+import io.github.n3wang.voidcodex.model.TileStateStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the fire automaton on small hand-built tile grids.
+ */
+class FireSpreadTest {
+    private static final float DELTA = 1 / 60f;
+
+    private static TileStateStore airedGrid(int wide, int high, int wallColumn, float oxygen) {
+        TileStateStore tiles = OxygenDiffusionTest.grid(wide, high, wallColumn);
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            tiles.setOxygen(tile, oxygen);
+        }
+        return tiles;
+    }
+
+    @Test
+    void lonelyFireGrowsAndBurnsOxygenByTheRule() {
+        TileStateStore tiles = airedGrid(3, 3, -1, 1.0f);
+        int centre = tiles.tileId(1, 1);
+        tiles.setFire(centre, 0.5f);
+
+        new FireSpread().step(tiles, 0.1f);
+
+        // Growth 0.5 * fire * oxygen per second, then the new intensity burns oxygen
+        float fire = 0.5f + FireSpread.GROWTH_PER_SECOND * 0.5f * 1.0f * 0.1f;
+        assertEquals(fire, tiles.getFire(centre), 1e-6f, "fire");
+        assertEquals(1.0f - FireSpread.OXYGEN_BURN_PER_SECOND * fire * 0.1f, tiles.getOxygen(centre), 1e-6f, "oxygen");
+        // Neighbours catch from the fire as it was at the start of the tick
+        float caught = FireSpread.SPREAD_PER_SECOND * 0.5f * 1.0f * 0.1f;
+        assertEquals(caught, tiles.getFire(tiles.tileId(1, 0)), 1e-6f, "neighbour");
+        assertEquals(0.0f, tiles.getFire(tiles.tileId(0, 0)), 0.0f, "diagonal");
+    }
+
+    @Test
+    void spreadsAcrossConnectedTiles() {
+        TileStateStore tiles = airedGrid(6, 3, -1, 1.0f);
+        tiles.setFire(tiles.tileId(0, 1), 0.5f);
+
+        FireSpread fire = new FireSpread();
+        for (int tick = 0; tick < 60 * 3; tick++) {
+            fire.step(tiles, DELTA);
+        }
+
+        assertTrue(tiles.getFire(tiles.tileId(0, 1)) > 0.5f, "origin grew");
+        assertTrue(tiles.getFire(tiles.tileId(2, 1)) > 0.0f, "spread two tiles");
+    }
+
+    @Test
+    void wallsStopTheSpread() {
+        TileStateStore tiles = airedGrid(5, 3, 2, 1.0f);
+        for (int gy = 0; gy < 3; gy++) {
+            tiles.setFire(tiles.tileId(1, gy), 1.0f);
+        }
+
+        FireSpread fire = new FireSpread();
+        for (int tick = 0; tick < 60 * 3; tick++) {
+            fire.step(tiles, DELTA);
+        }
+
+        for (int gy = 0; gy < 3; gy++) {
+            assertTrue(tiles.getFire(tiles.tileId(0, gy)) > 0.0f, "burning side");
+            assertEquals(0.0f, tiles.getFire(tiles.tileId(2, gy)), 0.0f, "wall");
+            assertEquals(0.0f, tiles.getFire(tiles.tileId(3, gy)), 0.0f, "far side");
+        }
+    }
+
+    @Test
+    void diesWithoutOxygen() {
+        TileStateStore tiles = airedGrid(4, 4, -1, 0.0f);
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            tiles.setFire(tile, 1.0f);
+        }
+
+        FireSpread fire = new FireSpread();
+        // Smothered at SMOTHER_PER_SECOND * MIN_OXYGEN = 0.5 per second, so out within 2 seconds
+        for (int tick = 0; tick < 60 * 2 + 1; tick++) {
+            fire.step(tiles, DELTA);
+        }
+
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            assertEquals(0.0f, tiles.getFire(tile), 0.0f, "tile " + tile);
+        }
+    }
+
+    @Test
+    void crewPutOutTheirTile() {
+        TileStateStore tiles = airedGrid(3, 3, -1, 0.2f);
+        int centre = tiles.tileId(1, 1);
+        tiles.setFire(centre, 0.3f);
+        tiles.setCrew(centre, new Crew("A", CrewRole.ENGINEER));
+
+        FireSpread fire = new FireSpread();
+        for (int tick = 0; tick < 60; tick++) {
+            fire.step(tiles, DELTA);
+        }
+
+        assertEquals(0.0f, tiles.getFire(centre), 0.0f, "crewed tile");
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.model.TileStateStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the oxygen stencil on small hand-built tile grids.
+ */
+class OxygenDiffusionTest {
+    private static final float DELTA = 1 / 60f;
+
+    /**
+     * A store whose tiles are all interior except the given wall column (-1 for none).
+     */
+    static TileStateStore grid(int wide, int high, int wallColumn) {
+        TileStateStore tiles = new TileStateStore(wide, high);
+        for (int gy = 0; gy < high; gy++) {
+            for (int gx = 0; gx < wide; gx++) {
+                tiles.setFlag(tiles.tileId(gx, gy), TileStateStore.FLAG_INTERIOR, gx != wallColumn);
+            }
+        }
+        return tiles;
+    }
+
+    private static float total(TileStateStore tiles) {
+        float sum = 0.0f;
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            sum += tiles.getOxygen(tile);
+        }
+        return sum;
+    }
+
+    @Test
+    void conservesOxygenWithoutSourceOrBreach() {
+        TileStateStore tiles = grid(6, 6, -1);
+        Random random = new Random(7);
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            tiles.setOxygen(tile, 0.2f + random.nextFloat() * 0.6f);
+        }
+        float before = total(tiles);
+
+        OxygenDiffusion diffusion = new OxygenDiffusion();
+        for (int tick = 0; tick < 600; tick++) {
+            diffusion.step(tiles, DELTA, 0.0f);
+        }
+
+        assertEquals(before, total(tiles), 1e-3f, "total oxygen");
+        // And it has evened out
+        float mean = before / tiles.getTileCount();
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            assertEquals(mean, tiles.getOxygen(tile), 1e-3f, "tile " + tile);
+        }
+    }
+
+    @Test
+    void ventsThroughABreachedTile() {
+        TileStateStore tiles = grid(4, 4, -1);
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            tiles.setOxygen(tile, 1.0f);
+        }
+        int breached = tiles.tileId(0, 0);
+        tiles.setFlag(breached, TileStateStore.FLAG_BREACH, true);
+
+        OxygenDiffusion diffusion = new OxygenDiffusion();
+        diffusion.step(tiles, DELTA, 0.0f);
+        // One tick: only the breached tile has lost anything yet
+        assertEquals(1.0f - OxygenDiffusion.VENT_PER_SECOND * DELTA, tiles.getOxygen(breached), 1e-6f, "breached tile");
+        assertEquals(1.0f, tiles.getOxygen(tiles.tileId(3, 3)), 1e-6f, "far tile");
+
+        for (int tick = 0; tick < 60 * 10; tick++) {
+            diffusion.step(tiles, DELTA, 0.0f);
+        }
+        // Ten seconds through one breached tile of sixteen vents more than half the air
+        assertTrue(total(tiles) < 8.0f, "oxygen left " + total(tiles));
+        assertTrue(tiles.getOxygen(breached) < tiles.getOxygen(tiles.tileId(3, 3)), "breach drains from its side");
+    }
+
+    @Test
+    void wallsBlockFlow() {
+        // Columns 0-1 and 3-4 are two sealed compartments either side of a wall in column 2
+        TileStateStore tiles = grid(5, 3, 2);
+        for (int gy = 0; gy < 3; gy++) {
+            tiles.setOxygen(tiles.tileId(0, gy), 1.0f);
+            tiles.setOxygen(tiles.tileId(1, gy), 1.0f);
+        }
+
+        OxygenDiffusion diffusion = new OxygenDiffusion();
+        for (int tick = 0; tick < 600; tick++) {
+            diffusion.step(tiles, DELTA, 0.0f);
+        }
+
+        for (int gy = 0; gy < 3; gy++) {
+            assertEquals(1.0f, tiles.getOxygen(tiles.tileId(1, gy)), 1e-6f, "left compartment");
+            assertEquals(0.0f, tiles.getOxygen(tiles.tileId(2, gy)), 0.0f, "wall");
+            assertEquals(0.0f, tiles.getOxygen(tiles.tileId(3, gy)), 0.0f, "right compartment");
+        }
+    }
+
+    @Test
+    void sourceFillsOnlyInteriorTiles() {
+        TileStateStore tiles = grid(3, 3, 1);
+        OxygenDiffusion diffusion = new OxygenDiffusion();
+        diffusion.step(tiles, DELTA, 0.25f);
+
+        assertEquals(0.25f, tiles.getOxygen(tiles.tileId(0, 1)), 1e-6f, "interior");
+        assertEquals(0.0f, tiles.getOxygen(tiles.tileId(1, 1)), 0.0f, "wall");
+    }
+}
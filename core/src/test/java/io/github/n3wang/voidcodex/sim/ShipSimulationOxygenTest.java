@@ -0,0 +1,42 @@
+package io.github.n3wang.voidcodex.sim;
+
+import io.github.n3wang.voidcodex.GameState;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Ship;
+import io.github.n3wang.voidcodex.model.TileStateStore;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a ship's oxygen spreads and vents whether or not it has an oxygen system.
+ */
+class ShipSimulationOxygenTest {
+
+    @Test
+    void shipWithoutOxygenRoomStillVentsThroughBreaches() {
+        GameState gameState = new GameState();
+        Ship ship = new Ship("Test", 30, 10, 2, 1);
+        ship.addRoom(new Room(0, 0, RoomType.BRIDGE));
+        ship.addRoom(new Room(1, 0, RoomType.WEAPONS));
+        gameState.setCurrentShip(ship);
+
+        TileStateStore tiles = ship.getTileStore();
+        for (int tile = 0; tile < tiles.getTileCount(); tile++) {
+            tiles.setOxygen(tile, 1.0f);
+        }
+        ship.getRoom(1, 0).setBreach(true);
+
+        ShipSimulation simulation = gameState.getSimulation();
+        for (int tick = 0; tick < ShipSimulation.DEFAULT_TICK_RATE * 5; tick++) {
+            simulation.step();
+        }
+
+        // The sealed room empties into the breached one, not just the breach itself
+        Room sealed = ship.getRoom(0, 0);
+        assertTrue(sealed.getTileOxygen(0, 0) < 0.5f, "sealed room kept " + sealed.getTileOxygen(0, 0));
+        assertTrue(ship.getRoom(1, 0).getTileOxygen(1, 0) < 0.5f, "breached room did not vent");
+        simulation.dispose();
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.n3wang.voidcodex.sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that timers fire on exactly their due tick, including those that start on a
+ * coarse level and cascade down, and that cancelled timers never fire.
+ */
+class TimingWheelTest {
+
+    /** Records every tick it fired on. */
+    private static class RecordingTimer extends TimingWheel.Timer {
+        final List<Long> fired = new ArrayList<>();
+
+        @Override
+        protected void fire(long tick) {
+            fired.add(tick);
+        }
+    }
+
+    @Test
+    void firesOnTheDueTickAndNotBefore() {
+        TimingWheel wheel = new TimingWheel(0);
+        RecordingTimer timer = new RecordingTimer();
+        wheel.schedule(timer, 5);
+
+        wheel.advance(4);
+        assertTrue(timer.fired.isEmpty());
+        assertTrue(timer.isScheduled());
+
+        wheel.advance(5);
+        assertEquals(List.of(5L), timer.fired);
+        assertFalse(timer.isScheduled());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        TimingWheel wheel = new TimingWheel(0);
+        RecordingTimer cancelled = new RecordingTimer();
+        RecordingTimer kept = new RecordingTimer();
+        wheel.schedule(cancelled, 10);
+        wheel.schedule(kept, 10);
+
+        wheel.cancel(cancelled);
+        assertFalse(cancelled.isScheduled());
+        assertEquals(1, wheel.size());
+
+        wheel.advance(100);
+        assertTrue(cancelled.fired.isEmpty());
+        assertEquals(List.of(10L), kept.fired);
+    }
+
+    @Test
+    void cascadesFromEveryLevelOnTheExactTick() {
+        // Start off a slot boundary so cascades do not line up with the start tick
+        long start = 1_000_003;
+        TimingWheel wheel = new TimingWheel(start);
+        long[] dues = {
+                start + 63,               // Level 0
+                start + 64 * 3 + 7,       // Level 1
+                start + 64 * 64 * 5 + 11, // Level 2
+                start + 64 * 64 * 64 * 2 + 13, // Level 3
+        };
+        RecordingTimer[] timers = new RecordingTimer[dues.length];
+        for (int i = 0; i < dues.length; i++) {
+            timers[i] = new RecordingTimer();
+            wheel.schedule(timers[i], dues[i]);
+        }
+
+        for (int i = 0; i < dues.length; i++) {
+            wheel.advance(dues[i] - 1);
+            assertTrue(timers[i].fired.isEmpty(), "timer " + i + " fired early");
+            wheel.advance(dues[i]);
+            assertEquals(List.of(dues[i]), timers[i].fired, "timer " + i);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void firesInTickOrderAcrossOneLongAdvance() {
+        TimingWheel wheel = new TimingWheel(0);
+        List<Long> order = new ArrayList<>();
+        long[] dues = {300_000, 70, 5000, 1, 4096, 64};
+        for (long due : dues) {
+            wheel.schedule(new TimingWheel.Timer() {
+                @Override
+                protected void fire(long tick) {
+                    assertEquals(due, tick);
+                    order.add(tick);
+                }
+            }, due);
+        }
+
+        wheel.advance(400_000);
+        assertEquals(List.of(1L, 64L, 70L, 4096L, 5000L, 300_000L), order);
+        assertEquals(400_000, wheel.getTick());
+    }
+
+    @Test
+    void reschedulingFromFireRepeats() {
+        TimingWheel wheel = new TimingWheel(0);
+        RecordingTimer repeating = new RecordingTimer() {
+            @Override
+            protected void fire(long tick) {
+                super.fire(tick);
+                wheel.schedule(this, tick + 30);
+            }
+        };
+        wheel.schedule(repeating, 30);
+
+        wheel.advance(100);
+        assertEquals(List.of(30L, 60L, 90L), repeating.fired);
+        assertEquals(120, repeating.getDue());
+    }
+
+    @Test
+    void pastDueTimerFiresOnTheNextTick() {
+        TimingWheel wheel = new TimingWheel(50);
+        RecordingTimer late = new RecordingTimer();
+        wheel.schedule(late, 10);
+
+        wheel.advance(51);
+        assertEquals(List.of(51L), late.fired);
+    }
+}
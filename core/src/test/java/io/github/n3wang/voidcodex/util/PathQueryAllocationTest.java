@@ -0,0 +1,86 @@
+package io.github.n3wang.voidcodex.util;
+
+import com.badlogic.gdx.utils.IntArray;
+import io.github.n3wang.voidcodex.model.Room;
+import io.github.n3wang.voidcodex.model.RoomType;
+import io.github.n3wang.voidcodex.model.Ship;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the IntArray path queries allocate nothing once their buffers and the ship's
+ * pooled search state have warmed up.
+ */
+class PathQueryAllocationTest {
+
+    private static final int WARMUP_QUERIES = 20000;
+    private static final int MEASURED_QUERIES = 5000;
+
+    // Slack for the counter itself; a query that allocated even one object would blow past it
+    private static final long TOLERANCE_BYTES = 1024;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Ship ship;
+    private final IntArray tiles = new IntArray();
+    private final IntArray rooms = new IntArray();
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocation counters unavailable");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ship = new Ship("Test", 30, 10, 16, 16);
+        for (int y = 0; y < 16; y++) {
+            for (int x = 0; x < 16; x++) {
+                ship.addRoom(new Room(x, y, RoomType.BRIDGE));
+            }
+        }
+    }
+
+    @Test
+    void tileQueryIsAllocationFree() {
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            TilePathfinding.findPath(ship, 0, 0, 0, 0, 15, 15, 1, 1, tiles);
+        }
+
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < MEASURED_QUERIES; i++) {
+                TilePathfinding.findPath(ship, 0, 0, 0, 0, 15, 15, 1, 1, tiles);
+            }
+        });
+
+        assertEquals(62, tiles.size, "route length");
+        assertTrue(allocated < TOLERANCE_BYTES, "tile queries allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void roomQueryIsAllocationFree() {
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            Pathfinding.findPath(ship, 0, 0, 15, 15, rooms);
+        }
+
+        long allocated = allocatedBytes(() -> {
+            for (int i = 0; i < MEASURED_QUERIES; i++) {
+                Pathfinding.findPath(ship, 0, 0, 15, 15, rooms);
+            }
+        });
+
+        assertEquals(30, rooms.size, "route length");
+        assertTrue(allocated < TOLERANCE_BYTES, "room queries allocated " + allocated + " bytes");
+    }
+
+    private long allocatedBytes(Runnable queries) {
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        queries.run();
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.n3wang.voidcodex.tools;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.tools.texturepacker.TexturePacker;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Build-time packer for the PixelLab art under assets/pixellab. Character rotations, a
+ * headshot cropped from each character's south view, room art and misc tiles all go into
+ * one atlas, so the game loads a page or two instead of decoding every PNG at startup.
+ * Region names: characters/&lt;role&gt;/&lt;direction&gt;, profiles/&lt;role&gt;,
+ * rooms/&lt;room&gt;, misc/&lt;tile&gt;.
+ * Run by the lwjgl3 packPixellab task: {@code PixellabPacker <pixellab dir> <staging dir> <output dir>}.
+ */
+public class PixellabPacker {
+    public static final String ATLAS_NAME = "pixellab";
+
+    // Headshot crop, the same as PixelArtGenerator.generateCrewProfile makes from the PNG
+    private static final int PROFILE_SIZE = 32;
+    private static final int HEAD_START_Y = 4;
+    private static final int HEAD_HEIGHT = 20;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: PixellabPacker <pixellab dir> <staging dir> <output dir>");
+            System.exit(1);
+        }
+        File source = new File(args[0]);
+        File staging = new File(args[1]);
+        File output = new File(args[2]);
+
+        // Lay the inputs out by region name, then pack the lot
+        deleteRecursively(staging);
+        File[] characters = source.toPath().resolve("characters").toFile().listFiles(File::isDirectory);
+        if (characters != null) {
+            for (File character : characters) {
+                File rotations = new File(character, "rotations");
+                if (!rotations.isDirectory()) continue; // Not a character (e.g. extraction leftovers)
+                String role = character.getName();
+                copyPngs(rotations, new File(staging, "characters/" + role));
+                File south = new File(rotations, "south.png");
+                if (south.isFile()) {
+                    writeProfile(south, new File(staging, "profiles/" + role + ".png"));
+                }
+            }
+        }
+        copyPngs(new File(source, "rooms"), new File(staging, "rooms"));
+        copyPngs(new File(source, "misc"), new File(staging, "misc"));
+
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        settings.maxWidth = 2048;
+        settings.maxHeight = 2048;
+        settings.paddingX = 2;
+        settings.paddingY = 2;
+        settings.duplicatePadding = true; // No bleeding from neighbours when scaled
+        settings.filterMin = Texture.TextureFilter.Nearest;
+        settings.filterMag = Texture.TextureFilter.Nearest;
+        settings.combineSubdirectories = true; // One atlas, regions named by their folder
+        deleteRecursively(output);
+        TexturePacker.process(settings, staging.getPath(), output.getPath(), ATLAS_NAME);
+    }
+
+    private static void writeProfile(File sprite, File profile) throws IOException {
+        BufferedImage full = ImageIO.read(sprite);
+        BufferedImage head = new BufferedImage(PROFILE_SIZE, PROFILE_SIZE, BufferedImage.TYPE_INT_ARGB);
+        int srcX = Math.max(0, full.getWidth() / 2 - PROFILE_SIZE / 2);
+        int copyWidth = Math.min(PROFILE_SIZE, full.getWidth() - srcX);
+        int copyHeight = Math.min(Math.min(HEAD_HEIGHT, full.getHeight() - HEAD_START_Y), PROFILE_SIZE);
+        int offsetX = (PROFILE_SIZE - copyWidth) / 2;
+        for (int y = 0; y < copyHeight; y++) {
+            for (int x = 0; x < copyWidth; x++) {
+                head.setRGB(offsetX + x, y, full.getRGB(srcX + x, HEAD_START_Y + y));
+            }
+        }
+        profile.getParentFile().mkdirs();
+        ImageIO.write(head, "png", profile);
+    }
+
+    private static void copyPngs(File from, File to) throws IOException {
+        File[] pngs = from.listFiles((dir, name) -> name.endsWith(".png"));
+        if (pngs == null) return;
+        to.mkdirs();
+        for (File png : pngs) {
+            Files.copy(png.toPath(), new File(to, png.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteRecursively(File file) throws IOException {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+}